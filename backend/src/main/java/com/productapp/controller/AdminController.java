@@ -22,6 +22,7 @@ import com.productapp.repository.ProductModuleRepository;
 import com.productapp.repository.RoleRepository;
 import com.productapp.repository.UserRepository;
 import com.productapp.security.UserPrincipal;
+import com.productapp.service.KanbanBoardCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +33,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -61,6 +63,9 @@ public class AdminController {
     @Autowired
     private OrganizationRepository organizationRepository;
     
+    @Autowired
+    private KanbanBoardCache kanbanBoardCache;
+    
     // Check if user is superadmin
     private void checkSuperadmin(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
@@ -491,6 +496,15 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
     
+    // Kanban board cache metrics, used to size the cache
+    @GetMapping("/cache/kanban-board")
+    @Operation(summary = "Get Kanban board cache stats", description = "Hit, miss and eviction counts of the Kanban board cache (Superadmin only)")
+    public ResponseEntity<Map<String, Object>> getKanbanBoardCacheStats(Authentication authentication) {
+        checkSuperadmin(authentication);
+        
+        return ResponseEntity.ok(kanbanBoardCache.getStats());
+    }
+    
     // Get user's role modules - for filtering frontend modules
     @GetMapping("/users/{userId}/role-modules")
     @Operation(summary = "Get user's role modules", description = "Get product-modules accessible to a user based on their role")
@@ -1,13 +1,19 @@
 package com.productapp.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productapp.dto.BacklogEpicChangesRequest;
 import com.productapp.dto.BacklogEpicRequest;
 import com.productapp.dto.BacklogEpicResponse;
+import com.productapp.dto.EpicDto;
 import com.productapp.entity.BacklogEpic;
 import com.productapp.entity.Product;
+import com.productapp.exception.DuplicateResourceException;
+import com.productapp.exception.ResourceNotFoundException;
+import com.productapp.exception.UnauthorizedException;
 import com.productapp.repository.BacklogEpicRepository;
 import com.productapp.repository.ProductRepository;
-import com.productapp.repository.RoadmapItemRepository;
-import com.productapp.repository.EpicEffortRepository;
+import com.productapp.service.BacklogEpicService;
 import com.productapp.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,16 +21,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.HashSet;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v3/products/{productId}/backlog")
@@ -43,10 +45,10 @@ public class BacklogEpicController {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private RoadmapItemRepository roadmapItemRepository;
+    private BacklogEpicService backlogEpicService;
     
     @Autowired
-    private EpicEffortRepository epicEffortRepository;
+    private ObjectMapper objectMapper;
     
     @GetMapping
     @Operation(summary = "Get product backlog epics", description = "Retrieve all epics for a specific product")
@@ -83,8 +85,7 @@ public class BacklogEpicController {
     }
     
     @PostMapping
-    @Transactional
-    @Operation(summary = "Update product backlog epics", description = "Update epics with cascade deletion across modules")
+    @Operation(summary = "Update product backlog epics", description = "Save the full list of epics; only new, changed and removed epics are written, with cascade deletion across modules")
     public ResponseEntity<?> updateProductBacklogEpics(@PathVariable Long productId, @RequestBody BacklogEpicRequest request, HttpServletRequest httpRequest) {
         try {
             // Get user ID from JWT token
@@ -104,65 +105,119 @@ public class BacklogEpicController {
                 return ResponseEntity.status(403).body("Access denied");
             }
             
-            // Get current epic IDs for cascade deletion
-            List<BacklogEpic> currentEpics = backlogEpicRepository.findByProductId(productId);
-            Set<String> currentEpicIds = currentEpics.stream()
-                    .map(BacklogEpic::getEpicId)
-                    .collect(Collectors.toSet());
-            
-            // Use native query to delete all epics for this product
-            // This won't fail even if no records exist
-            backlogEpicRepository.deleteAllByProductIdNative(productId);
-            
-            // Parse and create new epics
-            List<BacklogEpic> newEpics = new ArrayList<>();
-            Set<String> newEpicIds = new HashSet<>();
-            
+            List<EpicDto> epicDtos = new ArrayList<>();
             if (request.getEpics() != null && !request.getEpics().isEmpty()) {
-                com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                com.fasterxml.jackson.core.type.TypeReference<List<EpicDto>> typeRef = new com.fasterxml.jackson.core.type.TypeReference<List<EpicDto>>() {};
-                List<EpicDto> epicDtos = mapper.readValue(request.getEpics(), typeRef);
-                
-                for (EpicDto epicDto : epicDtos) {
-                    BacklogEpic epic = new BacklogEpic();
-                    epic.setProduct(product);
-                    epic.setEpicId(epicDto.getId());
-                    epic.setEpicName(epicDto.getName());
-                    epic.setEpicDescription(epicDto.getDescription());
-                    epic.setThemeId(epicDto.getThemeId());
-                    epic.setThemeName(epicDto.getThemeName());
-                    epic.setThemeColor(epicDto.getThemeColor());
-                    epic.setInitiativeId(epicDto.getInitiativeId());
-                    epic.setInitiativeName(epicDto.getInitiativeName());
-                    epic.setTrack(epicDto.getTrack());
-                    
-                    newEpics.add(epic);
-                    newEpicIds.add(epicDto.getId());
-                }
-                
-                // Save all new epics
-                backlogEpicRepository.saveAll(newEpics);
+                epicDtos = objectMapper.readValue(request.getEpics(), new TypeReference<List<EpicDto>>() {});
             }
             
-            // Find deleted epics and cascade delete
-            Set<String> deletedEpicIds = new HashSet<>(currentEpicIds);
-            deletedEpicIds.removeAll(newEpicIds);
+            List<BacklogEpic> epics = backlogEpicService.replaceEpics(product, epicDtos);
             
-            for (String deletedEpicId : deletedEpicIds) {
-                roadmapItemRepository.deleteByEpicIdAndProductId(deletedEpicId, productId);
-                epicEffortRepository.deleteByEpicIdAndProductId(deletedEpicId, productId);
-            }
-            
-            BacklogEpicResponse response = convertToResponse(productId, newEpics);
+            BacklogEpicResponse response = convertToResponse(productId, epics);
             
             return ResponseEntity.ok(response);
             
+        } catch (DuplicateResourceException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error updating backlog epics for product ID: {}", productId, e);
             return ResponseEntity.status(500).body("Error updating backlog epics");
         }
     }
     
+    @PatchMapping
+    @Operation(summary = "Apply backlog epic changes", description = "Create or update the given epics and delete the given epic IDs, leaving the rest of the backlog untouched")
+    public ResponseEntity<?> applyBacklogEpicChanges(@PathVariable Long productId, @RequestBody BacklogEpicChangesRequest request, HttpServletRequest httpRequest) {
+        try {
+            String token = httpRequest.getHeader("Authorization").substring(7);
+            Product product = backlogEpicService.getOwnedProduct(productId, jwtUtil.getUserIdFromJwtToken(token));
+            
+            List<BacklogEpic> epics = backlogEpicService.applyChanges(product, request.getUpserts(), request.getDeletedEpicIds());
+            
+            return ResponseEntity.ok(convertToResponse(productId, epics));
+            
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(403).body("Access denied");
+        } catch (DuplicateResourceException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error applying backlog epic changes for product ID: {}", productId, e);
+            return ResponseEntity.status(500).body("Error updating backlog epics");
+        }
+    }
+    
+    @PostMapping("/epics")
+    @Operation(summary = "Create backlog epic", description = "Add a single epic to the backlog")
+    public ResponseEntity<?> createBacklogEpic(@PathVariable Long productId, @RequestBody EpicDto epicDto, HttpServletRequest httpRequest) {
+        try {
+            String token = httpRequest.getHeader("Authorization").substring(7);
+            Product product = backlogEpicService.getOwnedProduct(productId, jwtUtil.getUserIdFromJwtToken(token));
+            
+            BacklogEpic epic = backlogEpicService.createEpic(product, epicDto);
+            
+            return ResponseEntity.status(201).body(convertToDto(epic));
+            
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(403).body("Access denied");
+        } catch (DuplicateResourceException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error creating backlog epic for product ID: {}", productId, e);
+            return ResponseEntity.status(500).body("Error creating backlog epic");
+        }
+    }
+    
+    @PutMapping("/epics/{epicId}")
+    @Operation(summary = "Update backlog epic", description = "Update a single epic; the row is only written if a field changed")
+    public ResponseEntity<?> updateBacklogEpic(@PathVariable Long productId, @PathVariable String epicId, @RequestBody EpicDto epicDto, HttpServletRequest httpRequest) {
+        try {
+            String token = httpRequest.getHeader("Authorization").substring(7);
+            backlogEpicService.getOwnedProduct(productId, jwtUtil.getUserIdFromJwtToken(token));
+            
+            BacklogEpic epic = backlogEpicService.updateEpic(productId, epicId, epicDto);
+            
+            return ResponseEntity.ok(convertToDto(epic));
+            
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(403).body("Access denied");
+        } catch (Exception e) {
+            logger.error("Error updating backlog epic {} for product ID: {}", epicId, productId, e);
+            return ResponseEntity.status(500).body("Error updating backlog epic");
+        }
+    }
+    
+    @DeleteMapping("/epics/{epicId}")
+    @Operation(summary = "Delete backlog epic", description = "Delete a single epic with cascade deletion across modules")
+    public ResponseEntity<?> deleteBacklogEpic(@PathVariable Long productId, @PathVariable String epicId, HttpServletRequest httpRequest) {
+        try {
+            String token = httpRequest.getHeader("Authorization").substring(7);
+            backlogEpicService.getOwnedProduct(productId, jwtUtil.getUserIdFromJwtToken(token));
+            
+            backlogEpicService.deleteEpic(productId, epicId);
+            
+            return ResponseEntity.noContent().build();
+            
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(403).body("Access denied");
+        } catch (Exception e) {
+            logger.error("Error deleting backlog epic {} for product ID: {}", epicId, productId, e);
+            return ResponseEntity.status(500).body("Error deleting backlog epic");
+        }
+    }
+    
     private BacklogEpicResponse convertToResponse(Long productId, List<BacklogEpic> epics) {
         BacklogEpicResponse response = new BacklogEpicResponse();
         response.setProductId(productId);
@@ -170,22 +225,11 @@ public class BacklogEpicController {
         // Convert epics to JSON format for compatibility
         List<EpicDto> epicDtos = new ArrayList<>();
         for (BacklogEpic epic : epics) {
-            EpicDto epicDto = new EpicDto();
-            epicDto.setId(epic.getEpicId());
-            epicDto.setName(epic.getEpicName());
-            epicDto.setDescription(epic.getEpicDescription());
-            epicDto.setThemeId(epic.getThemeId());
-            epicDto.setThemeName(epic.getThemeName());
-            epicDto.setThemeColor(epic.getThemeColor());
-            epicDto.setInitiativeId(epic.getInitiativeId());
-            epicDto.setInitiativeName(epic.getInitiativeName());
-            epicDto.setTrack(epic.getTrack());
-            epicDtos.add(epicDto);
+            epicDtos.add(convertToDto(epic));
         }
         
         try {
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            String epicsJson = mapper.writeValueAsString(epicDtos);
+            String epicsJson = objectMapper.writeValueAsString(epicDtos);
             response.setEpics(epicsJson);
         } catch (Exception e) {
             logger.error("Error converting epics to JSON", e);
@@ -202,43 +246,17 @@ public class BacklogEpicController {
         return response;
     }
     
-    // DTO class for epic data
-    public static class EpicDto {
-        private String id;
-        private String name;
-        private String description;
-        private String themeId;
-        private String themeName;
-        private String themeColor;
-        private String initiativeId;
-        private String initiativeName;
-        private String track;
-        
-        public String getId() { return id; }
-        public void setId(String id) { this.id = id; }
-        
-        public String getName() { return name; }
-        public void setName(String name) { this.name = name; }
-        
-        public String getDescription() { return description; }
-        public void setDescription(String description) { this.description = description; }
-        
-        public String getThemeId() { return themeId; }
-        public void setThemeId(String themeId) { this.themeId = themeId; }
-        
-        public String getThemeName() { return themeName; }
-        public void setThemeName(String themeName) { this.themeName = themeName; }
-        
-        public String getThemeColor() { return themeColor; }
-        public void setThemeColor(String themeColor) { this.themeColor = themeColor; }
-        
-        public String getInitiativeId() { return initiativeId; }
-        public void setInitiativeId(String initiativeId) { this.initiativeId = initiativeId; }
-        
-        public String getInitiativeName() { return initiativeName; }
-        public void setInitiativeName(String initiativeName) { this.initiativeName = initiativeName; }
-        
-        public String getTrack() { return track; }
-        public void setTrack(String track) { this.track = track; }
+    private EpicDto convertToDto(BacklogEpic epic) {
+        EpicDto epicDto = new EpicDto();
+        epicDto.setId(epic.getEpicId());
+        epicDto.setName(epic.getEpicName());
+        epicDto.setDescription(epic.getEpicDescription());
+        epicDto.setThemeId(epic.getThemeId());
+        epicDto.setThemeName(epic.getThemeName());
+        epicDto.setThemeColor(epic.getThemeColor());
+        epicDto.setInitiativeId(epic.getInitiativeId());
+        epicDto.setInitiativeName(epic.getInitiativeName());
+        epicDto.setTrack(epic.getTrack());
+        return epicDto;
     }
 }
\ No newline at end of file
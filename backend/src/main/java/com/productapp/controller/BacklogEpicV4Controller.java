@@ -0,0 +1,202 @@
+package com.productapp.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productapp.dto.BacklogEpicChangesRequest;
+import com.productapp.dto.EpicDto;
+import com.productapp.entity.BacklogEpic;
+import com.productapp.entity.Product;
+import com.productapp.exception.DuplicateResourceException;
+import com.productapp.exception.ResourceNotFoundException;
+import com.productapp.exception.UnauthorizedException;
+import com.productapp.repository.BacklogEpicRepository;
+import com.productapp.service.BacklogEpicService;
+import com.productapp.util.JwtUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v4/products/{productId}/backlog")
+@Tag(name = "Backlog Epic V4", description = "Backlog epics as a structured JSON array with field selection")
+public class BacklogEpicV4Controller {
+
+    private static final Logger logger = LoggerFactory.getLogger(BacklogEpicV4Controller.class);
+
+    // Selectable epic fields, by their JSON name
+    enum Field {
+        ID("id"), NAME("name"), DESCRIPTION("description"), THEME_ID("themeId"), THEME_NAME("themeName"),
+        THEME_COLOR("themeColor"), INITIATIVE_ID("initiativeId"), INITIATIVE_NAME("initiativeName"), TRACK("track"),
+        CREATED_AT("createdAt"), UPDATED_AT("updatedAt");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        static Set<Field> parse(String fields) {
+            if (fields == null || fields.isBlank()) {
+                return EnumSet.allOf(Field.class);
+            }
+            Set<Field> selected = EnumSet.noneOf(Field.class);
+            for (String name : fields.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                Field match = null;
+                for (Field field : values()) {
+                    if (field.jsonName.equals(trimmed)) {
+                        match = field;
+                        break;
+                    }
+                }
+                if (match == null) {
+                    throw new IllegalArgumentException("Unknown epic field: " + trimmed);
+                }
+                selected.add(match);
+            }
+            return selected;
+        }
+    }
+
+    @Autowired
+    private BacklogEpicRepository backlogEpicRepository;
+
+    @Autowired
+    private BacklogEpicService backlogEpicService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @GetMapping
+    @Operation(summary = "Get product backlog epics", description = "Stream the epics of a product as a JSON array, optionally limited to a comma-separated list of fields")
+    public ResponseEntity<?> getBacklogEpics(@PathVariable Long productId, @RequestParam(required = false) String fields, HttpServletRequest httpRequest) {
+        try {
+            Set<Field> selected = Field.parse(fields);
+            String token = httpRequest.getHeader("Authorization").substring(7);
+            backlogEpicService.getOwnedProduct(productId, jwtUtil.getUserIdFromJwtToken(token));
+
+            List<BacklogEpic> epics = backlogEpicRepository.findByProductId(productId);
+
+            return stream(productId, epics, selected);
+
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(403).body("Access denied");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error retrieving backlog epics for product ID: {}", productId, e);
+            return ResponseEntity.status(500).body("Error retrieving backlog epics");
+        }
+    }
+
+    @PutMapping
+    @Operation(summary = "Replace product backlog epics", description = "Save the full list of epics as a JSON array; only new, changed and removed epics are written")
+    public ResponseEntity<?> replaceBacklogEpics(@PathVariable Long productId, @RequestBody List<EpicDto> epics,
+            @RequestParam(required = false) String fields, HttpServletRequest httpRequest) {
+        try {
+            Set<Field> selected = Field.parse(fields);
+            String token = httpRequest.getHeader("Authorization").substring(7);
+            Product product = backlogEpicService.getOwnedProduct(productId, jwtUtil.getUserIdFromJwtToken(token));
+
+            return stream(productId, backlogEpicService.replaceEpics(product, epics), selected);
+
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(403).body("Access denied");
+        } catch (DuplicateResourceException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error updating backlog epics for product ID: {}", productId, e);
+            return ResponseEntity.status(500).body("Error updating backlog epics");
+        }
+    }
+
+    @PatchMapping
+    @Operation(summary = "Apply backlog epic changes", description = "Create or update the given epics and delete the given epic IDs, leaving the rest of the backlog untouched")
+    public ResponseEntity<?> applyBacklogEpicChanges(@PathVariable Long productId, @RequestBody BacklogEpicChangesRequest request,
+            @RequestParam(required = false) String fields, HttpServletRequest httpRequest) {
+        try {
+            Set<Field> selected = Field.parse(fields);
+            String token = httpRequest.getHeader("Authorization").substring(7);
+            Product product = backlogEpicService.getOwnedProduct(productId, jwtUtil.getUserIdFromJwtToken(token));
+
+            return stream(productId, backlogEpicService.applyChanges(product, request.getUpserts(), request.getDeletedEpicIds()), selected);
+
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(403).body("Access denied");
+        } catch (DuplicateResourceException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error applying backlog epic changes for product ID: {}", productId, e);
+            return ResponseEntity.status(500).body("Error updating backlog epics");
+        }
+    }
+
+    // {"productId": ..., "epics": [...]}, written field by field straight from the entities
+    private ResponseEntity<StreamingResponseBody> stream(Long productId, List<BacklogEpic> epics, Set<Field> fields) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // The response stream is closed by the container, not by the generator
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartObject();
+                generator.writeNumberField("productId", productId);
+                generator.writeArrayFieldStart("epics");
+                for (BacklogEpic epic : epics) {
+                    writeEpic(generator, epic, fields);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private void writeEpic(JsonGenerator generator, BacklogEpic epic, Set<Field> fields) throws IOException {
+        generator.writeStartObject();
+        for (Field field : fields) {
+            generator.writeFieldName(field.jsonName);
+            switch (field) {
+                case ID -> generator.writeString(epic.getEpicId());
+                case NAME -> generator.writeString(epic.getEpicName());
+                case DESCRIPTION -> generator.writeString(epic.getEpicDescription());
+                case THEME_ID -> generator.writeString(epic.getThemeId());
+                case THEME_NAME -> generator.writeString(epic.getThemeName());
+                case THEME_COLOR -> generator.writeString(epic.getThemeColor());
+                case INITIATIVE_ID -> generator.writeString(epic.getInitiativeId());
+                case INITIATIVE_NAME -> generator.writeString(epic.getInitiativeName());
+                case TRACK -> generator.writeString(epic.getTrack());
+                // Dates go through the mapper so they match the rest of the API
+                case CREATED_AT -> generator.writeObject(epic.getCreatedAt());
+                case UPDATED_AT -> generator.writeObject(epic.getUpdatedAt());
+            }
+        }
+        generator.writeEndObject();
+    }
+}
\ No newline at end of file
@@ -3,20 +3,25 @@ package com.productapp.controller;
 import com.productapp.dto.*;
 import com.productapp.entity.*;
 import com.productapp.repository.*;
+import com.productapp.event.TeamAddedEvent;
 import com.productapp.security.UserPrincipal;
+import com.productapp.service.CapacityPlanService;
+import com.productapp.service.CapacityScenarioService;
+import com.productapp.service.EpicEffortRatingService;
 import com.productapp.exception.ResourceNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
 import jakarta.validation.Valid;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -36,22 +41,22 @@ public class CapacityPlanningController {
     private TeamRepository teamRepository;
     
     @Autowired
-    private CapacityPlanRepository capacityPlanRepository;
+    private EffortRatingConfigRepository effortRatingConfigRepository;
     
     @Autowired
-    private EpicEffortRepository epicEffortRepository;
+    private ObjectMapper objectMapper;
     
     @Autowired
-    private QuarterlyRoadmapRepository roadmapRepository;
+    private EpicEffortRatingService epicEffortRatingService;
     
     @Autowired
-    private RoadmapItemRepository roadmapItemRepository;
+    private CapacityPlanService capacityPlanService;
     
     @Autowired
-    private EffortRatingConfigRepository effortRatingConfigRepository;
+    private CapacityScenarioService capacityScenarioService;
     
     @Autowired
-    private ObjectMapper objectMapper;
+    private ApplicationEventPublisher eventPublisher;
     
     private boolean hasProductAccess(Long productId, Long userId) {
         try {
@@ -117,6 +122,9 @@ public class CapacityPlanningController {
             Team team = new Team(request.getName(), request.getDescription(), productId);
             team.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
             team = teamRepository.save(team);
+            if (team.getIsActive()) {
+                eventPublisher.publishEvent(new TeamAddedEvent(productId, team.getId()));
+            }
             
             return ResponseEntity.ok(new TeamResponse(team));
             
@@ -149,10 +157,14 @@ public class CapacityPlanningController {
                 return ResponseEntity.badRequest().body("Team name already exists for this product");
             }
             
+            boolean reactivated = !Boolean.TRUE.equals(team.getIsActive()) && Boolean.TRUE.equals(request.getIsActive());
             team.setName(request.getName());
             team.setDescription(request.getDescription());
             team.setIsActive(request.getIsActive() != null ? request.getIsActive() : team.getIsActive());
             team = teamRepository.save(team);
+            if (reactivated) {
+                eventPublisher.publishEvent(new TeamAddedEvent(productId, team.getId()));
+            }
             
             return ResponseEntity.ok(new TeamResponse(team));
             
@@ -201,31 +213,7 @@ public class CapacityPlanningController {
                 return ResponseEntity.notFound().build();
             }
             
-            // Get teams
-            List<Team> teams = teamRepository.findByProductIdAndIsActiveTrue(productId);
-            
-            // Get or create capacity plan
-            Optional<CapacityPlan> capacityPlanOpt = capacityPlanRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
-            CapacityPlan capacityPlan;
-            
-            if (capacityPlanOpt.isEmpty()) {
-                // Create new capacity plan
-                capacityPlan = new CapacityPlan(productId, year, quarter);
-                capacityPlan = capacityPlanRepository.save(capacityPlan);
-                
-                // Get epics from roadmap for this quarter and create default epic efforts
-                createDefaultEpicEffortsFromRoadmap(capacityPlan, productId, year, quarter);
-            } else {
-                capacityPlan = capacityPlanOpt.get();
-                // Sync existing capacity plan with current roadmap (in case new epics were added)
-                syncCapacityPlanWithRoadmap(capacityPlan, productId, year, quarter);
-            }
-            
-            // Get epic efforts
-            List<EpicEffort> epicEfforts = epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(capacityPlan.getId());
-            
-            CapacityPlanResponse response = new CapacityPlanResponse(capacityPlan, epicEfforts);
-            response.setTeams(teams.stream().map(TeamResponse::new).collect(Collectors.toList()));
+            CapacityPlanResponse response = capacityPlanService.getCapacityPlan(productId, year, quarter);
             
             return ResponseEntity.ok(response);
             
@@ -235,53 +223,94 @@ public class CapacityPlanningController {
         }
     }
     
-    // Save capacity plan
-    @PostMapping("/{year}/{quarter}")
-    public ResponseEntity<?> saveCapacityPlan(@PathVariable Long productId, @PathVariable Integer year, @PathVariable Integer quarter, @Valid @RequestBody CapacityPlanRequest request, Authentication authentication) {
+    // Get effort totals, team load and star ratings of a quarter's capacity plan
+    @GetMapping("/{year}/{quarter}/summary")
+    public ResponseEntity<?> getCapacityPlanSummary(@PathVariable Long productId, @PathVariable Integer year, @PathVariable Integer quarter,
+            @RequestParam(required = false) Integer teamCapacity, Authentication authentication) {
         try {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
             
             if (!hasProductAccess(productId, userPrincipal.getId())) {
-                logger.warn("User {} attempted to save capacity plan for product {} without permission", userPrincipal.getId(), productId);
+                logger.warn("User {} attempted to access capacity plan summary for product {} without permission", userPrincipal.getId(), productId);
                 return ResponseEntity.notFound().build();
             }
             
-            // Get or create capacity plan
-            Optional<CapacityPlan> capacityPlanOpt = capacityPlanRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
-            CapacityPlan capacityPlan;
+            Optional<Map<String, Object>> summary = capacityPlanService.getSummary(productId, year, quarter, teamCapacity);
+            if (summary.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(summary.get());
             
-            if (capacityPlanOpt.isEmpty()) {
-                capacityPlan = new CapacityPlan(productId, year, quarter);
-                capacityPlan = capacityPlanRepository.save(capacityPlan);
-            } else {
-                capacityPlan = capacityPlanOpt.get();
+        } catch (Exception e) {
+            logger.error("Error fetching capacity plan summary for product ID: {}, Q{} {}", productId, quarter, year, e);
+            return ResponseEntity.internalServerError().body("Error fetching capacity plan summary");
+        }
+    }
+    
+    // Evaluate what-if scenarios against the saved plan without writing anything
+    @PostMapping("/{year}/{quarter}/scenarios")
+    public ResponseEntity<?> evaluateScenarios(@PathVariable Long productId, @PathVariable Integer year, @PathVariable Integer quarter,
+            @Valid @RequestBody CapacityScenarioRequest request, Authentication authentication) {
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            
+            if (!hasProductAccess(productId, userPrincipal.getId())) {
+                logger.warn("User {} attempted to evaluate capacity scenarios for product {} without permission", userPrincipal.getId(), productId);
+                return ResponseEntity.notFound().build();
             }
             
-            // Update effort unit if different
-            if (request.getEffortUnit() != null && !request.getEffortUnit().equals(capacityPlan.getEffortUnit())) {
-                capacityPlan.setEffortUnit(request.getEffortUnit());
-                capacityPlan = capacityPlanRepository.save(capacityPlan);
+            Optional<Map<String, Object>> result = capacityScenarioService.evaluate(productId, year, quarter, request);
+            if (result.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(result.get());
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error evaluating capacity scenarios for product ID: {}, Q{} {}", productId, quarter, year, e);
+            return ResponseEntity.internalServerError().body("Error evaluating capacity scenarios");
+        }
+    }
+    
+    // Write one scenario's edits to the saved plan
+    @PostMapping("/{year}/{quarter}/scenarios/promote")
+    public ResponseEntity<?> promoteScenario(@PathVariable Long productId, @PathVariable Integer year, @PathVariable Integer quarter,
+            @Valid @RequestBody CapacityScenarioRequest.Scenario scenario, Authentication authentication) {
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            
+            if (!hasProductAccess(productId, userPrincipal.getId())) {
+                logger.warn("User {} attempted to promote a capacity scenario for product {} without permission", userPrincipal.getId(), productId);
+                return ResponseEntity.notFound().build();
             }
             
-            // Update epic efforts
-            if (request.getEpicEfforts() != null) {
-                for (EpicEffortRequest effortRequest : request.getEpicEfforts()) {
-                    Optional<EpicEffort> existingEffortOpt = epicEffortRepository.findByCapacityPlanIdAndEpicIdAndTeamId(
-                        capacityPlan.getId(), effortRequest.getEpicId(), effortRequest.getTeamId());
-                    
-                    if (existingEffortOpt.isPresent()) {
-                        EpicEffort existingEffort = existingEffortOpt.get();
-                        existingEffort.setEffortDays(effortRequest.getEffortDays());
-                        existingEffort.setNotes(effortRequest.getNotes());
-                        epicEffortRepository.save(existingEffort);
-                    } else {
-                        EpicEffort newEffort = new EpicEffort(capacityPlan.getId(), effortRequest.getEpicId(), 
-                            effortRequest.getEpicName(), effortRequest.getTeamId(), effortRequest.getEffortDays());
-                        newEffort.setNotes(effortRequest.getNotes());
-                        epicEffortRepository.save(newEffort);
-                    }
-                }
+            Optional<Map<String, Object>> result = capacityScenarioService.promote(productId, year, quarter, scenario);
+            if (result.isEmpty()) {
+                return ResponseEntity.notFound().build();
             }
+            return ResponseEntity.ok(result.get());
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error promoting capacity scenario for product ID: {}, Q{} {}", productId, quarter, year, e);
+            return ResponseEntity.internalServerError().body("Error promoting capacity scenario");
+        }
+    }
+    
+    // Save capacity plan
+    @PostMapping("/{year}/{quarter}")
+    public ResponseEntity<?> saveCapacityPlan(@PathVariable Long productId, @PathVariable Integer year, @PathVariable Integer quarter, @Valid @RequestBody CapacityPlanRequest request, Authentication authentication) {
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            
+            if (!hasProductAccess(productId, userPrincipal.getId())) {
+                logger.warn("User {} attempted to save capacity plan for product {} without permission", userPrincipal.getId(), productId);
+                return ResponseEntity.notFound().build();
+            }
+            
+            capacityPlanService.saveCapacityPlan(productId, year, quarter, request);
             
             return ResponseEntity.ok().body("Capacity plan saved successfully");
             
@@ -312,6 +341,7 @@ public class CapacityPlanningController {
                 daysConfig = effortRatingConfigRepository.save(daysConfig);
                 
                 configs = List.of(sprintsConfig, daysConfig);
+                epicEffortRatingService.refreshProduct(productId);
             }
             
             List<EffortRatingConfigResponse> responses = configs.stream()
@@ -367,6 +397,7 @@ public class CapacityPlanningController {
             config.setStar5Min(request.getStar5Min());
             
             config = effortRatingConfigRepository.save(config);
+            epicEffortRatingService.refreshProduct(productId);
             
             return ResponseEntity.ok(new EffortRatingConfigResponse(config));
             
@@ -375,91 +406,4 @@ public class CapacityPlanningController {
             return ResponseEntity.internalServerError().body("Error updating effort rating config");
         }
     }
-
-    private void createDefaultEpicEffortsFromRoadmap(CapacityPlan capacityPlan, Long productId, Integer year, Integer quarter) {
-        try {
-            // Get roadmap for this quarter
-            Optional<QuarterlyRoadmap> roadmapOpt = roadmapRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
-            if (roadmapOpt.isEmpty()) {
-                return;
-            }
-            
-            QuarterlyRoadmap roadmap = roadmapOpt.get();
-            // Get roadmap items from normalized table using explicit query
-            List<RoadmapItem> roadmapItems = roadmapItemRepository.findByRoadmapId(roadmap.getId());
-            if (roadmapItems == null || roadmapItems.isEmpty()) {
-                return;
-            }
-            
-            // Get all active teams for this product
-            List<Team> teams = teamRepository.findByProductIdAndIsActiveTrue(productId);
-            
-            // Create epic efforts for each epic and each team (with 0 effort initially)
-            for (RoadmapItem item : roadmapItems) {
-                for (Team team : teams) {
-                    EpicEffort epicEffort = new EpicEffort(
-                        capacityPlan.getId(),
-                        item.getEpicId(),
-                        item.getEpicName(),
-                        team.getId(),
-                        0 // Default to 0 effort days
-                    );
-                    epicEffortRepository.save(epicEffort);
-                }
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error creating default epic efforts from roadmap for capacity plan ID: {}", capacityPlan.getId(), e);
-        }
-    }
-
-    private void syncCapacityPlanWithRoadmap(CapacityPlan capacityPlan, Long productId, Integer year, Integer quarter) {
-        try {
-            
-            // Get roadmap for this quarter
-            Optional<QuarterlyRoadmap> roadmapOpt = roadmapRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
-            if (roadmapOpt.isEmpty()) {
-                return;
-            }
-            
-            QuarterlyRoadmap roadmap = roadmapOpt.get();
-            List<RoadmapItem> roadmapItems = roadmapItemRepository.findByRoadmapId(roadmap.getId());
-            
-            if (roadmapItems == null || roadmapItems.isEmpty()) {
-                return;
-            }
-            
-            // Get existing epic efforts
-            List<EpicEffort> existingEfforts = epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(capacityPlan.getId());
-            Set<String> existingEpicIds = existingEfforts.stream()
-                    .map(EpicEffort::getEpicId)
-                    .collect(Collectors.toSet());
-            
-            // Get all active teams for this product
-            List<Team> teams = teamRepository.findByProductIdAndIsActiveTrue(productId);
-            
-            // Add epic efforts for new epics that don't already exist
-            int newEffortsCreated = 0;
-            for (RoadmapItem item : roadmapItems) {
-                if (!existingEpicIds.contains(item.getEpicId())) {
-                    // This is a new epic, create efforts for all teams
-                    for (Team team : teams) {
-                        EpicEffort epicEffort = new EpicEffort(
-                            capacityPlan.getId(),
-                            item.getEpicId(),
-                            item.getEpicName(),
-                            team.getId(),
-                            0 // Default to 0 effort days
-                        );
-                        epicEffortRepository.save(epicEffort);
-                        newEffortsCreated++;
-                    }
-                }
-            }
-            
-            
-        } catch (Exception e) {
-            logger.error("Error syncing capacity plan ID {} with roadmap", capacityPlan.getId(), e);
-        }
-    }
 }
\ No newline at end of file
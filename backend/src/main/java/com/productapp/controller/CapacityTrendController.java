@@ -0,0 +1,90 @@
+package com.productapp.controller;
+
+import com.productapp.entity.Product;
+import com.productapp.entity.User;
+import com.productapp.repository.ProductRepository;
+import com.productapp.service.CapacityTrendService;
+import com.productapp.service.ProductAccessService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/capacity-trends")
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Capacity Trends", description = "Team demand per quarter across capacity plans")
+public class CapacityTrendController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacityTrendController.class);
+
+    @Autowired
+    private CapacityTrendService capacityTrendService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductAccessService productAccessService;
+
+    @GetMapping("/products/{productId}")
+    @Operation(summary = "Product capacity trend", description = "Demand per team per quarter of a product's capacity plans over a range of up to 40 quarters")
+    public ResponseEntity<?> getProductTrend(
+            @PathVariable Long productId,
+            @RequestParam Integer fromYear,
+            @RequestParam Integer fromQuarter,
+            @RequestParam Integer toYear,
+            @RequestParam Integer toQuarter,
+            Authentication authentication) {
+
+        try {
+            User user = productAccessService.currentUser(authentication);
+            Optional<Product> productOpt = productRepository.findById(productId);
+            if (productOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
+            }
+            if (!productAccessService.canAccessProduct(user, productOpt.get())) {
+                logger.warn("User attempted to read the capacity trend of product ID: {} without access", productId);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+            }
+            return ResponseEntity.ok(capacityTrendService.getProductTrend(productId, fromYear, fromQuarter, toYear, toQuarter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching capacity trend for product ID: {}", productId, e);
+            return ResponseEntity.internalServerError().body("Error fetching capacity trend");
+        }
+    }
+
+    @GetMapping("/organizations/{organizationId}")
+    @Operation(summary = "Organization capacity trend", description = "Demand per team per quarter across every product of an organization over a range of up to 40 quarters")
+    public ResponseEntity<?> getOrganizationTrend(
+            @PathVariable Long organizationId,
+            @RequestParam Integer fromYear,
+            @RequestParam Integer fromQuarter,
+            @RequestParam Integer toYear,
+            @RequestParam Integer toQuarter,
+            Authentication authentication) {
+
+        try {
+            User user = productAccessService.currentUser(authentication);
+            if (!productAccessService.canAccessOrganization(user, organizationId)) {
+                logger.warn("User attempted to read the capacity trend of organization ID: {} without access", organizationId);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+            }
+            return ResponseEntity.ok(capacityTrendService.getOrganizationTrend(organizationId, fromYear, fromQuarter, toYear, toQuarter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching capacity trend for organization ID: {}", organizationId, e);
+            return ResponseEntity.internalServerError().body("Error fetching capacity trend");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.productapp.controller;
+
+import com.productapp.entity.Product;
+import com.productapp.entity.User;
+import com.productapp.repository.ProductRepository;
+import com.productapp.service.ExportService;
+import com.productapp.service.ProductAccessService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Export", description = "Streaming CSV/JSON exports of roadmaps, backlogs and capacity plans")
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductAccessService productAccessService;
+
+    @GetMapping("/products/{productId}/{dataset}")
+    @Operation(summary = "Export product data", description = "Stream roadmap-items, backlog-epics or epic-efforts of a product as CSV or JSON")
+    public ResponseEntity<?> exportProduct(
+            @PathVariable Long productId,
+            @PathVariable String dataset,
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            @RequestParam(required = false, defaultValue = "false") Boolean gzip,
+            Authentication authentication) {
+        
+        try {
+            User user = productAccessService.currentUser(authentication);
+            Optional<Product> productOpt = productRepository.findById(productId);
+            if (productOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
+            }
+            // Same answer as for a missing product, so product IDs of other organizations cannot be probed
+            if (!productAccessService.canAccessProduct(user, productOpt.get())) {
+                logger.warn("User attempted to export product ID: {} without access", productId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
+            }
+            return stream(ExportService.Dataset.fromName(dataset), ExportService.Scope.PRODUCT, productId,
+                    format, gzip, "product-" + productId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/organizations/{organizationId}/{dataset}")
+    @Operation(summary = "Export organization data", description = "Stream roadmap-items, backlog-epics or epic-efforts of every product of an organization (superadmin only)")
+    public ResponseEntity<?> exportOrganization(
+            @PathVariable Long organizationId,
+            @PathVariable String dataset,
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            @RequestParam(required = false, defaultValue = "false") Boolean gzip,
+            Authentication authentication) {
+        
+        try {
+            User user = productAccessService.currentUser(authentication);
+            boolean organizationSuperadmin = user != null && Boolean.TRUE.equals(user.getIsSuperadmin())
+                    && user.getOrganization() != null && user.getOrganization().getId().equals(organizationId);
+            if (!organizationSuperadmin && !productAccessService.isGlobalSuperadmin(user)) {
+                logger.warn("User attempted to export organization ID: {} without superadmin access", organizationId);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+            }
+            return stream(ExportService.Dataset.fromName(dataset), ExportService.Scope.ORGANIZATION, organizationId,
+                    format, gzip, "organization-" + organizationId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(ExportService.Dataset dataset, ExportService.Scope scope, Long scopeId,
+                                                         String format, boolean gzip, String filePrefix) {
+        boolean json;
+        if ("json".equalsIgnoreCase(format)) {
+            json = true;
+        } else if ("csv".equalsIgnoreCase(format)) {
+            json = false;
+        } else {
+            throw new IllegalArgumentException("Format must be csv or json");
+        }
+        
+        String fileName = filePrefix + "-" + dataset.getName() + (json ? ".json" : ".csv") + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : json ? MediaType.APPLICATION_JSON : MediaType.parseMediaType("text/csv;charset=UTF-8");
+        
+        StreamingResponseBody body = outputStream -> exportService.export(dataset, scope, scopeId, json, gzip, outputStream);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
\ No newline at end of file
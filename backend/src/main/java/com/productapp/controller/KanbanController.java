@@ -1,13 +1,31 @@
 package com.productapp.controller;
 
+import com.productapp.dto.KanbanColumnPageResponse;
+import com.productapp.dto.KanbanItemResponse;
+import com.productapp.dto.KanbanMoveRequest;
+import com.productapp.entity.ArchivedKanbanItem;
 import com.productapp.entity.KanbanItem;
 import com.productapp.entity.Product;
-import com.productapp.entity.RoadmapItem;
+import com.productapp.event.KanbanBoardEvent;
+import com.productapp.exception.ResourceNotFoundException;
+import com.productapp.repository.ArchivedKanbanItemRepository;
 import com.productapp.repository.KanbanItemRepository;
 import com.productapp.repository.ProductRepository;
-import com.productapp.repository.RoadmapItemRepository;
+import com.productapp.service.KanbanArchiveService;
+import com.productapp.service.KanbanBoardCache;
+import com.productapp.service.KanbanBoardService;
+import com.productapp.service.KanbanFlowMetricsService;
+import com.productapp.service.KanbanEventStreamService;
+import com.productapp.service.KanbanMoveService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,13 +33,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v3/products/{productId}/kanban")
 @CrossOrigin(origins = "*")
 public class KanbanController {
     
+    private static final Logger logger = LoggerFactory.getLogger(KanbanController.class);
+    
     @Autowired
     private KanbanItemRepository kanbanItemRepository;
     
@@ -29,104 +48,137 @@ public class KanbanController {
     private ProductRepository productRepository;
     
     @Autowired
-    private RoadmapItemRepository roadmapItemRepository;
+    private KanbanBoardCache kanbanBoardCache;
+    
+    @Autowired
+    private KanbanBoardService kanbanBoardService;
+    
+    @Autowired
+    private KanbanArchiveService kanbanArchiveService;
+    
+    @Autowired
+    private ArchivedKanbanItemRepository archivedKanbanItemRepository;
+    
+    @Autowired
+    private KanbanFlowMetricsService flowMetricsService;
+    
+    @Autowired
+    private KanbanMoveService kanbanMoveService;
+    
+    @Autowired
+    private KanbanEventStreamService kanbanEventStreamService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     @GetMapping
-    public ResponseEntity<?> getKanbanItems(@PathVariable String productId) {
+    public ResponseEntity<?> getKanbanItems(@PathVariable String productId,
+                                            @RequestParam(required = false) String column,
+                                            @RequestParam(required = false) String after,
+                                            @RequestParam(defaultValue = "50") int limit) {
         try {
-            System.out.println("KanbanController.getKanbanItems called for productId: " + productId);
+            logger.debug("Fetching kanban items for product ID: {}", productId);
             Optional<Product> productOpt = productRepository.findById(Long.parseLong(productId));
             if (!productOpt.isPresent()) {
-                System.out.println("Product not found for ID: " + productId);
+                logger.warn("Product not found for ID: {}", productId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
             }
             
             Product product = productOpt.get();
-            System.out.println("Found product: " + product.getProductName() + " (ID: " + product.getId() + ")");
-            List<KanbanItem> items = kanbanItemRepository.findByProductOrderByStatusAscPositionAsc(product);
-            System.out.println("Found " + items.size() + " existing kanban items");
+            if (column != null) {
+                // A single column, paged by cursor
+                KanbanColumnPageResponse page = kanbanBoardService.getColumnPage(product, column, after, limit);
+                return ResponseEntity.ok(page);
+            }
             
-            // Filter out tracking items that are in COMMITTED status (to avoid duplication with roadmap items)
-            List<KanbanItem> filteredItems = items.stream()
-                .filter(item -> {
-                    boolean isTrackingItem = item.getEpicId() != null && "roadmap-item".equals(item.getLabels());
-                    boolean isInCommitted = "COMMITTED".equals(item.getStatus());
-                    // Keep the item if it's not a tracking item OR if it's not in COMMITTED
-                    boolean keep = !isTrackingItem || !isInCommitted;
-                    if (!keep) {
-                        System.out.println("  - Filtering out COMMITTED tracking item: " + item.getTitle() + " (epicId: " + item.getEpicId() + ")");
-                    } else {
-                        System.out.println("  - Keeping kanban item: " + item.getTitle() + " (epicId: " + item.getEpicId() + ", status: " + item.getStatus() + ")");
-                    }
-                    return keep;
-                })
-                .collect(Collectors.toList());
+            Map<String, List<KanbanItemResponse>> groupedItems = kanbanBoardCache.getBoard(product);
             
-            // Get published roadmap items and convert them to KanbanItems
-            List<RoadmapItem> publishedRoadmapItems = roadmapItemRepository.findPublishedByProductId(Long.parseLong(productId));
-            System.out.println("Found " + publishedRoadmapItems.size() + " published roadmap items for product " + productId);
+            return ResponseEntity.ok(groupedItems);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching kanban items for product ID: {}", productId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error fetching kanban items");
+        }
+    }
+    
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamKanbanEvents(@PathVariable String productId) {
+        try {
+            Optional<Product> productOpt = productRepository.findById(Long.parseLong(productId));
+            if (!productOpt.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
+            }
             
-            // Convert roadmap items to kanban items for COMMITTED status
-            // Only include roadmap items that haven't been moved to other statuses
-            List<KanbanItem> roadmapKanbanItems = publishedRoadmapItems.stream()
-                .filter(roadmapItem -> {
-                    // Check if this roadmap item has been moved to a different status
-                    String epicId = roadmapItem.getEpicId();
-                    System.out.println("Checking roadmap item with epicId: " + epicId + " (name: " + roadmapItem.getEpicName() + ")");
-                    List<KanbanItem> trackingItems = kanbanItemRepository.findByEpicIdAndProduct(epicId, product);
-                    
-                    // Only exclude if there's a tracking item that is NOT in COMMITTED status
-                    boolean hasNonCommittedTracking = trackingItems.stream()
-                        .anyMatch(item -> !"COMMITTED".equals(item.getStatus()));
-                    
-                    System.out.println("Found " + trackingItems.size() + " tracking items for epicId: " + epicId);
-                    if (!trackingItems.isEmpty()) {
-                        trackingItems.forEach(item -> 
-                            System.out.println("  - Tracking item status: " + item.getStatus()));
-                    }
-                    boolean shouldInclude = !hasNonCommittedTracking; // Include if no tracking item or only COMMITTED tracking
-                    System.out.println("Should include in COMMITTED? " + shouldInclude);
-                    return shouldInclude;
-                })
-                .map(roadmapItem -> {
-                    KanbanItem kanbanItem = new KanbanItem();
-                    kanbanItem.setId(roadmapItem.getId() * -1); // Negative ID to distinguish from regular kanban items
-                    kanbanItem.setTitle(roadmapItem.getEpicName());
-                    kanbanItem.setDescription(roadmapItem.getEpicDescription());
-                    kanbanItem.setStatus("COMMITTED");
-                    kanbanItem.setPosition(0); // Place at the beginning
-                    kanbanItem.setPriority(roadmapItem.getPriority());
-                    kanbanItem.setAssignee(roadmapItem.getAssignedTeam());
-                    kanbanItem.setDueDate(roadmapItem.getEndDate() != null ? roadmapItem.getEndDate().atStartOfDay() : null);
-                    kanbanItem.setEpicId(roadmapItem.getEpicId());
-                    kanbanItem.setLabels("roadmap-item");
-                    kanbanItem.setProduct(product);
-                    return kanbanItem;
-                })
-                .collect(Collectors.toList());
+            // Clients load the board once and then apply the card-level deltas pushed here
+            return ResponseEntity.ok(kanbanEventStreamService.subscribe(productOpt.get().getId()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/metrics")
+    public ResponseEntity<?> getFlowMetrics(@PathVariable String productId,
+                                            @RequestParam(defaultValue = "30") int days) {
+        try {
+            Optional<Product> productOpt = productRepository.findById(Long.parseLong(productId));
+            if (!productOpt.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
+            }
             
-            // Combine regular kanban items with roadmap items
-            List<KanbanItem> allItems = new java.util.ArrayList<>();
-            allItems.addAll(roadmapKanbanItems);
-            allItems.addAll(filteredItems);
+            return ResponseEntity.ok(flowMetricsService.getMetrics(productOpt.get().getId(), days));
+        } catch (Exception e) {
+            logger.error("Error fetching kanban metrics for product ID: {}", productId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error fetching kanban metrics");
+        }
+    }
+    
+    @GetMapping("/archive")
+    public ResponseEntity<?> getArchivedKanbanItems(@PathVariable String productId,
+                                                    @RequestParam(required = false) Long before,
+                                                    @RequestParam(defaultValue = "50") int limit) {
+        try {
+            Optional<Product> productOpt = productRepository.findById(Long.parseLong(productId));
+            if (!productOpt.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
+            }
             
-            // Group items by status
-            Map<String, List<KanbanItem>> groupedItems = allItems.stream()
-                .collect(Collectors.groupingBy(KanbanItem::getStatus));
+            // Newest first; pass the last ID of a page as "before" to read the next one
+            int pageSize = Math.max(1, Math.min(limit, KanbanBoardService.MAX_PAGE_SIZE));
+            List<ArchivedKanbanItem> items = archivedKanbanItemRepository.findPageByProductId(
+                productOpt.get().getId(), before != null ? before : Long.MAX_VALUE, PageRequest.of(0, pageSize));
+            return ResponseEntity.ok(items);
+        } catch (Exception e) {
+            logger.error("Error fetching archived kanban items for product ID: {}", productId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error fetching archived kanban items");
+        }
+    }
+    
+    @PostMapping("/archive")
+    public ResponseEntity<?> archiveDoneKanbanItems(@PathVariable String productId,
+                                                    @RequestParam(required = false) Integer olderThanDays) {
+        try {
+            Optional<Product> productOpt = productRepository.findById(Long.parseLong(productId));
+            if (!productOpt.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
+            }
             
-            // Ensure all columns exist even if empty
-            if (!groupedItems.containsKey("COMMITTED")) groupedItems.put("COMMITTED", new java.util.ArrayList<>());
-            if (!groupedItems.containsKey("TODO")) groupedItems.put("TODO", new java.util.ArrayList<>());
-            if (!groupedItems.containsKey("IN_PROGRESS")) groupedItems.put("IN_PROGRESS", new java.util.ArrayList<>());
-            if (!groupedItems.containsKey("DONE")) groupedItems.put("DONE", new java.util.ArrayList<>());
+            int days = olderThanDays != null ? olderThanDays : kanbanArchiveService.getDefaultAfterDays();
+            int archived = kanbanArchiveService.archiveCompleted(productOpt.get().getId(), days);
             
-            System.out.println("Returning grouped items with keys: " + groupedItems.keySet());
-            System.out.println("COMMITTED items count: " + groupedItems.get("COMMITTED").size());
-            return ResponseEntity.ok(groupedItems);
+            Map<String, Object> response = new HashMap<>();
+            response.put("archived", archived);
+            response.put("olderThanDays", days);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Error archiving kanban items for product ID: {}", productId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error fetching kanban items: " + e.getMessage());
+                .body("Error archiving kanban items");
         }
     }
     
@@ -155,12 +207,16 @@ public class KanbanController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
             }
             
-            Optional<KanbanItem> itemOpt = kanbanItemRepository.findById(itemId);
+            Product product = productOpt.get();
+            Optional<KanbanItem> itemOpt = kanbanItemRepository.findByIdAndProduct(itemId, product);
             if (!itemOpt.isPresent()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Kanban item not found");
             }
             
             KanbanItem item = itemOpt.get();
+            if (updatedItem.getVersion() != null && !updatedItem.getVersion().equals(item.getVersion())) {
+                return conflict(product);
+            }
             
             // Update fields
             if (updatedItem.getTitle() != null) item.setTitle(updatedItem.getTitle());
@@ -173,11 +229,14 @@ public class KanbanController {
             if (updatedItem.getStoryPoints() != null) item.setStoryPoints(updatedItem.getStoryPoints());
             
             KanbanItem saved = kanbanItemRepository.save(item);
+            eventPublisher.publishEvent(new KanbanBoardEvent(product.getId(), KanbanBoardEvent.Type.CARD_UPDATED, new KanbanItemResponse(saved)));
             return ResponseEntity.ok(saved);
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(productRepository.findById(Long.parseLong(productId)).orElseThrow());
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Error updating kanban item ID: {} for product ID: {}", itemId, productId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error updating kanban item: " + e.getMessage());
+                .body("Error updating kanban item");
         }
     }
     
@@ -192,117 +251,58 @@ public class KanbanController {
             }
             
             Product product = productOpt.get();
-            String newStatus = (String) moveData.get("status");
-            Integer newPosition = (Integer) moveData.get("position");
-            
-            // Check if this is a roadmap item (negative ID)
-            if (itemId < 0) {
-                // For roadmap items, we create/update a corresponding kanban item to track progress
-                // The original roadmap item stays in COMMITTED but we track its progress
-                Long roadmapItemId = Math.abs(itemId);
-                
-                Optional<RoadmapItem> roadmapItemOpt = roadmapItemRepository.findById(roadmapItemId);
-                if (!roadmapItemOpt.isPresent()) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Roadmap item not found");
-                }
-                
-                RoadmapItem roadmapItem = roadmapItemOpt.get();
-                
-                // Look for existing kanban item for this roadmap item
-                List<KanbanItem> existingItems = kanbanItemRepository.findByEpicIdAndProduct(roadmapItem.getEpicId(), product);
-                KanbanItem trackingItem;
-                
-                if (existingItems.isEmpty()) {
-                    // Create new tracking item
-                    trackingItem = new KanbanItem();
-                    trackingItem.setTitle(roadmapItem.getEpicName());
-                    trackingItem.setDescription(roadmapItem.getEpicDescription());
-                    trackingItem.setPriority(roadmapItem.getPriority());
-                    trackingItem.setAssignee(roadmapItem.getAssignedTeam());
-                    trackingItem.setDueDate(roadmapItem.getEndDate() != null ? roadmapItem.getEndDate().atStartOfDay() : null);
-                    trackingItem.setEpicId(roadmapItem.getEpicId());
-                    trackingItem.setLabels("roadmap-item");
-                    trackingItem.setProduct(product);
-                } else {
-                    trackingItem = existingItems.get(0);
-                }
-                
-                // Update status and position
-                trackingItem.setStatus(newStatus);
-                trackingItem.setPosition(newPosition);
-                
-                // Update the corresponding roadmap item status to match the Kanban status
-                String roadmapStatus = mapKanbanStatusToRoadmapStatus(newStatus);
-                roadmapItem.setStatus(roadmapStatus);
-                roadmapItemRepository.save(roadmapItem);
-                System.out.println("Updated roadmap item status to: " + roadmapStatus + " for epic: " + roadmapItem.getEpicName());
-                
-                KanbanItem saved = kanbanItemRepository.save(trackingItem);
-                return ResponseEntity.ok(saved);
+            Object status = moveData.get("status");
+            Object position = moveData.get("position");
+            Object version = moveData.get("version");
+            if (!(status instanceof String)) {
+                return ResponseEntity.badRequest().body("Status is required");
             }
-            
-            // Regular kanban item handling
-            Optional<KanbanItem> itemOpt = kanbanItemRepository.findById(itemId);
-            if (!itemOpt.isPresent()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Kanban item not found");
+            if (position != null && !(position instanceof Number)) {
+                return ResponseEntity.badRequest().body("Position must be a number");
             }
-            
-            KanbanItem item = itemOpt.get();
-            String oldStatus = item.getStatus();
-            Integer oldPosition = item.getPosition();
-            
-            // If moving to a different column
-            if (!oldStatus.equals(newStatus)) {
-                // Update positions in old column
-                List<KanbanItem> oldColumnItems = kanbanItemRepository.findByProductAndStatusOrderByPositionAsc(product, oldStatus);
-                for (KanbanItem oldItem : oldColumnItems) {
-                    if (oldItem.getPosition() > oldPosition) {
-                        oldItem.setPosition(oldItem.getPosition() - 1);
-                        kanbanItemRepository.save(oldItem);
-                    }
-                }
-                
-                // Update positions in new column
-                List<KanbanItem> newColumnItems = kanbanItemRepository.findByProductAndStatusOrderByPositionAsc(product, newStatus);
-                for (KanbanItem newItem : newColumnItems) {
-                    if (newItem.getPosition() >= newPosition) {
-                        newItem.setPosition(newItem.getPosition() + 1);
-                        kanbanItemRepository.save(newItem);
-                    }
-                }
-            } else {
-                // Moving within the same column
-                List<KanbanItem> columnItems = kanbanItemRepository.findByProductAndStatusOrderByPositionAsc(product, newStatus);
-                
-                if (newPosition < oldPosition) {
-                    // Moving up
-                    for (KanbanItem columnItem : columnItems) {
-                        if (columnItem.getPosition() >= newPosition && columnItem.getPosition() < oldPosition) {
-                            columnItem.setPosition(columnItem.getPosition() + 1);
-                            kanbanItemRepository.save(columnItem);
-                        }
-                    }
-                } else if (newPosition > oldPosition) {
-                    // Moving down
-                    for (KanbanItem columnItem : columnItems) {
-                        if (columnItem.getPosition() > oldPosition && columnItem.getPosition() <= newPosition) {
-                            columnItem.setPosition(columnItem.getPosition() - 1);
-                            kanbanItemRepository.save(columnItem);
-                        }
-                    }
-                }
+            if (version != null && !(version instanceof Number)) {
+                return ResponseEntity.badRequest().body("Version must be a number");
             }
+            String newStatus = (String) status;
+            Integer newPosition = position != null ? ((Number) position).intValue() : null;
+            Long expectedVersion = version != null ? ((Number) version).longValue() : null;
             
-            // Update the moved item
-            item.setStatus(newStatus);
-            item.setPosition(newPosition);
-            KanbanItem saved = kanbanItemRepository.save(item);
-            
+            KanbanItem saved = kanbanMoveService.moveItem(product, itemId, newStatus, newPosition, expectedVersion);
             return ResponseEntity.ok(saved);
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(productRepository.findById(Long.parseLong(productId)).orElseThrow());
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error moving kanban item ID: {} for product ID: {}", itemId, productId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error moving kanban item");
+        }
+    }
+    
+    @PutMapping("/moves")
+    public ResponseEntity<?> moveKanbanItems(@PathVariable String productId,
+                                              @Valid @RequestBody KanbanMoveRequest request) {
+        try {
+            Optional<Product> productOpt = productRepository.findById(Long.parseLong(productId));
+            if (!productOpt.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
+            }
+            
+            Map<String, List<KanbanItemResponse>> columns = kanbanMoveService.applyMoves(productOpt.get(), request.getMoves());
+            return ResponseEntity.ok(columns);
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(productRepository.findById(Long.parseLong(productId)).orElseThrow());
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Error moving kanban items for product ID: {}", productId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error moving kanban item: " + e.getMessage());
+                .body("Error moving kanban items");
         }
     }
     
@@ -321,48 +321,25 @@ public class KanbanController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
             }
             
-            Optional<KanbanItem> itemOpt = kanbanItemRepository.findById(itemId);
-            if (!itemOpt.isPresent()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Kanban item not found");
-            }
-            
-            Product product = productOpt.get();
-            KanbanItem item = itemOpt.get();
-            
-            // Update positions of items after the deleted item
-            List<KanbanItem> columnItems = kanbanItemRepository.findByProductAndStatusOrderByPositionAsc(product, item.getStatus());
-            for (KanbanItem columnItem : columnItems) {
-                if (columnItem.getPosition() > item.getPosition()) {
-                    columnItem.setPosition(columnItem.getPosition() - 1);
-                    kanbanItemRepository.save(columnItem);
-                }
-            }
-            
-            kanbanItemRepository.deleteById(itemId);
+            kanbanMoveService.deleteItem(productOpt.get(), itemId);
             
             Map<String, String> response = new HashMap<>();
             response.put("message", "Kanban item deleted successfully");
             return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Kanban item not found");
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Error deleting kanban item for product ID: {}", productId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error deleting kanban item: " + e.getMessage());
+                .body("Error deleting kanban item");
         }
     }
     
-    private String mapKanbanStatusToRoadmapStatus(String kanbanStatus) {
-        // Map Kanban statuses to corresponding Roadmap statuses
-        switch (kanbanStatus) {
-            case "COMMITTED":
-                return "Committed";
-            case "TODO": 
-                return "To-Do";
-            case "IN_PROGRESS":
-                return "In-Progress";
-            case "DONE":
-                return "Done";
-            default:
-                return "Committed"; // Default fallback
-        }
+    // A card changed since the client read it: return the current columns so it can reapply its move
+    private ResponseEntity<?> conflict(Product product) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Kanban item was modified concurrently, refresh and retry");
+        response.put("columns", kanbanBoardService.getBoard(product));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 }
\ No newline at end of file
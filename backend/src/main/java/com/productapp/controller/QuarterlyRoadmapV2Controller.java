@@ -4,34 +4,42 @@ import com.productapp.dto.QuarterlyRoadmapRequest;
 import com.productapp.dto.QuarterlyRoadmapResponse;
 import com.productapp.entity.QuarterlyRoadmap;
 import com.productapp.entity.RoadmapItem;
-import com.productapp.entity.EpicEffort;
-import com.productapp.entity.EffortRatingConfig;
-import com.productapp.entity.CapacityPlan;
 import com.productapp.entity.BacklogEpic;
 import com.productapp.entity.Theme;
+import com.productapp.event.KanbanBoardEvent;
 import com.productapp.repository.QuarterlyRoadmapRepository;
 import com.productapp.repository.RoadmapItemRepository;
-import com.productapp.repository.EpicEffortRepository;
-import com.productapp.repository.EffortRatingConfigRepository;
-import com.productapp.repository.CapacityPlanRepository;
 import com.productapp.repository.BacklogEpicRepository;
 import com.productapp.repository.ThemeRepository;
+import com.productapp.service.EpicEffortRatingService;
 import com.productapp.service.QuarterlyRoadmapService;
+import com.productapp.service.RoadmapVersionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -51,21 +59,30 @@ public class QuarterlyRoadmapV2Controller {
     private QuarterlyRoadmapService quarterlyRoadmapService;
     
     @Autowired
-    private EpicEffortRepository epicEffortRepository;
+    private BacklogEpicRepository backlogEpicRepository;
     
     @Autowired
-    private EffortRatingConfigRepository effortRatingConfigRepository;
+    private ThemeRepository themeRepository;
     
     @Autowired
-    private CapacityPlanRepository capacityPlanRepository;
+    private ApplicationEventPublisher eventPublisher;
     
     @Autowired
-    private BacklogEpicRepository backlogEpicRepository;
+    private EpicEffortRatingService epicEffortRatingService;
     
     @Autowired
-    private ThemeRepository themeRepository;
+    private RoadmapVersionService roadmapVersionService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+    
+    // Roadmap item statuses that are shown in the visualization once the quarter is published
+    private static final List<String> PUBLISHABLE_STATUSES = List.of("Committed", "In-Progress", "Complete", "Carried Over");
+    
+    // Ten years of quarters per range request
+    private static final int MAX_RANGE_QUARTERS = 40;
 
     @GetMapping("/{year}/{quarter}")
     public ResponseEntity<QuarterlyRoadmapResponse> getRoadmap(
@@ -105,6 +122,67 @@ public class QuarterlyRoadmapV2Controller {
         }
     }
 
+    /**
+     * Roadmaps of every quarter from fromYear/fromQuarter to toYear/toQuarter inclusive, for the
+     * yearly and multi-year visualisations. Epic details and effort ratings are loaded once for the
+     * whole range; roadmap items are then read through a cursor while the response is written, one
+     * quarter at a time, as a JSON array in the same shape as the single-quarter endpoint. Quarters
+     * without a roadmap are left out.
+     */
+    @GetMapping("/range")
+    public ResponseEntity<?> getRoadmapRange(
+            @PathVariable Long productId,
+            @RequestParam Integer fromYear,
+            @RequestParam Integer fromQuarter,
+            @RequestParam Integer toYear,
+            @RequestParam Integer toQuarter,
+            @RequestParam(required = false, defaultValue = "false") Boolean publishedOnly) {
+        
+        if (fromQuarter < 1 || fromQuarter > 4 || toQuarter < 1 || toQuarter > 4) {
+            return ResponseEntity.badRequest().body("Quarter must be between 1 and 4");
+        }
+        int quarterCount = (toYear * 4 + toQuarter) - (fromYear * 4 + fromQuarter) + 1;
+        if (quarterCount < 1) {
+            return ResponseEntity.badRequest().body("Range start must not be after range end");
+        }
+        if (quarterCount > MAX_RANGE_QUARTERS) {
+            return ResponseEntity.badRequest().body("Range cannot span more than " + MAX_RANGE_QUARTERS + " quarters");
+        }
+        
+        try {
+            // Epic details and ratings for the whole range are small and loaded up front; the items themselves are read while writing
+            List<String> epicIds = roadmapItemRepository.findDistinctEpicIdsByProductIdAndRange(productId, fromYear, fromQuarter, toYear, toQuarter);
+            Map<String, EpicDetails> epicDetailsById = getEpicDetails(productId, epicIds);
+            Map<String, Map<String, Integer>> ratingsByQuarter = getAutoFilledEffortRatingsByQuarter(productId, fromYear, toYear);
+            
+            StreamingResponseBody body = outputStream -> {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                    // The response stream is closed by the container, not by the generator
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.writeStartArray();
+                    quarterlyRoadmapService.forEachRoadmapInRange(productId, fromYear, fromQuarter, toYear, toQuarter, publishedOnly,
+                            (roadmap, items) -> {
+                                QuarterlyRoadmapResponse response = newResponse(roadmap);
+                                Map<String, Integer> ratings = ratingsByQuarter.getOrDefault(
+                                        EpicEffortRatingService.quarterKey(roadmap.getYear(), roadmap.getQuarter()), Collections.emptyMap());
+                                response.setRoadmapItems(convertItems(items, ratings, epicDetailsById));
+                                try {
+                                    objectMapper.writeValue(generator, response);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+                    generator.writeEndArray();
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        } catch (Exception e) {
+            logger.error("Error fetching roadmap range for product ID: {}, from Q{} {} to Q{} {}", 
+                        productId, fromQuarter, fromYear, toQuarter, toYear, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<?> createOrUpdateRoadmap(
             @PathVariable Long productId,
@@ -151,7 +229,6 @@ public class QuarterlyRoadmapV2Controller {
     }
 
     @PutMapping("/{year}/{quarter}/epics/{epicId}/effort-rating")
-    @Transactional
     public ResponseEntity<?> updateEpicEffortRating(
             @PathVariable Long productId,
             @PathVariable Integer year,
@@ -160,34 +237,49 @@ public class QuarterlyRoadmapV2Controller {
             @RequestBody EffortRatingUpdateRequest request) {
         
         try {
-            Optional<QuarterlyRoadmap> roadmapOpt = quarterlyRoadmapRepository
-                    .findByProductIdAndYearAndQuarter(productId, year, quarter);
+            boolean updated = quarterlyRoadmapService.patchRoadmapItem(productId, year, quarter, epicId,
+                    Collections.singletonMap("effortRating", request.getEffortRating()));
             
-            if (roadmapOpt.isEmpty()) {
+            if (updated) {
+                return ResponseEntity.ok().build();
+            } else {
                 return ResponseEntity.notFound().build();
             }
             
-            QuarterlyRoadmap roadmap = roadmapOpt.get();
-            List<RoadmapItem> items = roadmapItemRepository.findByRoadmapId(roadmap.getId());
-            
-            // Find and update the specific item
-            Optional<RoadmapItem> itemToUpdate = items.stream()
-                    .filter(item -> item.getEpicId().equals(epicId))
-                    .findFirst();
+        } catch (Exception e) {
+            logger.error("Error updating effort rating for epic ID: {}", epicId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error updating effort rating: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Update individual fields of one roadmap item, e.g. for autosave of a single edit. Only the
+     * fields present in the body are written; dates use yyyy-MM-dd and null clears a field.
+     */
+    @PatchMapping("/{year}/{quarter}/items/{epicId}")
+    public ResponseEntity<?> patchRoadmapItem(
+            @PathVariable Long productId,
+            @PathVariable Integer year,
+            @PathVariable Integer quarter,
+            @PathVariable String epicId,
+            @RequestBody Map<String, Object> fields) {
+        
+        try {
+            boolean updated = quarterlyRoadmapService.patchRoadmapItem(productId, year, quarter, epicId, fields);
             
-            if (itemToUpdate.isPresent()) {
-                RoadmapItem item = itemToUpdate.get();
-                item.setEffortRating(request.getEffortRating());
-                roadmapItemRepository.save(item);
+            if (updated) {
                 return ResponseEntity.ok().build();
             } else {
-                return ResponseEntity.notFound().build();
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Roadmap item not found");
             }
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
-            logger.error("Error updating effort rating for epic ID: {}", epicId, e);
+            logger.error("Error patching roadmap item for epic ID: {}, year: {}, quarter: {}", epicId, year, quarter, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error updating effort rating: " + e.getMessage());
+                    .body("Error updating roadmap item: " + e.getMessage());
         }
     }
 
@@ -196,13 +288,7 @@ public class QuarterlyRoadmapV2Controller {
             throw new IllegalArgumentException("Roadmap cannot be null");
         }
         
-        QuarterlyRoadmapResponse response = new QuarterlyRoadmapResponse();
-        response.setId(roadmap.getId());
-        response.setProductId(roadmap.getProductId());
-        response.setYear(roadmap.getYear());
-        response.setQuarter(roadmap.getQuarter());
-        response.setCreatedAt(roadmap.getCreatedAt());
-        response.setUpdatedAt(roadmap.getUpdatedAt());
+        QuarterlyRoadmapResponse response = newResponse(roadmap);
         
         // Convert entity items to DTO items with auto-filled effort ratings
         List<QuarterlyRoadmapRequest.RoadmapItem> dtoItems = new ArrayList<>();
@@ -210,184 +296,173 @@ public class QuarterlyRoadmapV2Controller {
             // Get effort ratings from capacity planning
             Map<String, Integer> epicEffortRatings = getAutoFilledEffortRatings(roadmap.getProductId(), roadmap.getYear(), roadmap.getQuarter());
             
-            for (RoadmapItem item : roadmap.getRoadmapItems()) {
-                QuarterlyRoadmapRequest.RoadmapItem dtoItem = new QuarterlyRoadmapRequest.RoadmapItem();
-                dtoItem.setEpicId(item.getEpicId());
-                dtoItem.setEpicName(item.getEpicName());
-                dtoItem.setEpicDescription(item.getEpicDescription());
-                dtoItem.setPriority(item.getPriority());
-                dtoItem.setStatus(item.getStatus());
-                dtoItem.setEstimatedEffort(item.getEstimatedEffort());
-                dtoItem.setAssignedTeam(item.getAssignedTeam());
-                dtoItem.setReach(item.getReach());
-                dtoItem.setImpact(item.getImpact());
-                dtoItem.setConfidence(item.getConfidence());
-                dtoItem.setRiceScore(item.getRiceScore());
-                
-                // Use auto-filled effort rating from capacity planning if available, otherwise use stored value
-                Integer autoFilledRating = epicEffortRatings.get(item.getEpicId());
-                if (autoFilledRating != null && autoFilledRating > 0) {
-                    dtoItem.setEffortRating(autoFilledRating);
-                } else {
-                    dtoItem.setEffortRating(item.getEffortRating());
-                }
-                
-                // Always fetch current theme color from backlog epic to ensure up-to-date colors
-                BacklogEpic epicDetails = getEpicDetails(roadmap.getProductId(), item.getEpicId());
-                if (epicDetails != null) {
-                    dtoItem.setInitiativeName(epicDetails.getInitiativeName());
-                    dtoItem.setThemeName(epicDetails.getThemeName());
-                    dtoItem.setThemeColor(epicDetails.getThemeColor());
-                } else {
-                    // Fallback to stored values if epic details not found
-                    dtoItem.setInitiativeName(item.getInitiativeName());
-                    dtoItem.setThemeName(item.getThemeName());
-                    dtoItem.setThemeColor(item.getThemeColor());
-                }
-                
-                // Format dates for response
-                if (item.getStartDate() != null) {
-                    dtoItem.setStartDate(item.getStartDate().format(DATE_FORMATTER));
-                }
-                if (item.getEndDate() != null) {
-                    dtoItem.setEndDate(item.getEndDate().format(DATE_FORMATTER));
-                }
-                
-                dtoItems.add(dtoItem);
-            }
+            // Resolve epic and theme details for all items at once
+            Set<String> epicIds = roadmap.getRoadmapItems().stream()
+                    .map(RoadmapItem::getEpicId)
+                    .collect(Collectors.toSet());
+            Map<String, EpicDetails> epicDetailsById = getEpicDetails(roadmap.getProductId(), epicIds);
+            
+            dtoItems = convertItems(roadmap.getRoadmapItems(), epicEffortRatings, epicDetailsById);
         }
         response.setRoadmapItems(dtoItems);
         
         return response;
     }
 
-    /**
-     * Get auto-filled effort ratings for epics based on capacity planning data
-     */
-    private Map<String, Integer> getAutoFilledEffortRatings(Long productId, Integer year, Integer quarter) {
-        Map<String, Integer> effortRatings = new HashMap<>();
-        
-        try {
-            // Get capacity plan for this quarter
-            Optional<CapacityPlan> capacityPlanOpt = capacityPlanRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
-            if (capacityPlanOpt.isEmpty()) {
-                return effortRatings;
-            }
-            
-            CapacityPlan capacityPlan = capacityPlanOpt.get();
+    private QuarterlyRoadmapResponse newResponse(QuarterlyRoadmap roadmap) {
+        QuarterlyRoadmapResponse response = new QuarterlyRoadmapResponse();
+        response.setId(roadmap.getId());
+        response.setProductId(roadmap.getProductId());
+        response.setYear(roadmap.getYear());
+        response.setQuarter(roadmap.getQuarter());
+        response.setCreatedAt(roadmap.getCreatedAt());
+        response.setUpdatedAt(roadmap.getUpdatedAt());
+        return response;
+    }
+
+    // Convert entity items using effort ratings and epic details that were already loaded
+    private List<QuarterlyRoadmapRequest.RoadmapItem> convertItems(List<RoadmapItem> items,
+                                                                   Map<String, Integer> epicEffortRatings,
+                                                                   Map<String, EpicDetails> epicDetailsById) {
+        List<QuarterlyRoadmapRequest.RoadmapItem> dtoItems = new ArrayList<>();
+        for (RoadmapItem item : items) {
+            QuarterlyRoadmapRequest.RoadmapItem dtoItem = new QuarterlyRoadmapRequest.RoadmapItem();
+            dtoItem.setEpicId(item.getEpicId());
+            dtoItem.setEpicName(item.getEpicName());
+            dtoItem.setEpicDescription(item.getEpicDescription());
+            dtoItem.setPriority(item.getPriority());
+            dtoItem.setStatus(item.getStatus());
+            dtoItem.setEstimatedEffort(item.getEstimatedEffort());
+            dtoItem.setAssignedTeam(item.getAssignedTeam());
+            dtoItem.setReach(item.getReach());
+            dtoItem.setImpact(item.getImpact());
+            dtoItem.setConfidence(item.getConfidence());
+            dtoItem.setRiceScore(item.getRiceScore());
             
-            // Get effort rating configurations for this product
-            List<EffortRatingConfig> configs = effortRatingConfigRepository.findByProductId(productId);
-            if (configs.isEmpty()) {
-                return effortRatings;
+            // Use auto-filled effort rating from capacity planning if available, otherwise use stored value
+            Integer autoFilledRating = epicEffortRatings.get(item.getEpicId());
+            if (autoFilledRating != null && autoFilledRating > 0) {
+                dtoItem.setEffortRating(autoFilledRating);
+            } else {
+                dtoItem.setEffortRating(item.getEffortRating());
             }
             
-            // Get epic efforts from capacity planning
-            List<EpicEffort> epicEfforts = epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(capacityPlan.getId());
-            if (epicEfforts.isEmpty()) {
-                return effortRatings;
+            // Always use current theme color from backlog epic to ensure up-to-date colors
+            EpicDetails epicDetails = epicDetailsById.get(item.getEpicId());
+            if (epicDetails != null) {
+                dtoItem.setInitiativeName(epicDetails.initiativeName);
+                dtoItem.setThemeName(epicDetails.themeName);
+                dtoItem.setThemeColor(epicDetails.themeColor);
+            } else {
+                // Fallback to stored values if epic details not found
+                dtoItem.setInitiativeName(item.getInitiativeName());
+                dtoItem.setThemeName(item.getThemeName());
+                dtoItem.setThemeColor(item.getThemeColor());
             }
             
-            // Choose effort rating config based on capacity plan's effort unit
-            EffortRatingConfig config = configs.stream()
-                    .filter(c -> c.getUnitType().equals(capacityPlan.getEffortUnit()))
-                    .findFirst()
-                    .orElse(configs.get(0)); // fallback to first config
-            
-            // Group efforts by epic ID and sum total effort across all teams
-            Map<String, Integer> epicTotalEfforts = epicEfforts.stream()
-                    .collect(Collectors.groupingBy(
-                        EpicEffort::getEpicId,
-                        Collectors.summingInt(EpicEffort::getEffortDays)
-                    ));
-            
-            // Calculate star ratings for each epic
-            for (Map.Entry<String, Integer> entry : epicTotalEfforts.entrySet()) {
-                String epicId = entry.getKey();
-                Integer totalEffort = entry.getValue();
-                
-                if (totalEffort != null && totalEffort > 0) {
-                    Integer starRating = calculateStarRating(totalEffort, config);
-                    effortRatings.put(epicId, starRating);
-                }
+            // Format dates for response
+            if (item.getStartDate() != null) {
+                dtoItem.setStartDate(item.getStartDate().format(DATE_FORMATTER));
+            }
+            if (item.getEndDate() != null) {
+                dtoItem.setEndDate(item.getEndDate().format(DATE_FORMATTER));
             }
             
-        } catch (Exception e) {
-            logger.error("Error calculating auto-filled effort ratings for product ID: {}, Q{} {}", productId, quarter, year, e);
+            dtoItems.add(dtoItem);
         }
-        
-        return effortRatings;
+        return dtoItems;
     }
 
     /**
-     * Calculate star rating based on effort value and configuration
+     * Get auto-filled effort ratings for epics based on capacity planning data. Ratings are
+     * materialized on capacity plan writes, so this is a single indexed lookup.
      */
-    private Integer calculateStarRating(Integer effortValue, EffortRatingConfig config) {
-        if (effortValue <= config.getStar1Max()) {
-            return 1;
-        } else if (effortValue <= config.getStar2Max()) {
-            return 2;
-        } else if (effortValue <= config.getStar3Max()) {
-            return 3;
-        } else if (effortValue <= config.getStar4Max()) {
-            return 4;
-        } else {
-            return 5;
+    private Map<String, Integer> getAutoFilledEffortRatings(Long productId, Integer year, Integer quarter) {
+        try {
+            return epicEffortRatingService.getStarRatings(productId, year, quarter);
+        } catch (Exception e) {
+            logger.error("Error loading auto-filled effort ratings for product ID: {}, Q{} {}", productId, quarter, year, e);
+            return new HashMap<>();
+        }
+    }
+
+    // Auto-filled effort ratings of every quarter in a range of years, keyed by quarter
+    private Map<String, Map<String, Integer>> getAutoFilledEffortRatingsByQuarter(Long productId, Integer fromYear, Integer toYear) {
+        try {
+            return epicEffortRatingService.getStarRatingsByQuarter(productId, fromYear, toYear);
+        } catch (Exception e) {
+            logger.error("Error loading auto-filled effort ratings for product ID: {}, {} to {}", productId, fromYear, toYear, e);
+            return new HashMap<>();
         }
     }
 
     /**
-     * Get epic details (initiative and theme information) from backlog with current theme colors
+     * Resolve initiative and current theme information for the given epics from the backlog.
+     * All epics and the product's themes are loaded with one query each and joined in memory,
+     * so the cost does not grow with the number of roadmap items.
      */
-    private BacklogEpic getEpicDetails(Long productId, String epicId) {
+    private Map<String, EpicDetails> getEpicDetails(Long productId, Collection<String> epicIds) {
+        Map<String, EpicDetails> detailsByEpicId = new HashMap<>();
+        if (epicIds.isEmpty()) {
+            return detailsByEpicId;
+        }
+        
         try {
-            Optional<BacklogEpic> epicOpt = backlogEpicRepository.findByProductIdAndEpicId(productId, epicId);
-            if (epicOpt.isPresent()) {
-                BacklogEpic epic = epicOpt.get();
+            List<BacklogEpic> epics = backlogEpicRepository.findByProductIdAndEpicIdIn(productId, epicIds);
+            
+            Map<Long, Theme> themesById = new HashMap<>();
+            Map<String, Theme> themesByName = new HashMap<>();
+            boolean hasThemes = epics.stream().anyMatch(epic -> epic.getThemeId() != null && !epic.getThemeId().isEmpty());
+            if (hasThemes) {
+                for (Theme theme : themeRepository.findByProductId(productId)) {
+                    themesById.put(theme.getId(), theme);
+                    themesByName.putIfAbsent(theme.getName(), theme);
+                }
+            }
+            
+            for (BacklogEpic epic : epics) {
+                if (detailsByEpicId.containsKey(epic.getEpicId())) {
+                    continue;
+                }
+                EpicDetails details = new EpicDetails(epic.getInitiativeName(), epic.getThemeName(), epic.getThemeColor());
                 
-                // Get current theme color from themes table instead of using stored value
+                // Use the current theme color from the themes table instead of the value stored on the epic
                 if (epic.getThemeId() != null && !epic.getThemeId().isEmpty()) {
+                    Theme currentTheme = null;
                     try {
-                        Long themeIdLong = Long.parseLong(epic.getThemeId());
-                        Optional<Theme> themeOpt = themeRepository.findByIdAndProductId(themeIdLong, productId);
-                        if (themeOpt.isPresent()) {
-                            Theme currentTheme = themeOpt.get();
-                            epic.setThemeColor(currentTheme.getColor());
-                            epic.setThemeName(currentTheme.getName());
-                            logger.info("Updated epic details with current theme - EpicId: {}, ThemeColor: {}, ThemeName: {}", 
-                                       epicId, epic.getThemeColor(), epic.getThemeName());
-                        } else {
-                            // Try to find theme by name as fallback
-                            if (epic.getThemeName() != null && !epic.getThemeName().isEmpty()) {
-                                List<Theme> themes = themeRepository.findByProductId(productId);
-                                Optional<Theme> themeByName = themes.stream()
-                                    .filter(t -> t.getName().equals(epic.getThemeName()))
-                                    .findFirst();
-                                if (themeByName.isPresent()) {
-                                    Theme currentTheme = themeByName.get();
-                                    epic.setThemeColor(currentTheme.getColor());
-                                    epic.setThemeName(currentTheme.getName());
-                                    logger.info("Found theme by name - EpicId: {}, ThemeColor: {}, ThemeName: {}", 
-                                               epicId, epic.getThemeColor(), epic.getThemeName());
-                                } else {
-                                    logger.warn("Theme not found by ID or name for epic - EpicId: {}, ThemeId: {}, ThemeName: {}", 
-                                               epicId, epic.getThemeId(), epic.getThemeName());
-                                }
-                            } else {
-                                logger.warn("Theme not found for epic - EpicId: {}, ThemeId: {}", epicId, epic.getThemeId());
-                            }
-                        }
+                        currentTheme = themesById.get(Long.parseLong(epic.getThemeId()));
                     } catch (NumberFormatException e) {
-                        logger.warn("Invalid theme ID format for epic - EpicId: {}, ThemeId: {}", epicId, epic.getThemeId());
+                        logger.warn("Invalid theme ID format for epic - EpicId: {}, ThemeId: {}", epic.getEpicId(), epic.getThemeId());
+                    }
+                    // Try to find theme by name as fallback
+                    if (currentTheme == null && epic.getThemeName() != null && !epic.getThemeName().isEmpty()) {
+                        currentTheme = themesByName.get(epic.getThemeName());
+                    }
+                    if (currentTheme != null) {
+                        details = new EpicDetails(epic.getInitiativeName(), currentTheme.getName(), currentTheme.getColor());
+                    } else {
+                        logger.warn("Theme not found by ID or name for epic - EpicId: {}, ThemeId: {}, ThemeName: {}", 
+                                   epic.getEpicId(), epic.getThemeId(), epic.getThemeName());
                     }
                 }
-                
-                return epic;
+                detailsByEpicId.put(epic.getEpicId(), details);
             }
-            return null;
         } catch (Exception e) {
-            logger.error("Error fetching epic details for productId: {}, epicId: {}", productId, epicId, e);
-            return null;
+            logger.error("Error fetching epic details for productId: {}", productId, e);
+        }
+        return detailsByEpicId;
+    }
+    
+    // Initiative and theme information shown for a roadmap item
+    private static class EpicDetails {
+        private final String initiativeName;
+        private final String themeName;
+        private final String themeColor;
+        
+        EpicDetails(String initiativeName, String themeName, String themeColor) {
+            this.initiativeName = initiativeName;
+            this.themeName = themeName;
+            this.themeColor = themeColor;
         }
     }
     
@@ -423,55 +498,35 @@ public class QuarterlyRoadmapV2Controller {
             
             QuarterlyRoadmap roadmap = roadmapOpt.get();
             
-            // Get all roadmap items for this quarter
-            List<RoadmapItem> items = roadmapItemRepository.findByRoadmapId(roadmap.getId());
-            
-            if (items.isEmpty()) {
-                return ResponseEntity.status(400).body("No items to publish in this quarter");
-            }
+            LocalDate publishedDate = LocalDate.now();
             
-            // Separate items by status
-            List<RoadmapItem> itemsToPublish = new ArrayList<>();
-            List<RoadmapItem> itemsToRemove = new ArrayList<>();
-            
-            for (RoadmapItem item : items) {
-                if ("Proposed".equals(item.getStatus())) {
-                    // Proposed items should be removed from roadmap planner
-                    itemsToRemove.add(item);
-                } else if ("Committed".equals(item.getStatus()) || 
-                          "In-Progress".equals(item.getStatus()) || 
-                          "Complete".equals(item.getStatus()) || 
-                          "Carried Over".equals(item.getStatus())) {
-                    // These items should be published
-                    itemsToPublish.add(item);
-                    // Mark them as published
-                    item.setPublished(true);
-                    item.setPublishedDate(LocalDate.now());
-                }
-            }
+            // Proposed items are removed from the roadmap planner and the committed ones published,
+            // each with a single statement in this transaction
+            int removedCount = roadmapItemRepository.deleteByRoadmapIdAndStatus(roadmap.getId(), "Proposed");
+            int publishedCount = roadmapItemRepository.publishByRoadmapIdAndStatusIn(roadmap.getId(), PUBLISHABLE_STATUSES, publishedDate, LocalDateTime.now());
             
-            // Remove proposed items from roadmap
-            if (!itemsToRemove.isEmpty()) {
-                roadmapItemRepository.deleteAll(itemsToRemove);
-                logger.info("Removed {} proposed items from roadmap", itemsToRemove.size());
+            if (removedCount == 0 && publishedCount == 0 && !roadmapItemRepository.existsByRoadmapId(roadmap.getId())) {
+                return ResponseEntity.status(400).body("No items to publish in this quarter");
             }
-            
-            // Save published items with their published status
-            if (!itemsToPublish.isEmpty()) {
-                roadmapItemRepository.saveAll(itemsToPublish);
-                logger.info("Published {} items to roadmap visualization", itemsToPublish.size());
+            logger.info("Removed {} proposed items and published {} items to roadmap visualization", removedCount, publishedCount);
+            if (removedCount > 0 || publishedCount > 0) {
+                roadmapVersionService.recordVersion(roadmap.getId());
             }
             
             // Update roadmap publish status
             roadmap.setPublished(true);
-            roadmap.setPublishedDate(LocalDate.now());
+            roadmap.setPublishedDate(publishedDate);
             quarterlyRoadmapRepository.save(roadmap);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("publishedCount", itemsToPublish.size());
-            response.put("removedCount", itemsToRemove.size());
+            response.put("publishedCount", publishedCount);
+            response.put("removedCount", removedCount);
             response.put("message", String.format("Successfully published Q%d %d roadmap", quarter, year));
             
+            // Kanban boards of this product pick up the newly published items in COMMITTED
+            eventPublisher.publishEvent(new KanbanBoardEvent(productId, KanbanBoardEvent.Type.ROADMAP_PUBLISHED,
+                    Map.of("year", year, "quarter", quarter, "publishedCount", publishedCount)));
+            
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -1,9 +1,6 @@
 package com.productapp.controller;
 
-import com.productapp.entity.QuarterlyRoadmap;
-import com.productapp.entity.RoadmapItem;
-import com.productapp.repository.QuarterlyRoadmapRepository;
-import com.productapp.repository.RoadmapItemRepository;
+import com.productapp.service.RoadmapAssignedEpicsCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +8,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -22,10 +18,7 @@ public class RoadmapAssignedEpicsController {
     private static final Logger logger = LoggerFactory.getLogger(RoadmapAssignedEpicsController.class);
 
     @Autowired
-    private QuarterlyRoadmapRepository quarterlyRoadmapRepository;
-    
-    @Autowired
-    private RoadmapItemRepository roadmapItemRepository;
+    private RoadmapAssignedEpicsCache roadmapAssignedEpicsCache;
 
     @GetMapping("/assigned-epics")
     public ResponseEntity<List<String>> getAssignedEpicIds(
@@ -35,29 +28,7 @@ public class RoadmapAssignedEpicsController {
         
         
         try {
-            List<String> assignedEpicIds = new ArrayList<>();
-            
-            if (excludeYear != null && excludeQuarter != null) {
-                // Find all roadmap items for this product excluding the specified year/quarter
-                List<QuarterlyRoadmap> roadmaps = quarterlyRoadmapRepository
-                    .findByProductIdExcludingQuarter(productId, excludeYear, excludeQuarter);
-                
-                for (QuarterlyRoadmap roadmap : roadmaps) {
-                    List<RoadmapItem> items = roadmapItemRepository.findByRoadmapId(roadmap.getId());
-                    for (RoadmapItem item : items) {
-                        assignedEpicIds.add(item.getEpicId());
-                    }
-                }
-            } else {
-                // Find all assigned epic IDs for this product
-                List<QuarterlyRoadmap> roadmaps = quarterlyRoadmapRepository.findByProductId(productId);
-                for (QuarterlyRoadmap roadmap : roadmaps) {
-                    List<RoadmapItem> items = roadmapItemRepository.findByRoadmapId(roadmap.getId());
-                    for (RoadmapItem item : items) {
-                        assignedEpicIds.add(item.getEpicId());
-                    }
-                }
-            }
+            List<String> assignedEpicIds = roadmapAssignedEpicsCache.getAssignedEpicIds(productId, excludeYear, excludeQuarter);
             
             return ResponseEntity.ok(assignedEpicIds);
             
@@ -0,0 +1,140 @@
+package com.productapp.controller;
+
+import com.productapp.entity.QuarterlyRoadmap;
+import com.productapp.repository.QuarterlyRoadmapRepository;
+import com.productapp.service.RoadmapVersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v2/products/{productId}/roadmap/{year}/{quarter}/versions")
+@CrossOrigin(origins = "http://localhost:3000")
+public class RoadmapVersionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoadmapVersionController.class);
+
+    @Autowired
+    private QuarterlyRoadmapRepository quarterlyRoadmapRepository;
+    
+    @Autowired
+    private RoadmapVersionService roadmapVersionService;
+
+    @GetMapping
+    public ResponseEntity<?> getVersions(
+            @PathVariable Long productId,
+            @PathVariable Integer year,
+            @PathVariable Integer quarter) {
+        
+        try {
+            Optional<QuarterlyRoadmap> roadmapOpt = quarterlyRoadmapRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
+            if (roadmapOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Roadmap not found");
+            }
+            return ResponseEntity.ok(roadmapVersionService.getVersions(roadmapOpt.get().getId()));
+        } catch (Exception e) {
+            logger.error("Error fetching roadmap versions for product ID: {}, year: {}, quarter: {}", productId, year, quarter, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error fetching roadmap versions");
+        }
+    }
+
+    @GetMapping("/{version}")
+    public ResponseEntity<?> getVersion(
+            @PathVariable Long productId,
+            @PathVariable Integer year,
+            @PathVariable Integer quarter,
+            @PathVariable Integer version) {
+        
+        try {
+            Optional<QuarterlyRoadmap> roadmapOpt = quarterlyRoadmapRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
+            if (roadmapOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Roadmap not found");
+            }
+            return versionResponse(roadmapOpt.get().getId(), version);
+        } catch (Exception e) {
+            logger.error("Error fetching roadmap version {} for product ID: {}, year: {}, quarter: {}", version, productId, year, quarter, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error fetching roadmap version");
+        }
+    }
+
+    /**
+     * The roadmap as it was at a point in time. Accepts an ISO date-time, or a date meaning the end
+     * of that day.
+     */
+    @GetMapping("/as-of")
+    public ResponseEntity<?> getVersionAsOf(
+            @PathVariable Long productId,
+            @PathVariable Integer year,
+            @PathVariable Integer quarter,
+            @RequestParam String at) {
+        
+        LocalDateTime asOf;
+        try {
+            asOf = at.length() == 10 ? LocalDate.parse(at).atTime(LocalTime.MAX) : LocalDateTime.parse(at);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date: " + at);
+        }
+        
+        try {
+            Optional<QuarterlyRoadmap> roadmapOpt = quarterlyRoadmapRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
+            if (roadmapOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Roadmap not found");
+            }
+            Long roadmapId = roadmapOpt.get().getId();
+            Optional<Integer> version = roadmapVersionService.getVersionNumberAsOf(roadmapId, asOf);
+            if (version.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No roadmap version saved before " + at);
+            }
+            return versionResponse(roadmapId, version.get());
+        } catch (Exception e) {
+            logger.error("Error fetching roadmap as of {} for product ID: {}, year: {}, quarter: {}", at, productId, year, quarter, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error fetching roadmap version");
+        }
+    }
+
+    @GetMapping("/diff")
+    public ResponseEntity<?> diffVersions(
+            @PathVariable Long productId,
+            @PathVariable Integer year,
+            @PathVariable Integer quarter,
+            @RequestParam Integer from,
+            @RequestParam Integer to) {
+        
+        try {
+            Optional<QuarterlyRoadmap> roadmapOpt = quarterlyRoadmapRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
+            if (roadmapOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Roadmap not found");
+            }
+            Optional<Map<String, Object>> diff = roadmapVersionService.diff(roadmapOpt.get().getId(), from, to);
+            if (diff.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Roadmap version not found");
+            }
+            return ResponseEntity.ok(diff.get());
+        } catch (Exception e) {
+            logger.error("Error diffing roadmap versions {} and {} for product ID: {}, year: {}, quarter: {}", from, to, productId, year, quarter, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error comparing roadmap versions");
+        }
+    }
+
+    private ResponseEntity<?> versionResponse(Long roadmapId, Integer version) {
+        Optional<Map<String, Map<String, Object>>> items = roadmapVersionService.getVersion(roadmapId, version);
+        if (items.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Roadmap version not found");
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("version", version);
+        response.put("items", items.get());
+        return ResponseEntity.ok(response);
+    }
+}
\ No newline at end of file
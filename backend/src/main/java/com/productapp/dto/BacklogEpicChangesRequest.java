@@ -0,0 +1,27 @@
+package com.productapp.dto;
+
+import java.util.List;
+
+// Epics to create or update, and epic IDs to delete, in one backlog save
+public class BacklogEpicChangesRequest {
+    private List<EpicDto> upserts;
+    private List<String> deletedEpicIds;
+
+    public BacklogEpicChangesRequest() {}
+
+    public List<EpicDto> getUpserts() {
+        return upserts;
+    }
+
+    public void setUpserts(List<EpicDto> upserts) {
+        this.upserts = upserts;
+    }
+
+    public List<String> getDeletedEpicIds() {
+        return deletedEpicIds;
+    }
+
+    public void setDeletedEpicIds(List<String> deletedEpicIds) {
+        this.deletedEpicIds = deletedEpicIds;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.productapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.Map;
+
+public class CapacityScenarioRequest {
+
+    // Capacity of every team in the plan's effort unit, unless overridden per team
+    @Min(value = 0, message = "Team capacity must be 0 or greater")
+    private Integer teamCapacity;
+
+    private Map<Long, Integer> teamCapacities;
+
+    @NotEmpty(message = "At least one scenario is required")
+    @Valid
+    private List<Scenario> scenarios;
+
+    public CapacityScenarioRequest() {}
+
+    public Integer getTeamCapacity() {
+        return teamCapacity;
+    }
+
+    public void setTeamCapacity(Integer teamCapacity) {
+        this.teamCapacity = teamCapacity;
+    }
+
+    public Map<Long, Integer> getTeamCapacities() {
+        return teamCapacities;
+    }
+
+    public void setTeamCapacities(Map<Long, Integer> teamCapacities) {
+        this.teamCapacities = teamCapacities;
+    }
+
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    public void setScenarios(List<Scenario> scenarios) {
+        this.scenarios = scenarios;
+    }
+
+    // A set of edits applied to the saved plan; scenarios are independent of each other
+    public static class Scenario {
+        private String name;
+
+        @Valid
+        private List<EffortChange> effortChanges;
+
+        private List<String> removedEpicIds;
+
+        // Team capacities that differ from the request's in this scenario only
+        private Map<Long, Integer> teamCapacities;
+
+        public Scenario() {}
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<EffortChange> getEffortChanges() {
+            return effortChanges;
+        }
+
+        public void setEffortChanges(List<EffortChange> effortChanges) {
+            this.effortChanges = effortChanges;
+        }
+
+        public List<String> getRemovedEpicIds() {
+            return removedEpicIds;
+        }
+
+        public void setRemovedEpicIds(List<String> removedEpicIds) {
+            this.removedEpicIds = removedEpicIds;
+        }
+
+        public Map<Long, Integer> getTeamCapacities() {
+            return teamCapacities;
+        }
+
+        public void setTeamCapacities(Map<Long, Integer> teamCapacities) {
+            this.teamCapacities = teamCapacities;
+        }
+    }
+
+    // New effort of one existing epic and team cell
+    public static class EffortChange {
+        @NotBlank(message = "Epic ID is required")
+        private String epicId;
+
+        @NotNull(message = "Team ID is required")
+        private Long teamId;
+
+        @NotNull(message = "Effort days is required")
+        @Min(value = 0, message = "Effort days must be 0 or greater")
+        private Integer effortDays;
+
+        public EffortChange() {}
+
+        public String getEpicId() {
+            return epicId;
+        }
+
+        public void setEpicId(String epicId) {
+            this.epicId = epicId;
+        }
+
+        public Long getTeamId() {
+            return teamId;
+        }
+
+        public void setTeamId(Long teamId) {
+            this.teamId = teamId;
+        }
+
+        public Integer getEffortDays() {
+            return effortDays;
+        }
+
+        public void setEffortDays(Integer effortDays) {
+            this.effortDays = effortDays;
+        }
+    }
+}
\ No newline at end of file
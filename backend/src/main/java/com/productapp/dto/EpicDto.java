@@ -0,0 +1,41 @@
+package com.productapp.dto;
+
+// A backlog epic as exchanged with the client
+public class EpicDto {
+    private String id;
+    private String name;
+    private String description;
+    private String themeId;
+    private String themeName;
+    private String themeColor;
+    private String initiativeId;
+    private String initiativeName;
+    private String track;
+    
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public String getThemeId() { return themeId; }
+    public void setThemeId(String themeId) { this.themeId = themeId; }
+    
+    public String getThemeName() { return themeName; }
+    public void setThemeName(String themeName) { this.themeName = themeName; }
+    
+    public String getThemeColor() { return themeColor; }
+    public void setThemeColor(String themeColor) { this.themeColor = themeColor; }
+    
+    public String getInitiativeId() { return initiativeId; }
+    public void setInitiativeId(String initiativeId) { this.initiativeId = initiativeId; }
+    
+    public String getInitiativeName() { return initiativeName; }
+    public void setInitiativeName(String initiativeName) { this.initiativeName = initiativeName; }
+    
+    public String getTrack() { return track; }
+    public void setTrack(String track) { this.track = track; }
+}
\ No newline at end of file
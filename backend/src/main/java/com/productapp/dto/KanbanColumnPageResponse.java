@@ -0,0 +1,41 @@
+package com.productapp.dto;
+
+import java.util.List;
+
+public class KanbanColumnPageResponse {
+    private String column;
+    private List<KanbanItemResponse> items;
+    private String nextCursor; // Null when this is the last page
+    
+    public KanbanColumnPageResponse() {}
+    
+    public KanbanColumnPageResponse(String column, List<KanbanItemResponse> items, String nextCursor) {
+        this.column = column;
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    public String getColumn() {
+        return column;
+    }
+    
+    public void setColumn(String column) {
+        this.column = column;
+    }
+    
+    public List<KanbanItemResponse> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<KanbanItemResponse> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,182 @@
+package com.productapp.dto;
+
+import com.productapp.entity.KanbanItem;
+import java.time.LocalDateTime;
+
+public class KanbanItemResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private String status;
+    private Integer position;
+    private String rankKey;
+    private String priority;
+    private String assignee;
+    private LocalDateTime dueDate;
+    private String labels;
+    private String epicId;
+    private Integer storyPoints;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String createdBy;
+    private LocalDateTime completedAt;
+    private Long version;
+    
+    public KanbanItemResponse() {}
+    
+    public KanbanItemResponse(KanbanItem item) {
+        this.id = item.getId();
+        this.title = item.getTitle();
+        this.description = item.getDescription();
+        this.status = item.getStatus();
+        this.position = item.getPosition();
+        this.rankKey = item.getRankKey();
+        this.priority = item.getPriority();
+        this.assignee = item.getAssignee();
+        this.dueDate = item.getDueDate();
+        this.labels = item.getLabels();
+        this.epicId = item.getEpicId();
+        this.storyPoints = item.getStoryPoints();
+        this.createdAt = item.getCreatedAt();
+        this.updatedAt = item.getUpdatedAt();
+        this.createdBy = item.getCreatedBy();
+        this.completedAt = item.getCompletedAt();
+        this.version = item.getVersion();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public Integer getPosition() {
+        return position;
+    }
+    
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+    
+    public String getRankKey() {
+        return rankKey;
+    }
+    
+    public void setRankKey(String rankKey) {
+        this.rankKey = rankKey;
+    }
+    
+    public String getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+    
+    public String getAssignee() {
+        return assignee;
+    }
+    
+    public void setAssignee(String assignee) {
+        this.assignee = assignee;
+    }
+    
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+    
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+    }
+    
+    public String getLabels() {
+        return labels;
+    }
+    
+    public void setLabels(String labels) {
+        this.labels = labels;
+    }
+    
+    public String getEpicId() {
+        return epicId;
+    }
+    
+    public void setEpicId(String epicId) {
+        this.epicId = epicId;
+    }
+    
+    public Integer getStoryPoints() {
+        return storyPoints;
+    }
+    
+    public void setStoryPoints(Integer storyPoints) {
+        this.storyPoints = storyPoints;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
\ No newline at end of file
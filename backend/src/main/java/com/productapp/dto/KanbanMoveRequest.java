@@ -0,0 +1,82 @@
+package com.productapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class KanbanMoveRequest {
+
+    @NotEmpty(message = "At least one move is required")
+    @Valid
+    private List<Move> moves;
+
+    public KanbanMoveRequest() {}
+
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    public void setMoves(List<Move> moves) {
+        this.moves = moves;
+    }
+
+    // A single card move, applied in list order
+    public static class Move {
+        @NotNull(message = "Item ID is required")
+        private Long itemId;
+
+        @NotBlank(message = "Status is required")
+        private String status;
+
+        @NotNull(message = "Position is required")
+        @Min(value = 0, message = "Position must be 0 or greater")
+        private Integer position;
+
+        // Version the client last saw; the move is rejected if the card changed since
+        private Long expectedVersion;
+
+        public Move() {}
+
+        public Move(Long itemId, String status, Integer position) {
+            this.itemId = itemId;
+            this.status = status;
+            this.position = position;
+        }
+
+        public Long getItemId() {
+            return itemId;
+        }
+
+        public void setItemId(Long itemId) {
+            this.itemId = itemId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public Integer getPosition() {
+            return position;
+        }
+
+        public void setPosition(Integer position) {
+            this.position = position;
+        }
+
+        public Long getExpectedVersion() {
+            return expectedVersion;
+        }
+
+        public void setExpectedVersion(Long expectedVersion) {
+            this.expectedVersion = expectedVersion;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.productapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A Kanban card that was done for longer than the retention period and moved out of
+ * kanban_items. It keeps the ID it had on the board.
+ */
+@Entity
+@Table(name = "kanban_items_archive")
+public class ArchivedKanbanItem {
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private String title;
+    
+    @Column(columnDefinition = "TEXT")
+    private String description;
+    
+    @Column(name = "status", nullable = false)
+    private String status;
+    
+    @Column(name = "rank_key", length = 64)
+    private String rankKey;
+    
+    @Column(name = "priority")
+    private String priority;
+    
+    @Column(name = "assignee")
+    private String assignee;
+    
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+    
+    @Column(name = "labels")
+    private String labels;
+    
+    @Column(name = "epic_id")
+    private String epicId;
+    
+    @Column(name = "story_points")
+    private Integer storyPoints;
+    
+    @Column(name = "product_id")
+    private Long productId;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "created_by")
+    private String createdBy;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public String getRankKey() {
+        return rankKey;
+    }
+    
+    public String getPriority() {
+        return priority;
+    }
+    
+    public String getAssignee() {
+        return assignee;
+    }
+    
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+    
+    public String getLabels() {
+        return labels;
+    }
+    
+    public String getEpicId() {
+        return epicId;
+    }
+    
+    public Integer getStoryPoints() {
+        return storyPoints;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
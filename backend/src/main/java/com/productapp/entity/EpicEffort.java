@@ -7,7 +7,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "epic_efforts")
+@Table(name = "epic_efforts", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_epic_efforts_plan_epic_team", columnNames = {"capacity_plan_id", "epic_id", "team_id"})
+})
 public class EpicEffort {
     
     @Id
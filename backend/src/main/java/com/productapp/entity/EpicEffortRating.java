@@ -0,0 +1,73 @@
+package com.productapp.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Total effort of an epic across all teams of a capacity plan and the star rating it maps to.
+ * Derived from epic_efforts and effort_rating_configs; see EpicEffortRatingService.
+ */
+@Entity
+@Table(name = "epic_effort_ratings")
+public class EpicEffortRating {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "capacity_plan_id", nullable = false)
+    private Long capacityPlanId;
+    
+    @Column(name = "epic_id", nullable = false)
+    private String epicId;
+    
+    @Column(name = "total_effort", nullable = false)
+    private Integer totalEffort = 0;
+    
+    @Column(name = "star_rating")
+    private Integer starRating; // Null when the epic has no effort or the product has no rating config
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public EpicEffortRating() {}
+    
+    public EpicEffortRating(Long capacityPlanId, String epicId) {
+        this.capacityPlanId = capacityPlanId;
+        this.epicId = epicId;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getCapacityPlanId() {
+        return capacityPlanId;
+    }
+    
+    public String getEpicId() {
+        return epicId;
+    }
+    
+    public Integer getTotalEffort() {
+        return totalEffort;
+    }
+    
+    public void setTotalEffort(Integer totalEffort) {
+        this.totalEffort = totalEffort;
+    }
+    
+    public Integer getStarRating() {
+        return starRating;
+    }
+    
+    public void setStarRating(Integer starRating) {
+        this.starRating = starRating;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
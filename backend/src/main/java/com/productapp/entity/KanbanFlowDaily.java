@@ -0,0 +1,61 @@
+package com.productapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "kanban_flow_daily")
+public class KanbanFlowDaily {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+    
+    @Column(name = "completed_count", nullable = false)
+    private Integer completedCount = 0; // Throughput: cards that reached DONE on this day
+    
+    @Column(name = "cycle_time_sketch", columnDefinition = "TEXT")
+    private String cycleTimeSketch; // Encoded CycleTimeSketch of the cycle times in hours
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public LocalDate getDay() {
+        return day;
+    }
+    
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+    
+    public Integer getCompletedCount() {
+        return completedCount;
+    }
+    
+    public void setCompletedCount(Integer completedCount) {
+        this.completedCount = completedCount;
+    }
+    
+    public String getCycleTimeSketch() {
+        return cycleTimeSketch;
+    }
+    
+    public void setCycleTimeSketch(String cycleTimeSketch) {
+        this.cycleTimeSketch = cycleTimeSketch;
+    }
+}
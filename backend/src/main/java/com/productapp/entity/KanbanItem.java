@@ -25,6 +25,9 @@ public class KanbanItem {
     @Column(name = "position")
     private Integer position;
     
+    @Column(name = "rank_key", length = 64)
+    private String rankKey; // Lexicographic order within the column, see RankKeyUtil
+    
     @Column(name = "priority")
     private String priority; // HIGH, MEDIUM, LOW
     
@@ -57,6 +60,16 @@ public class KanbanItem {
     @Column(name = "created_by")
     private String createdBy;
     
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt; // When the card entered DONE, used for archiving
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt; // When the card first entered IN_PROGRESS, start of its cycle time
+    
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version; // Optimistic lock, incremented on every write
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -98,6 +111,15 @@ public class KanbanItem {
     }
     
     public void setStatus(String status) {
+        // Track when the card was started and finished; moving it out of DONE reopens it
+        if ("DONE".equals(status) && !"DONE".equals(this.status)) {
+            completedAt = LocalDateTime.now();
+        } else if (!"DONE".equals(status)) {
+            completedAt = null;
+        }
+        if ("IN_PROGRESS".equals(status) && startedAt == null) {
+            startedAt = LocalDateTime.now();
+        }
         this.status = status;
     }
     
@@ -109,6 +131,14 @@ public class KanbanItem {
         this.position = position;
     }
     
+    public String getRankKey() {
+        return rankKey;
+    }
+    
+    public void setRankKey(String rankKey) {
+        this.rankKey = rankKey;
+    }
+    
     public String getPriority() {
         return priority;
     }
@@ -188,4 +218,28 @@ public class KanbanItem {
     public void setCreatedBy(String createdBy) {
         this.createdBy = createdBy;
     }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
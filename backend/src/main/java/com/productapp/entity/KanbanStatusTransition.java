@@ -0,0 +1,62 @@
+package com.productapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "kanban_status_transitions")
+public class KanbanStatusTransition {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+    
+    @Column(name = "from_status")
+    private String fromStatus; // Null when the card was created by the move
+    
+    @Column(name = "to_status", nullable = false)
+    private String toStatus;
+    
+    @Column(name = "transitioned_at", nullable = false)
+    private LocalDateTime transitionedAt;
+    
+    public KanbanStatusTransition() {}
+    
+    public KanbanStatusTransition(Long productId, Long itemId, String fromStatus, String toStatus, LocalDateTime transitionedAt) {
+        this.productId = productId;
+        this.itemId = itemId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.transitionedAt = transitionedAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public String getFromStatus() {
+        return fromStatus;
+    }
+    
+    public String getToStatus() {
+        return toStatus;
+    }
+    
+    public LocalDateTime getTransitionedAt() {
+        return transitionedAt;
+    }
+}
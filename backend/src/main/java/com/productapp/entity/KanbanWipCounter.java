@@ -0,0 +1,37 @@
+package com.productapp.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "kanban_wip_counters")
+public class KanbanWipCounter {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(name = "status", nullable = false)
+    private String status;
+    
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount = 0;
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public Integer getItemCount() {
+        return itemCount;
+    }
+}
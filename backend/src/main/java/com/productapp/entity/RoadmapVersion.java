@@ -0,0 +1,78 @@
+package com.productapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One saved version of a quarterly roadmap: either a checkpoint holding every item, or a delta
+ * holding the items added, removed and changed since the previous version. See RoadmapVersionService.
+ */
+@Entity
+@Table(name = "roadmap_versions")
+public class RoadmapVersion {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "roadmap_id", nullable = false)
+    private Long roadmapId;
+    
+    @Column(name = "version_number", nullable = false)
+    private Integer versionNumber;
+    
+    @Column(name = "checkpoint", nullable = false)
+    private Boolean checkpoint = false;
+    
+    @Column(name = "change_count", nullable = false)
+    private Integer changeCount = 0;
+    
+    @Column(name = "payload", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String payload; // JSON, see RoadmapVersionService
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    public RoadmapVersion() {}
+    
+    public RoadmapVersion(Long roadmapId, Integer versionNumber, Boolean checkpoint, Integer changeCount, String payload) {
+        this.roadmapId = roadmapId;
+        this.versionNumber = versionNumber;
+        this.checkpoint = checkpoint;
+        this.changeCount = changeCount;
+        this.payload = payload;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getRoadmapId() {
+        return roadmapId;
+    }
+    
+    public Integer getVersionNumber() {
+        return versionNumber;
+    }
+    
+    public Boolean getCheckpoint() {
+        return checkpoint;
+    }
+    
+    public Integer getChangeCount() {
+        return changeCount;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.productapp.event;
+
+/**
+ * A card-level change on a product's Kanban board, published after the change is committed
+ * and pushed to clients subscribed to the board's event stream.
+ */
+public class KanbanBoardEvent {
+
+    public enum Type {
+        CARD_MOVED,
+        CARD_UPDATED,
+        CARD_DELETED,
+        ROADMAP_PUBLISHED,
+        // Coarse change (roadmap saved, epics removed, column rebalanced); clients should refetch the board
+        BOARD_CHANGED,
+        // Sent to a slow client whose queue overflowed; it should refetch the whole board
+        RESYNC
+    }
+
+    private final Long productId;
+    private final Type type;
+    private final Object payload;
+
+    public KanbanBoardEvent(Long productId, Type type, Object payload) {
+        this.productId = productId;
+        this.type = type;
+        this.payload = payload;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+}
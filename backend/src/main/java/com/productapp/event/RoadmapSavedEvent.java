@@ -0,0 +1,29 @@
+package com.productapp.event;
+
+/**
+ * A quarter's roadmap was saved with new epics. Capacity plans pick the epics up from it.
+ */
+public class RoadmapSavedEvent {
+
+    private final Long productId;
+    private final Integer year;
+    private final Integer quarter;
+
+    public RoadmapSavedEvent(Long productId, Integer year, Integer quarter) {
+        this.productId = productId;
+        this.year = year;
+        this.quarter = quarter;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public Integer getQuarter() {
+        return quarter;
+    }
+}
\ No newline at end of file
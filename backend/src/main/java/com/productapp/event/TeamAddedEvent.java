@@ -0,0 +1,23 @@
+package com.productapp.event;
+
+/**
+ * A team was added to a product or reactivated. Current and upcoming capacity plans get a row for it.
+ */
+public class TeamAddedEvent {
+
+    private final Long productId;
+    private final Long teamId;
+
+    public TeamAddedEvent(Long productId, Long teamId) {
+        this.productId = productId;
+        this.teamId = teamId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+}
\ No newline at end of file
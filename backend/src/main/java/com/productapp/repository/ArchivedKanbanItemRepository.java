@@ -0,0 +1,29 @@
+package com.productapp.repository;
+
+import com.productapp.entity.ArchivedKanbanItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedKanbanItemRepository extends JpaRepository<ArchivedKanbanItem, Long> {
+    
+    // Copies the given cards server-side; the caller deletes them from kanban_items in the same transaction
+    @Modifying
+    @Query(value = "INSERT INTO kanban_items_archive (id, title, description, status, rank_key, priority, assignee, due_date, " +
+                   "labels, epic_id, story_points, product_id, created_at, updated_at, created_by, started_at, completed_at, version, archived_at) " +
+                   "SELECT id, title, description, status, rank_key, priority, assignee, due_date, " +
+                   "labels, epic_id, story_points, product_id, created_at, updated_at, created_by, started_at, completed_at, version, CURRENT_TIMESTAMP " +
+                   "FROM kanban_items WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromKanbanItems(@Param("ids") Collection<Long> ids);
+    
+    // Newest archived cards first, continuing below the last ID of the previous page
+    @Query("SELECT a FROM ArchivedKanbanItem a WHERE a.productId = :productId AND a.id < :beforeId ORDER BY a.id DESC")
+    List<ArchivedKanbanItem> findPageByProductId(@Param("productId") Long productId, @Param("beforeId") Long beforeId, Pageable pageable);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,7 @@ public interface BacklogEpicRepository extends JpaRepository<BacklogEpic, Long>
     List<BacklogEpic> findByProductId(Long productId);
     void deleteByProductId(Long productId);
     Optional<BacklogEpic> findByProductIdAndEpicId(Long productId, String epicId);
+    List<BacklogEpic> findByProductIdAndEpicIdIn(Long productId, Collection<String> epicIds);
     
     @Modifying
     @Query(value = "DELETE FROM backlog_epics WHERE product_id = :productId", nativeQuery = true)
@@ -0,0 +1,38 @@
+package com.productapp.repository;
+
+import com.productapp.entity.EpicEffortRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EpicEffortRatingRepository extends JpaRepository<EpicEffortRating, Long> {
+    
+    List<EpicEffortRating> findByCapacityPlanId(Long capacityPlanId);
+    
+    List<EpicEffortRating> findByCapacityPlanIdAndEpicIdIn(Long capacityPlanId, Collection<String> epicIds);
+    
+    @Query("SELECT r FROM EpicEffortRating r WHERE r.capacityPlanId IN (SELECT cp.id FROM CapacityPlan cp WHERE cp.productId = :productId)")
+    List<EpicEffortRating> findByProductId(@Param("productId") Long productId);
+    
+    // Rated epics of a quarter, resolved through the unique (product, year, quarter) plan key in one statement
+    @Query("SELECT r FROM EpicEffortRating r WHERE r.starRating IS NOT NULL AND r.capacityPlanId = " +
+           "(SELECT cp.id FROM CapacityPlan cp WHERE cp.productId = :productId AND cp.year = :year AND cp.quarter = :quarter)")
+    List<EpicEffortRating> findRatedByProductIdAndYearAndQuarter(@Param("productId") Long productId, @Param("year") Integer year, @Param("quarter") Integer quarter);
+    
+    // [year, quarter, epicId, starRating] of the rated epics of every plan in a range of years
+    @Query("SELECT cp.year, cp.quarter, r.epicId, r.starRating FROM EpicEffortRating r, CapacityPlan cp " +
+           "WHERE r.capacityPlanId = cp.id AND cp.productId = :productId AND cp.year BETWEEN :fromYear AND :toYear AND r.starRating IS NOT NULL")
+    List<Object[]> findRatedByProductIdAndYearBetween(@Param("productId") Long productId, @Param("fromYear") Integer fromYear, @Param("toYear") Integer toYear);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EpicEffortRating r WHERE r.epicId IN :epicIds AND r.capacityPlanId IN (SELECT cp.id FROM CapacityPlan cp WHERE cp.productId = :productId)")
+    int deleteByEpicIdInAndProductId(@Param("epicIds") Collection<String> epicIds, @Param("productId") Long productId);
+}
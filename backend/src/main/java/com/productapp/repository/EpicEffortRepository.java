@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,13 +27,41 @@ public interface EpicEffortRepository extends JpaRepository<EpicEffort, Long> {
     @Query("SELECT ee FROM EpicEffort ee WHERE ee.capacityPlanId = :capacityPlanId AND ee.epicId = :epicId AND ee.teamId = :teamId")
     Optional<EpicEffort> findByCapacityPlanIdAndEpicIdAndTeamId(@Param("capacityPlanId") Long capacityPlanId, @Param("epicId") String epicId, @Param("teamId") Long teamId);
     
+    // [epicId, epicName, teamId, effortDays] of every cell of a plan, without loading entities
+    @Query("SELECT ee.epicId, ee.epicName, ee.teamId, ee.effortDays FROM EpicEffort ee WHERE ee.capacityPlanId = :capacityPlanId ORDER BY ee.epicName, ee.teamId")
+    List<Object[]> findCellsByCapacityPlanId(@Param("capacityPlanId") Long capacityPlanId);
+    
+    // [epicId, total effort across teams] for the given epics of a plan
+    @Query("SELECT ee.epicId, SUM(ee.effortDays) FROM EpicEffort ee WHERE ee.capacityPlanId = :capacityPlanId AND ee.epicId IN :epicIds GROUP BY ee.epicId")
+    List<Object[]> sumEffortByEpic(@Param("capacityPlanId") Long capacityPlanId, @Param("epicIds") Collection<String> epicIds);
+    
+    @Query("SELECT ee.epicId, SUM(ee.effortDays) FROM EpicEffort ee WHERE ee.capacityPlanId = :capacityPlanId GROUP BY ee.epicId")
+    List<Object[]> sumEffortByEpic(@Param("capacityPlanId") Long capacityPlanId);
+    
+    // [year, quarter, effortUnit, teamId, teamName, team productId, total effort, distinct epics] per quarter and team of a product's plans in a range
+    @Query("SELECT cp.year, cp.quarter, cp.effortUnit, t.id, t.name, t.productId, SUM(ee.effortDays), COUNT(DISTINCT ee.epicId) " +
+           "FROM EpicEffort ee JOIN CapacityPlan cp ON cp.id = ee.capacityPlanId JOIN Team t ON t.id = ee.teamId " +
+           "WHERE cp.productId = :productId AND cp.year BETWEEN :fromYear AND :toYear " +
+           "AND (cp.year > :fromYear OR cp.quarter >= :fromQuarter) AND (cp.year < :toYear OR cp.quarter <= :toQuarter) " +
+           "GROUP BY cp.year, cp.quarter, cp.effortUnit, t.id, t.name, t.productId")
+    List<Object[]> sumEffortByQuarterAndTeamForProduct(@Param("productId") Long productId, @Param("fromYear") Integer fromYear, @Param("fromQuarter") Integer fromQuarter, @Param("toYear") Integer toYear, @Param("toQuarter") Integer toQuarter);
+    
+    // Same rollup over the plans of every product of an organization
+    @Query("SELECT cp.year, cp.quarter, cp.effortUnit, t.id, t.name, t.productId, SUM(ee.effortDays), COUNT(DISTINCT ee.epicId) " +
+           "FROM EpicEffort ee JOIN CapacityPlan cp ON cp.id = ee.capacityPlanId JOIN Team t ON t.id = ee.teamId " +
+           "JOIN Product p ON p.id = cp.productId " +
+           "WHERE p.organization.id = :organizationId AND cp.year BETWEEN :fromYear AND :toYear " +
+           "AND (cp.year > :fromYear OR cp.quarter >= :fromQuarter) AND (cp.year < :toYear OR cp.quarter <= :toQuarter) " +
+           "GROUP BY cp.year, cp.quarter, cp.effortUnit, t.id, t.name, t.productId")
+    List<Object[]> sumEffortByQuarterAndTeamForOrganization(@Param("organizationId") Long organizationId, @Param("fromYear") Integer fromYear, @Param("fromQuarter") Integer fromQuarter, @Param("toYear") Integer toYear, @Param("toQuarter") Integer toQuarter);
+    
     @Modifying
     @Transactional
     @Query("DELETE FROM EpicEffort ee WHERE ee.capacityPlanId = :capacityPlanId AND ee.epicId = :epicId")
     void deleteByCapacityPlanIdAndEpicId(@Param("capacityPlanId") Long capacityPlanId, @Param("epicId") String epicId);
     
     @Modifying
-    @Transactional  
-    @Query("DELETE FROM EpicEffort ee WHERE ee.epicId = :epicId AND ee.capacityPlanId IN (SELECT cp.id FROM CapacityPlan cp WHERE cp.productId = :productId)")
-    void deleteByEpicIdAndProductId(@Param("epicId") String epicId, @Param("productId") Long productId);
+    @Transactional
+    @Query("DELETE FROM EpicEffort ee WHERE ee.epicId IN :epicIds AND ee.capacityPlanId IN (SELECT cp.id FROM CapacityPlan cp WHERE cp.productId = :productId)")
+    int deleteByEpicIdInAndProductId(@Param("epicIds") Collection<String> epicIds, @Param("productId") Long productId);
 }
\ No newline at end of file
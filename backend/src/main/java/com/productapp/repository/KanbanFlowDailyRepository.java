@@ -0,0 +1,29 @@
+package com.productapp.repository;
+
+import com.productapp.entity.KanbanFlowDaily;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface KanbanFlowDailyRepository extends JpaRepository<KanbanFlowDaily, Long> {
+    
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO kanban_flow_daily (product_id, day, completed_count) VALUES (:productId, :day, 0)", nativeQuery = true)
+    void ensureDay(@Param("productId") Long productId, @Param("day") LocalDate day);
+    
+    // Locks the day's row so concurrent completions merge into the sketch instead of overwriting it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM KanbanFlowDaily d WHERE d.productId = :productId AND d.day = :day")
+    Optional<KanbanFlowDaily> findForUpdate(@Param("productId") Long productId, @Param("day") LocalDate day);
+    
+    List<KanbanFlowDaily> findByProductIdAndDayGreaterThanEqualOrderByDayAsc(Long productId, LocalDate fromDay);
+}
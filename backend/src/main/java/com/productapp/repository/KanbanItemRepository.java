@@ -3,11 +3,15 @@ package com.productapp.repository;
 import com.productapp.entity.KanbanItem;
 import com.productapp.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface KanbanItemRepository extends JpaRepository<KanbanItem, Long> {
@@ -16,13 +20,76 @@ public interface KanbanItemRepository extends JpaRepository<KanbanItem, Long> {
     
     List<KanbanItem> findByProductAndStatusOrderByPositionAsc(Product product, String status);
     
+    @Query("SELECT k FROM KanbanItem k WHERE k.product = :product AND k.status IN :statuses ORDER BY k.status, k.rankKey, k.position, k.id")
+    List<KanbanItem> findColumnsOrderByRank(@Param("product") Product product, @Param("statuses") Collection<String> statuses);
+    
+    @Query("SELECT k FROM KanbanItem k WHERE k.product = :product AND k.status = :status ORDER BY k.rankKey, k.position, k.id")
+    List<KanbanItem> findColumnOrderByRank(@Param("product") Product product, @Param("status") String status);
+    
+    // Neighbours of a drop position: the cards at index offset and offset + 1, ignoring the moved card itself
+    @Query(value = "SELECT * FROM kanban_items WHERE product_id = :productId AND status = :status AND id <> :excludeId " +
+                   "ORDER BY rank_key, id LIMIT 2 OFFSET :offset", nativeQuery = true)
+    List<KanbanItem> findRankNeighbours(@Param("productId") Long productId, @Param("status") String status,
+                                        @Param("excludeId") Long excludeId, @Param("offset") int offset);
+    
+    @Query("SELECT MAX(k.rankKey) FROM KanbanItem k WHERE k.product = :product AND k.status = :status AND k.id <> :excludeId")
+    String findMaxRankKey(@Param("product") Product product, @Param("status") String status, @Param("excludeId") Long excludeId);
+    
+    boolean existsByProductAndStatusAndRankKeyIsNull(Product product, String status);
+    
+    long countByProductAndStatus(Product product, String status);
+    
+    // Keyset pagination over a column in (rank_key, id) order, served by idx_kanban_items_product_status_rank
+    @Query(value = "SELECT * FROM kanban_items WHERE product_id = :productId AND status = :status " +
+                   "ORDER BY rank_key, id LIMIT :limit", nativeQuery = true)
+    List<KanbanItem> findColumnFirstPage(@Param("productId") Long productId, @Param("status") String status,
+                                         @Param("limit") int limit);
+    
+    @Query(value = "SELECT * FROM kanban_items WHERE product_id = :productId AND status = :status " +
+                   "AND (rank_key > :afterRankKey OR (rank_key = :afterRankKey AND id > :afterId)) " +
+                   "ORDER BY rank_key, id LIMIT :limit", nativeQuery = true)
+    List<KanbanItem> findColumnPageAfter(@Param("productId") Long productId, @Param("status") String status,
+                                         @Param("afterRankKey") String afterRankKey, @Param("afterId") Long afterId,
+                                         @Param("limit") int limit);
+    
+    @Query(value = "SELECT COUNT(*) FROM kanban_items WHERE product_id = :productId AND status = :status " +
+                   "AND (rank_key < :rankKey OR (rank_key = :rankKey AND id <= :id))", nativeQuery = true)
+    long countColumnUpTo(@Param("productId") Long productId, @Param("status") String status,
+                         @Param("rankKey") String rankKey, @Param("id") Long id);
+    
+    // Epics whose cards have left COMMITTED, including cards that have since been archived
+    @Query(value = "SELECT DISTINCT epic_id FROM kanban_items WHERE product_id = :productId AND status <> 'COMMITTED' AND epic_id IS NOT NULL " +
+                   "UNION SELECT DISTINCT epic_id FROM kanban_items_archive WHERE product_id = :productId AND epic_id IS NOT NULL",
+           nativeQuery = true)
+    List<String> findProgressedEpicIds(@Param("productId") Long productId);
+    
+    // [id, product_id] of cards done before the cutoff, oldest IDs first
+    @Query(value = "SELECT id, product_id FROM kanban_items WHERE status = 'DONE' AND completed_at < :cutoff " +
+                   "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findArchivableItems(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+    
+    @Query(value = "SELECT id, product_id FROM kanban_items WHERE product_id = :productId AND status = 'DONE' AND completed_at < :cutoff " +
+                   "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findArchivableItemsByProductId(@Param("productId") Long productId, @Param("cutoff") LocalDateTime cutoff,
+                                                  @Param("limit") int limit);
+    
+    @Modifying
+    @Query("DELETE FROM KanbanItem k WHERE k.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT COALESCE(MAX(k.position), 0) FROM KanbanItem k WHERE k.product = :product AND k.status = :status")
     Integer findMaxPositionByProductAndStatus(@Param("product") Product product, @Param("status") String status);
     
     @Query("SELECT k FROM KanbanItem k WHERE k.product.id = :productId ORDER BY k.status, k.position")
     List<KanbanItem> findByProductId(@Param("productId") Long productId);
     
+    Optional<KanbanItem> findByIdAndProduct(Long id, Product product);
+    
+    List<KanbanItem> findByIdInAndProduct(Collection<Long> ids, Product product);
+    
     List<KanbanItem> findByEpicIdAndProduct(String epicId, Product product);
     
+    List<KanbanItem> findByProductAndEpicIdIn(Product product, Collection<String> epicIds);
+    
     void deleteByProductAndId(Product product, Long id);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.productapp.repository;
+
+import com.productapp.entity.KanbanStatusTransition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface KanbanStatusTransitionRepository extends JpaRepository<KanbanStatusTransition, Long> {
+}
@@ -0,0 +1,22 @@
+package com.productapp.repository;
+
+import com.productapp.entity.KanbanWipCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface KanbanWipCounterRepository extends JpaRepository<KanbanWipCounter, Long> {
+    
+    // Atomic in-place adjustment, so concurrent moves never read-modify-write the counter
+    @Modifying
+    @Query(value = "INSERT INTO kanban_wip_counters (product_id, status, item_count) VALUES (:productId, :status, GREATEST(:delta, 0)) " +
+                   "ON DUPLICATE KEY UPDATE item_count = GREATEST(item_count + :delta, 0)", nativeQuery = true)
+    void adjust(@Param("productId") Long productId, @Param("status") String status, @Param("delta") int delta);
+    
+    List<KanbanWipCounter> findByProductId(Long productId);
+}
@@ -1,7 +1,9 @@
 package com.productapp.repository;
 
 import com.productapp.entity.QuarterlyRoadmap;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -24,4 +26,16 @@ public interface QuarterlyRoadmapRepository extends JpaRepository<QuarterlyRoadm
     
     @Query("SELECT q FROM QuarterlyRoadmap q WHERE q.productId = :productId AND NOT (q.year = :excludeYear AND q.quarter = :excludeQuarter)")
     List<QuarterlyRoadmap> findByProductIdExcludingQuarter(@Param("productId") Long productId, @Param("excludeYear") Integer excludeYear, @Param("excludeQuarter") Integer excludeQuarter);
+    
+    // Every quarter of a range, without items; the year bounds let the (product_id, year, quarter) key narrow the scan
+    @Query("SELECT q FROM QuarterlyRoadmap q WHERE q.productId = :productId " +
+           "AND q.year BETWEEN :fromYear AND :toYear " +
+           "AND (q.year > :fromYear OR q.quarter >= :fromQuarter) AND (q.year < :toYear OR q.quarter <= :toQuarter) " +
+           "ORDER BY q.year, q.quarter")
+    List<QuarterlyRoadmap> findRange(@Param("productId") Long productId, @Param("fromYear") Integer fromYear, @Param("fromQuarter") Integer fromQuarter, @Param("toYear") Integer toYear, @Param("toQuarter") Integer toQuarter);
+    
+    // Locks the roadmap row until the transaction ends, so its writers take turns
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM QuarterlyRoadmap q WHERE q.id = :id")
+    Optional<QuarterlyRoadmap> findByIdForUpdate(@Param("id") Long id);
 }
\ No newline at end of file
@@ -8,22 +8,59 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RoadmapItemRepository extends JpaRepository<RoadmapItem, Long> {
     List<RoadmapItem> findByRoadmapId(Long roadmapId);
     
+    @Query("SELECT ri FROM RoadmapItem ri WHERE ri.id = :id AND ri.roadmap.productId = :productId")
+    Optional<RoadmapItem> findByIdAndProductId(@Param("id") Long id, @Param("productId") Long productId);
+    
+    @Query("SELECT ri FROM RoadmapItem ri WHERE ri.id IN :ids AND ri.roadmap.productId = :productId")
+    List<RoadmapItem> findByIdInAndProductId(@Param("ids") Collection<Long> ids, @Param("productId") Long productId);
+    
     @Query("SELECT ri FROM RoadmapItem ri WHERE ri.roadmap.productId = :productId AND ri.roadmap.published = true")
     List<RoadmapItem> findPublishedByProductId(@Param("productId") Long productId);
     
+    @Query("SELECT DISTINCT ri.epicId FROM RoadmapItem ri WHERE ri.roadmap.productId = :productId")
+    List<String> findDistinctEpicIdsByProductId(@Param("productId") Long productId);
+    
+    @Query("SELECT DISTINCT ri.epicId FROM RoadmapItem ri WHERE ri.roadmap.productId = :productId " +
+           "AND NOT (ri.roadmap.year = :excludeYear AND ri.roadmap.quarter = :excludeQuarter)")
+    List<String> findDistinctEpicIdsByProductIdExcludingQuarter(@Param("productId") Long productId, @Param("excludeYear") Integer excludeYear, @Param("excludeQuarter") Integer excludeQuarter);
+    
+    @Query("SELECT DISTINCT ri.epicId FROM RoadmapItem ri WHERE ri.roadmap.productId = :productId " +
+           "AND ri.roadmap.year BETWEEN :fromYear AND :toYear " +
+           "AND (ri.roadmap.year > :fromYear OR ri.roadmap.quarter >= :fromQuarter) AND (ri.roadmap.year < :toYear OR ri.roadmap.quarter <= :toQuarter)")
+    List<String> findDistinctEpicIdsByProductIdAndRange(@Param("productId") Long productId, @Param("fromYear") Integer fromYear, @Param("fromQuarter") Integer fromQuarter, @Param("toYear") Integer toYear, @Param("toQuarter") Integer toQuarter);
+    
+    @Query("SELECT DISTINCT ri.roadmap.id FROM RoadmapItem ri WHERE ri.epicId IN :epicIds AND ri.roadmap.productId = :productId")
+    List<Long> findDistinctRoadmapIdsByEpicIdInAndProductId(@Param("epicIds") Collection<String> epicIds, @Param("productId") Long productId);
+    
     @Modifying
     @Transactional
-    @Query("DELETE FROM RoadmapItem ri WHERE ri.epicId = :epicId AND ri.roadmap.productId = :productId")
-    void deleteByEpicIdAndProductId(@Param("epicId") String epicId, @Param("productId") Long productId);
+    @Query("DELETE FROM RoadmapItem ri WHERE ri.epicId IN :epicIds AND ri.roadmap.productId = :productId")
+    int deleteByEpicIdInAndProductId(@Param("epicIds") Collection<String> epicIds, @Param("productId") Long productId);
     
     @Modifying
     @Transactional
     @Query("DELETE FROM RoadmapItem ri WHERE ri.roadmap.id = :roadmapId")
     void deleteByRoadmapId(@Param("roadmapId") Long roadmapId);
+    
+    boolean existsByRoadmapId(Long roadmapId);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RoadmapItem ri WHERE ri.roadmap.id = :roadmapId AND ri.status = :status")
+    int deleteByRoadmapIdAndStatus(@Param("roadmapId") Long roadmapId, @Param("status") String status);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE RoadmapItem ri SET ri.published = true, ri.publishedDate = :publishedDate, ri.updatedAt = :now WHERE ri.roadmap.id = :roadmapId AND ri.status IN :statuses")
+    int publishByRoadmapIdAndStatusIn(@Param("roadmapId") Long roadmapId, @Param("statuses") Collection<String> statuses, @Param("publishedDate") LocalDate publishedDate, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.productapp.repository;
+
+import com.productapp.entity.RoadmapVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RoadmapVersionRepository extends JpaRepository<RoadmapVersion, Long> {
+    
+    Optional<RoadmapVersion> findTopByRoadmapIdOrderByVersionNumberDesc(Long roadmapId);
+    
+    @Query("SELECT MAX(v.versionNumber) FROM RoadmapVersion v WHERE v.roadmapId = :roadmapId")
+    Integer findLatestVersionNumber(@Param("roadmapId") Long roadmapId);
+    
+    Optional<RoadmapVersion> findTopByRoadmapIdAndCreatedAtLessThanEqualOrderByVersionNumberDesc(Long roadmapId, LocalDateTime createdAt);
+    
+    // Nearest checkpoint at or before a version, where rebuilding it starts
+    Optional<RoadmapVersion> findTopByRoadmapIdAndCheckpointTrueAndVersionNumberLessThanEqualOrderByVersionNumberDesc(Long roadmapId, Integer versionNumber);
+    
+    List<RoadmapVersion> findByRoadmapIdAndVersionNumberBetweenOrderByVersionNumberAsc(Long roadmapId, Integer fromVersion, Integer toVersion);
+    
+    // [versionNumber, checkpoint, changeCount, createdAt] without loading the payloads
+    @Query("SELECT v.versionNumber, v.checkpoint, v.changeCount, v.createdAt FROM RoadmapVersion v WHERE v.roadmapId = :roadmapId ORDER BY v.versionNumber DESC")
+    List<Object[]> findSummariesByRoadmapId(@Param("roadmapId") Long roadmapId);
+}
\ No newline at end of file
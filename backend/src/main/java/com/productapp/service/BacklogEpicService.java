@@ -0,0 +1,251 @@
+package com.productapp.service;
+
+import com.productapp.dto.EpicDto;
+import com.productapp.entity.BacklogEpic;
+import com.productapp.entity.Product;
+import com.productapp.event.KanbanBoardEvent;
+import com.productapp.exception.DuplicateResourceException;
+import com.productapp.exception.ResourceNotFoundException;
+import com.productapp.exception.UnauthorizedException;
+import com.productapp.repository.BacklogEpicRepository;
+import com.productapp.repository.EpicEffortRatingRepository;
+import com.productapp.repository.EpicEffortRepository;
+import com.productapp.repository.ProductRepository;
+import com.productapp.repository.RoadmapItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Writes to a product's backlog epics.
+ *
+ * Epics are matched on their epic ID and only epics that are new, changed or removed are written,
+ * so rows keep their ID and createdAt across saves. Removing epics also removes their roadmap
+ * items, efforts and effort ratings, with one DELETE ... WHERE epic_id IN (...) per table.
+ */
+@Service
+public class BacklogEpicService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BacklogEpicService.class);
+
+    // Keeps the IN lists of cascade deletes well within statement and bind parameter limits
+    private static final int CASCADE_CHUNK_SIZE = 500;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BacklogEpicRepository backlogEpicRepository;
+
+    @Autowired
+    private RoadmapItemRepository roadmapItemRepository;
+
+    @Autowired
+    private EpicEffortRepository epicEffortRepository;
+
+    @Autowired
+    private EpicEffortRatingRepository epicEffortRatingRepository;
+
+    @Autowired
+    private RoadmapVersionService roadmapVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The product, if the given user owns it. Only the owner may read or change a product's backlog.
+     */
+    public Product getOwnedProduct(Long productId, Long userId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        if (!product.getUser().getId().equals(userId)) {
+            logger.warn("User ID: {} attempted to access backlog epics for product ID: {} they don't own", userId, productId);
+            throw new UnauthorizedException("Access denied");
+        }
+        return product;
+    }
+
+    @Transactional
+    public BacklogEpic createEpic(Product product, EpicDto epicDto) {
+        if (epicDto.getId() == null || epicDto.getId().isBlank()) {
+            throw new IllegalArgumentException("Epic ID is required");
+        }
+        if (backlogEpicRepository.findByProductIdAndEpicId(product.getId(), epicDto.getId()).isPresent()) {
+            throw new DuplicateResourceException("Epic " + epicDto.getId() + " already exists in the backlog");
+        }
+        BacklogEpic epic = new BacklogEpic();
+        epic.setProduct(product);
+        epic.setEpicId(epicDto.getId());
+        apply(epic, epicDto);
+        try {
+            return backlogEpicRepository.saveAndFlush(epic);
+        } catch (DataIntegrityViolationException e) {
+            // Another request created the epic after the check above
+            throw new DuplicateResourceException("Epic " + epicDto.getId() + " already exists in the backlog");
+        }
+    }
+
+    @Transactional
+    public BacklogEpic updateEpic(Long productId, String epicId, EpicDto epicDto) {
+        BacklogEpic epic = backlogEpicRepository.findByProductIdAndEpicId(productId, epicId)
+                .orElseThrow(() -> new ResourceNotFoundException("Epic", "id", epicId));
+        if (apply(epic, epicDto)) {
+            epic = backlogEpicRepository.save(epic);
+        }
+        return epic;
+    }
+
+    @Transactional
+    public void deleteEpic(Long productId, String epicId) {
+        BacklogEpic epic = backlogEpicRepository.findByProductIdAndEpicId(productId, epicId)
+                .orElseThrow(() -> new ResourceNotFoundException("Epic", "id", epicId));
+        backlogEpicRepository.delete(epic);
+        cascadeDelete(productId, List.of(epicId));
+    }
+
+    /**
+     * Make the backlog match the given full list of epics: epics missing from the list are deleted,
+     * the others created or updated where they differ. Returns the resulting backlog.
+     */
+    @Transactional
+    public List<BacklogEpic> replaceEpics(Product product, List<EpicDto> epicDtos) {
+        return applyChanges(product, epicDtos, null, true);
+    }
+
+    /**
+     * Create or update the given epics and delete the given epic IDs, leaving every other epic of
+     * the backlog untouched. Returns the resulting backlog.
+     */
+    @Transactional
+    public List<BacklogEpic> applyChanges(Product product, List<EpicDto> upserts, Collection<String> deletedEpicIds) {
+        return applyChanges(product, upserts, deletedEpicIds, false);
+    }
+
+    private List<BacklogEpic> applyChanges(Product product, List<EpicDto> upserts, Collection<String> deletedEpicIds,
+                                           boolean deleteUnlisted) {
+        Long productId = product.getId();
+        Map<String, BacklogEpic> epicsById = new LinkedHashMap<>();
+        // Unique per product, enforced by idx_backlog_epics_product_epic
+        for (BacklogEpic epic : backlogEpicRepository.findByProductId(productId)) {
+            epicsById.put(epic.getEpicId(), epic);
+        }
+
+        // Later entries win over earlier ones for the same epic ID
+        Map<String, EpicDto> upsertsById = new LinkedHashMap<>();
+        if (upserts != null) {
+            for (EpicDto epicDto : upserts) {
+                if (epicDto.getId() == null || epicDto.getId().isBlank()) {
+                    throw new IllegalArgumentException("Epic ID is required");
+                }
+                upsertsById.put(epicDto.getId(), epicDto);
+            }
+        }
+
+        Set<String> toDelete = new LinkedHashSet<>();
+        if (deleteUnlisted) {
+            toDelete.addAll(epicsById.keySet());
+            toDelete.removeAll(upsertsById.keySet());
+        } else if (deletedEpicIds != null) {
+            for (String epicId : deletedEpicIds) {
+                if (epicsById.containsKey(epicId) && !upsertsById.containsKey(epicId)) {
+                    toDelete.add(epicId);
+                }
+            }
+        }
+
+        List<BacklogEpic> toSave = new ArrayList<>();
+        int created = 0;
+        for (EpicDto epicDto : upsertsById.values()) {
+            BacklogEpic epic = epicsById.get(epicDto.getId());
+            if (epic == null) {
+                epic = new BacklogEpic();
+                epic.setProduct(product);
+                epic.setEpicId(epicDto.getId());
+                apply(epic, epicDto);
+                epicsById.put(epicDto.getId(), epic);
+                toSave.add(epic);
+                created++;
+            } else if (apply(epic, epicDto)) {
+                toSave.add(epic);
+            }
+        }
+        try {
+            backlogEpicRepository.saveAll(toSave);
+            backlogEpicRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            // Another request created one of the new epics since the backlog was read
+            throw new DuplicateResourceException("Backlog of product " + productId + " was changed concurrently, refresh and retry");
+        }
+
+        if (!toDelete.isEmpty()) {
+            List<BacklogEpic> removed = new ArrayList<>(toDelete.size());
+            for (String epicId : toDelete) {
+                removed.add(epicsById.remove(epicId));
+            }
+            backlogEpicRepository.deleteAllInBatch(removed);
+            cascadeDelete(productId, toDelete);
+        }
+
+        logger.debug("Saved backlog of product {}: {} created, {} updated, {} deleted", productId,
+                created, toSave.size() - created, toDelete.size());
+        return new ArrayList<>(epicsById.values());
+    }
+
+    // One set-based DELETE per table and chunk of epic IDs, rather than one statement per epic
+    private void cascadeDelete(Long productId, Collection<String> epicIds) {
+        List<String> ids = new ArrayList<>(epicIds);
+        Set<Long> roadmapIds = new LinkedHashSet<>();
+        int roadmapItems = 0;
+        int efforts = 0;
+        int ratings = 0;
+        for (int from = 0; from < ids.size(); from += CASCADE_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + CASCADE_CHUNK_SIZE, ids.size()));
+            roadmapIds.addAll(roadmapItemRepository.findDistinctRoadmapIdsByEpicIdInAndProductId(chunk, productId));
+            roadmapItems += roadmapItemRepository.deleteByEpicIdInAndProductId(chunk, productId);
+            efforts += epicEffortRepository.deleteByEpicIdInAndProductId(chunk, productId);
+            ratings += epicEffortRatingRepository.deleteByEpicIdInAndProductId(chunk, productId);
+        }
+        logger.debug("Removed {} epics from product {}: {} roadmap items, {} efforts, {} ratings deleted",
+                ids.size(), productId, roadmapItems, efforts, ratings);
+        // Roadmaps that lost items get a version, as if the items had been removed by a roadmap save
+        roadmapVersionService.recordVersions(roadmapIds);
+        // Removed roadmap items disappear from the Kanban board
+        eventPublisher.publishEvent(new KanbanBoardEvent(productId, KanbanBoardEvent.Type.BOARD_CHANGED, null));
+    }
+
+    // Copy the client's fields onto the epic; true if any of them changed
+    private boolean apply(BacklogEpic epic, EpicDto epicDto) {
+        boolean changed = !Objects.equals(epic.getEpicName(), epicDto.getName())
+                || !Objects.equals(epic.getEpicDescription(), epicDto.getDescription())
+                || !Objects.equals(epic.getThemeId(), epicDto.getThemeId())
+                || !Objects.equals(epic.getThemeName(), epicDto.getThemeName())
+                || !Objects.equals(epic.getThemeColor(), epicDto.getThemeColor())
+                || !Objects.equals(epic.getInitiativeId(), epicDto.getInitiativeId())
+                || !Objects.equals(epic.getInitiativeName(), epicDto.getInitiativeName())
+                || !Objects.equals(epic.getTrack(), epicDto.getTrack());
+        if (changed) {
+            epic.setEpicName(epicDto.getName());
+            epic.setEpicDescription(epicDto.getDescription());
+            epic.setThemeId(epicDto.getThemeId());
+            epic.setThemeName(epicDto.getThemeName());
+            epic.setThemeColor(epicDto.getThemeColor());
+            epic.setInitiativeId(epicDto.getInitiativeId());
+            epic.setInitiativeName(epicDto.getInitiativeName());
+            epic.setTrack(epicDto.getTrack());
+        }
+        return changed;
+    }
+}
\ No newline at end of file
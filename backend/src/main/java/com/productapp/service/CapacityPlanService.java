@@ -0,0 +1,234 @@
+package com.productapp.service;
+
+import com.productapp.dto.CapacityPlanRequest;
+import com.productapp.dto.CapacityPlanResponse;
+import com.productapp.dto.EpicEffortRequest;
+import com.productapp.dto.TeamResponse;
+import com.productapp.entity.CapacityPlan;
+import com.productapp.entity.EffortRatingConfig;
+import com.productapp.entity.EpicEffort;
+import com.productapp.entity.Team;
+import com.productapp.repository.CapacityPlanRepository;
+import com.productapp.repository.EffortRatingConfigRepository;
+import com.productapp.repository.EpicEffortRepository;
+import com.productapp.repository.TeamRepository;
+import com.productapp.util.CapacityMatrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class CapacityPlanService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacityPlanService.class);
+
+    // Backed by uk_epic_efforts_plan_epic_team; the epic name of an existing cell is left as it is
+    private static final String UPSERT_EFFORT_SQL =
+            "INSERT INTO epic_efforts (capacity_plan_id, epic_id, epic_name, team_id, effort_days, notes, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE effort_days = VALUES(effort_days), notes = VALUES(notes), updated_at = VALUES(updated_at)";
+
+    @Autowired
+    private CapacityPlanRepository capacityPlanRepository;
+
+    @Autowired
+    private EpicEffortRepository epicEffortRepository;
+
+    @Autowired
+    private EpicEffortRatingService epicEffortRatingService;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private EffortRatingConfigRepository effortRatingConfigRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The capacity plan of a quarter with its efforts and the product's active teams. Read-only: a
+     * quarter without a plan yet is returned as an empty, unsaved plan. Plans and their cells are
+     * created from the roadmap by CapacityPlanSyncService.
+     */
+    @Transactional(readOnly = true)
+    public CapacityPlanResponse getCapacityPlan(Long productId, Integer year, Integer quarter) {
+        List<Team> teams = teamRepository.findByProductIdAndIsActiveTrue(productId);
+        
+        Optional<CapacityPlan> capacityPlanOpt = capacityPlanRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
+        CapacityPlanResponse response = capacityPlanOpt.isPresent()
+                ? new CapacityPlanResponse(capacityPlanOpt.get(),
+                        epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(capacityPlanOpt.get().getId()))
+                : new CapacityPlanResponse(new CapacityPlan(productId, year, quarter), List.of());
+        response.setTeams(teams.stream().map(TeamResponse::new).collect(Collectors.toList()));
+        return response;
+    }
+
+    /**
+     * Totals of a quarter's capacity plan computed on a {@link CapacityMatrix}: effort per epic with
+     * its star rating, load per team and its share of the plan and, when a capacity per team is
+     * given (in the plan's effort unit), each team's utilisation. Empty if the quarter has no plan.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getSummary(Long productId, Integer year, Integer quarter, Integer teamCapacity) {
+        Optional<CapacityPlan> capacityPlanOpt = capacityPlanRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
+        if (capacityPlanOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        CapacityPlan capacityPlan = capacityPlanOpt.get();
+        
+        // Active teams are always shown; inactive ones only if they still carry effort
+        Map<Long, Team> teamsById = new HashMap<>();
+        for (Team team : teamRepository.findByProductIdAndIsActiveTrue(productId)) {
+            teamsById.put(team.getId(), team);
+        }
+        CapacityMatrix matrix = loadMatrix(capacityPlan, teamsById.keySet());
+        EffortRatingConfig config = getRatingConfig(capacityPlan);
+        int[] starRatings = config != null
+                ? matrix.starRatings(config.getStar1Max(), config.getStar2Max(), config.getStar3Max(), config.getStar4Max())
+                : new int[matrix.getEpicCount()];
+        
+        List<Map<String, Object>> epics = new ArrayList<>(matrix.getEpicCount());
+        for (int epic = 0; epic < matrix.getEpicCount(); epic++) {
+            Map<String, Object> epicSummary = new LinkedHashMap<>();
+            epicSummary.put("epicId", matrix.getEpicId(epic));
+            epicSummary.put("epicName", matrix.getEpicName(epic));
+            epicSummary.put("totalEffort", matrix.getEpicTotal(epic));
+            epicSummary.put("starRating", starRatings[epic] > 0 ? starRatings[epic] : null);
+            epics.add(epicSummary);
+        }
+        
+        List<Map<String, Object>> teams = new ArrayList<>(matrix.getTeamCount());
+        for (int team = 0; team < matrix.getTeamCount(); team++) {
+            Team entity = teamsById.get(matrix.getTeamId(team));
+            int load = matrix.getTeamTotal(team);
+            if (entity == null && load == 0) {
+                continue;
+            }
+            Map<String, Object> teamSummary = new LinkedHashMap<>();
+            teamSummary.put("teamId", matrix.getTeamId(team));
+            teamSummary.put("teamName", entity != null ? entity.getName() : null);
+            teamSummary.put("active", entity != null);
+            teamSummary.put("load", load);
+            teamSummary.put("share", matrix.getGrandTotal() > 0 ? (double) load / matrix.getGrandTotal() : 0.0);
+            if (teamCapacity != null && teamCapacity > 0) {
+                teamSummary.put("utilisation", (double) load / teamCapacity);
+                teamSummary.put("overCapacity", load > teamCapacity);
+            }
+            teams.add(teamSummary);
+        }
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("capacityPlanId", capacityPlan.getId());
+        summary.put("year", year);
+        summary.put("quarter", quarter);
+        summary.put("effortUnit", capacityPlan.getEffortUnit());
+        summary.put("teamCapacity", teamCapacity);
+        summary.put("totalEffort", matrix.getGrandTotal());
+        summary.put("epics", epics);
+        summary.put("teams", teams);
+        return Optional.of(summary);
+    }
+
+    /**
+     * Save the effort grid of a quarter's capacity plan, creating the plan if needed. The existing
+     * grid is loaded once and only cells whose effort or notes changed are written, as a single
+     * batch of upserts on (capacity_plan_id, epic_id, team_id).
+     */
+    @Transactional
+    public CapacityPlan saveCapacityPlan(Long productId, Integer year, Integer quarter, CapacityPlanRequest request) {
+        CapacityPlan capacityPlan = capacityPlanRepository.findByProductIdAndYearAndQuarter(productId, year, quarter)
+                .orElseGet(() -> capacityPlanRepository.save(new CapacityPlan(productId, year, quarter)));
+        
+        // Update effort unit if different
+        boolean effortUnitChanged = false;
+        if (request.getEffortUnit() != null && !request.getEffortUnit().equals(capacityPlan.getEffortUnit())) {
+            capacityPlan.setEffortUnit(request.getEffortUnit());
+            capacityPlan = capacityPlanRepository.save(capacityPlan);
+            effortUnitChanged = true;
+        }
+        
+        Map<String, EpicEffort> existingByCell = new LinkedHashMap<>();
+        for (EpicEffort effort : epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(capacityPlan.getId())) {
+            existingByCell.put(cellKey(effort.getEpicId(), effort.getTeamId()), effort);
+        }
+        
+        // Later cells in the request win over earlier ones for the same epic and team
+        Map<String, EpicEffortRequest> changedByCell = new LinkedHashMap<>();
+        if (request.getEpicEfforts() != null) {
+            for (EpicEffortRequest effortRequest : request.getEpicEfforts()) {
+                String key = cellKey(effortRequest.getEpicId(), effortRequest.getTeamId());
+                EpicEffort existing = existingByCell.get(key);
+                if (existing != null && Objects.equals(existing.getEffortDays(), effortRequest.getEffortDays())
+                        && Objects.equals(existing.getNotes(), effortRequest.getNotes())) {
+                    changedByCell.remove(key);
+                } else {
+                    changedByCell.put(key, effortRequest);
+                }
+            }
+        }
+        
+        Set<String> changedEpicIds = new HashSet<>();
+        if (!changedByCell.isEmpty()) {
+            Long capacityPlanId = capacityPlan.getId();
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = new ArrayList<>(changedByCell.size());
+            for (EpicEffortRequest effortRequest : changedByCell.values()) {
+                rows.add(new Object[] {capacityPlanId, effortRequest.getEpicId(), effortRequest.getEpicName(),
+                        effortRequest.getTeamId(), effortRequest.getEffortDays(), effortRequest.getNotes(), now, now});
+                changedEpicIds.add(effortRequest.getEpicId());
+            }
+            // One JDBC batch; the rating refresh below aggregates in the database, so it sees these rows
+            jdbcTemplate.batchUpdate(UPSERT_EFFORT_SQL, rows);
+        }
+        
+        // Keep the materialized star ratings read by the roadmap in step with the efforts
+        if (effortUnitChanged) {
+            epicEffortRatingService.refreshPlan(capacityPlan);
+        } else {
+            epicEffortRatingService.refreshEpics(capacityPlan, changedEpicIds);
+        }
+        
+        logger.debug("Saved capacity plan {} Q{} for product {}: {} of {} cells changed", year, quarter, productId,
+                changedByCell.size(), request.getEpicEfforts() != null ? request.getEpicEfforts().size() : 0);
+        return capacityPlan;
+    }
+
+    // Grid of a plan's cells with a column for each of the given teams, even those without effort
+    CapacityMatrix loadMatrix(CapacityPlan capacityPlan, Collection<Long> teamIds) {
+        CapacityMatrix.Builder builder = new CapacityMatrix.Builder();
+        for (Long teamId : teamIds) {
+            builder.addTeam(teamId);
+        }
+        for (Object[] cell : epicEffortRepository.findCellsByCapacityPlanId(capacityPlan.getId())) {
+            builder.addCell((String) cell[0], (String) cell[1], (Long) cell[2], (Integer) cell[3]);
+        }
+        return builder.build();
+    }
+
+    EffortRatingConfig getRatingConfig(CapacityPlan capacityPlan) {
+        return EpicEffortRatingService.selectConfig(capacityPlan,
+                effortRatingConfigRepository.findByProductId(capacityPlan.getProductId()));
+    }
+
+    private String cellKey(String epicId, Long teamId) {
+        return epicId + '\u0000' + teamId;
+    }
+}
\ No newline at end of file
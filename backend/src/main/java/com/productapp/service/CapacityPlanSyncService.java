@@ -0,0 +1,81 @@
+package com.productapp.service;
+
+import com.productapp.entity.CapacityPlan;
+import com.productapp.event.RoadmapSavedEvent;
+import com.productapp.event.TeamAddedEvent;
+import com.productapp.repository.CapacityPlanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps capacity plans in step with the roadmap: every epic on a quarter's roadmap gets a zero-effort
+ * cell for every active team of the product.
+ *
+ * Runs after a roadmap save or a team addition has committed, in its own transaction, and fills the
+ * missing cells with one INSERT ... SELECT, so reading a capacity plan never writes.
+ */
+@Service
+public class CapacityPlanSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacityPlanSyncService.class);
+
+    // Missing (plan, epic, team) cells of the selected plans; existing cells are left untouched
+    private static final String FILL_EFFORTS_SQL =
+            "INSERT INTO epic_efforts (capacity_plan_id, epic_id, epic_name, team_id, effort_days, created_at, updated_at) " +
+            "SELECT cp.id, ri.epic_id, MIN(ri.epic_name), t.id, 0, NOW(), NOW() " +
+            "FROM capacity_plans cp " +
+            "JOIN quarterly_roadmap q ON q.product_id = cp.product_id AND q.year = cp.year AND q.quarter = cp.quarter " +
+            "JOIN roadmap_items ri ON ri.roadmap_id = q.id " +
+            "JOIN teams t ON t.product_id = cp.product_id AND t.is_active = TRUE " +
+            "WHERE %s " +
+            "GROUP BY cp.id, ri.epic_id, t.id " +
+            "ON DUPLICATE KEY UPDATE id = id";
+
+    @Autowired
+    private CapacityPlanRepository capacityPlanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onRoadmapSaved(RoadmapSavedEvent event) {
+        try {
+            CapacityPlan capacityPlan = capacityPlanRepository
+                    .findByProductIdAndYearAndQuarter(event.getProductId(), event.getYear(), event.getQuarter())
+                    .orElseGet(() -> capacityPlanRepository.saveAndFlush(
+                            new CapacityPlan(event.getProductId(), event.getYear(), event.getQuarter())));
+            int created = jdbcTemplate.update(String.format(FILL_EFFORTS_SQL, "cp.id = ?"), capacityPlan.getId());
+            logger.debug("Synced capacity plan {} with roadmap {} Q{} of product {}: {} cells created",
+                    capacityPlan.getId(), event.getYear(), event.getQuarter(), event.getProductId(), created);
+        } catch (Exception e) {
+            logger.error("Error syncing capacity plan with roadmap {} Q{} of product {}",
+                    event.getYear(), event.getQuarter(), event.getProductId(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTeamAdded(TeamAddedEvent event) {
+        try {
+            // Past quarters are history and keep the teams they were planned with
+            LocalDate today = LocalDate.now();
+            int currentQuarter = today.getYear() * 4 + (today.getMonthValue() - 1) / 3;
+            int created = jdbcTemplate.update(String.format(FILL_EFFORTS_SQL,
+                    "cp.product_id = ? AND t.id = ? AND cp.year * 4 + cp.quarter - 1 >= ?"),
+                    event.getProductId(), event.getTeamId(), currentQuarter);
+            logger.debug("Added team {} to current and upcoming capacity plans of product {}: {} cells created",
+                    event.getTeamId(), event.getProductId(), created);
+        } catch (Exception e) {
+            logger.error("Error adding team {} to capacity plans of product {}", event.getTeamId(), event.getProductId(), e);
+        }
+    }
+}
\ No newline at end of file
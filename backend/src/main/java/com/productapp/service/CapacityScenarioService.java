@@ -0,0 +1,304 @@
+package com.productapp.service;
+
+import com.productapp.dto.CapacityPlanRequest;
+import com.productapp.dto.CapacityScenarioRequest;
+import com.productapp.dto.EpicEffortRequest;
+import com.productapp.entity.CapacityPlan;
+import com.productapp.entity.EffortRatingConfig;
+import com.productapp.entity.EpicEffort;
+import com.productapp.entity.Team;
+import com.productapp.repository.CapacityPlanRepository;
+import com.productapp.repository.EpicEffortRepository;
+import com.productapp.repository.TeamRepository;
+import com.productapp.util.CapacityMatrix;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * What-if evaluation of a quarter's capacity plan.
+ *
+ * The saved plan is loaded once into a {@link CapacityMatrix}. Each scenario is a copy-on-write
+ * fork of it holding only its own edits, so scenarios cost memory in proportion to what they
+ * change. Edits are resolved against the matrix in the request thread; evaluating the forks is
+ * pure arithmetic on primitive arrays and runs on a dedicated fork-join pool. Nothing is written
+ * until a scenario is promoted.
+ */
+@Service
+public class CapacityScenarioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacityScenarioService.class);
+
+    public static final int MAX_SCENARIOS = 50;
+
+    // Separate from the common pool so large what-if requests do not hold up other parallel work
+    private final ForkJoinPool scenarioPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+
+    @Autowired
+    private CapacityPlanRepository capacityPlanRepository;
+
+    @Autowired
+    private EpicEffortRepository epicEffortRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private CapacityPlanService capacityPlanService;
+
+    @Autowired
+    private EpicEffortRatingService epicEffortRatingService;
+
+    /**
+     * Evaluate every scenario of the request against the saved plan of a quarter. The result holds
+     * the unedited baseline followed by one entry per scenario, in request order. Empty if the
+     * quarter has no plan.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> evaluate(Long productId, Integer year, Integer quarter, CapacityScenarioRequest request) {
+        if (request.getScenarios().size() > MAX_SCENARIOS) {
+            throw new IllegalArgumentException("At most " + MAX_SCENARIOS + " scenarios can be evaluated at once");
+        }
+        Optional<CapacityPlan> capacityPlanOpt = capacityPlanRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
+        if (capacityPlanOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        CapacityPlan capacityPlan = capacityPlanOpt.get();
+
+        Map<Long, String> teamNames = new HashMap<>();
+        for (Team team : teamRepository.findByProductIdAndIsActiveTrue(productId)) {
+            teamNames.put(team.getId(), team.getName());
+        }
+        CapacityMatrix matrix = capacityPlanService.loadMatrix(capacityPlan, teamNames.keySet());
+        EffortRatingConfig config = capacityPlanService.getRatingConfig(capacityPlan);
+
+        // Resolve everything that needs maps or entities up front; the parallel part only reads arrays
+        String[] names = new String[matrix.getTeamCount()];
+        for (int team = 0; team < matrix.getTeamCount(); team++) {
+            names[team] = teamNames.get(matrix.getTeamId(team));
+        }
+        List<String> scenarioNames = new ArrayList<>();
+        List<CapacityMatrix.Scenario> forks = new ArrayList<>();
+        List<int[]> capacities = new ArrayList<>();
+        scenarioNames.add("Baseline");
+        forks.add(matrix.fork());
+        capacities.add(resolveCapacities(matrix, request, null));
+        for (int i = 0; i < request.getScenarios().size(); i++) {
+            CapacityScenarioRequest.Scenario scenario = request.getScenarios().get(i);
+            scenarioNames.add(scenario.getName() != null ? scenario.getName() : "Scenario " + (i + 1));
+            forks.add(applyEdits(matrix, scenario));
+            capacities.add(resolveCapacities(matrix, request, scenario));
+        }
+        int[] baselineRatings = config != null
+                ? matrix.starRatings(config.getStar1Max(), config.getStar2Max(), config.getStar3Max(), config.getStar4Max())
+                : new int[matrix.getEpicCount()];
+
+        List<Map<String, Object>> results;
+        try {
+            results = scenarioPool.submit(() -> IntStream.range(0, forks.size()).parallel()
+                    .mapToObj(i -> toResult(scenarioNames.get(i), forks.get(i), capacities.get(i), names, config, baselineRatings))
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating capacity scenarios", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to evaluate capacity scenarios", e.getCause());
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("capacityPlanId", capacityPlan.getId());
+        response.put("year", year);
+        response.put("quarter", quarter);
+        response.put("effortUnit", capacityPlan.getEffortUnit());
+        response.put("baseline", results.get(0));
+        response.put("scenarios", results.subList(1, results.size()));
+        logger.debug("Evaluated {} capacity scenarios for product {} Q{} {}", forks.size() - 1, productId, quarter, year);
+        return Optional.of(response);
+    }
+
+    /**
+     * Write a scenario's effort changes and epic removals to the quarter's plan. Capacity overrides
+     * are only used for evaluation and are not stored. Returns the number of cells written and epics
+     * removed, or empty if the quarter has no plan.
+     */
+    @Transactional
+    public Optional<Map<String, Object>> promote(Long productId, Integer year, Integer quarter, CapacityScenarioRequest.Scenario scenario) {
+        Optional<CapacityPlan> capacityPlanOpt = capacityPlanRepository.findByProductIdAndYearAndQuarter(productId, year, quarter);
+        if (capacityPlanOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        CapacityPlan capacityPlan = capacityPlanOpt.get();
+
+        Set<Long> teamIds = teamRepository.findByProductIdAndIsActiveTrue(productId).stream()
+                .map(Team::getId).collect(Collectors.toSet());
+        CapacityMatrix matrix = capacityPlanService.loadMatrix(capacityPlan, teamIds);
+        // Validates the edits exactly as evaluation does
+        CapacityMatrix.Scenario fork = applyEdits(matrix, scenario);
+
+        Set<String> removedEpicIds = new LinkedHashSet<>();
+        if (scenario.getRemovedEpicIds() != null) {
+            removedEpicIds.addAll(scenario.getRemovedEpicIds());
+        }
+
+        // Keep the notes of existing cells; the upsert in saveCapacityPlan overwrites them
+        Map<String, String> notesByCell = new HashMap<>();
+        for (EpicEffort effort : epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(capacityPlan.getId())) {
+            notesByCell.put(effort.getEpicId() + '\u0000' + effort.getTeamId(), effort.getNotes());
+        }
+        List<EpicEffortRequest> efforts = new ArrayList<>();
+        if (scenario.getEffortChanges() != null) {
+            for (CapacityScenarioRequest.EffortChange change : scenario.getEffortChanges()) {
+                if (removedEpicIds.contains(change.getEpicId())) {
+                    continue;
+                }
+                int epic = matrix.indexOfEpic(change.getEpicId());
+                efforts.add(new EpicEffortRequest(change.getEpicId(), matrix.getEpicName(epic), change.getTeamId(),
+                        fork.getEffort(epic, matrix.indexOfTeam(change.getTeamId())),
+                        notesByCell.get(change.getEpicId() + '\u0000' + change.getTeamId())));
+            }
+        }
+        if (!efforts.isEmpty()) {
+            capacityPlanService.saveCapacityPlan(productId, year, quarter, new CapacityPlanRequest(year, quarter, efforts));
+        }
+
+        for (String epicId : removedEpicIds) {
+            epicEffortRepository.deleteByCapacityPlanIdAndEpicId(capacityPlan.getId(), epicId);
+        }
+        epicEffortRatingService.refreshEpics(capacityPlan, removedEpicIds);
+
+        logger.info("Promoted capacity scenario '{}' for product {} Q{} {}: {} cells written, {} epics removed",
+                scenario.getName(), productId, quarter, year, efforts.size(), removedEpicIds.size());
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("capacityPlanId", capacityPlan.getId());
+        result.put("cellsWritten", efforts.size());
+        result.put("epicsRemoved", removedEpicIds.size());
+        return Optional.of(result);
+    }
+
+    private CapacityMatrix.Scenario applyEdits(CapacityMatrix matrix, CapacityScenarioRequest.Scenario scenario) {
+        CapacityMatrix.Scenario fork = matrix.fork();
+        if (scenario.getEffortChanges() != null) {
+            for (CapacityScenarioRequest.EffortChange change : scenario.getEffortChanges()) {
+                int epic = matrix.indexOfEpic(change.getEpicId());
+                if (epic < 0) {
+                    throw new IllegalArgumentException("Epic " + change.getEpicId() + " is not part of the capacity plan");
+                }
+                int team = matrix.indexOfTeam(change.getTeamId());
+                if (team < 0) {
+                    throw new IllegalArgumentException("Team " + change.getTeamId() + " is not part of the capacity plan");
+                }
+                fork.setEffort(epic, team, change.getEffortDays());
+            }
+        }
+        if (scenario.getRemovedEpicIds() != null) {
+            for (String epicId : scenario.getRemovedEpicIds()) {
+                int epic = matrix.indexOfEpic(epicId);
+                if (epic < 0) {
+                    throw new IllegalArgumentException("Epic " + epicId + " is not part of the capacity plan");
+                }
+                fork.removeEpic(epic);
+            }
+        }
+        return fork;
+    }
+
+    // Capacity per team column, -1 where none is known; scenario overrides win over request-wide values
+    private int[] resolveCapacities(CapacityMatrix matrix, CapacityScenarioRequest request, CapacityScenarioRequest.Scenario scenario) {
+        int[] capacities = new int[matrix.getTeamCount()];
+        for (int team = 0; team < capacities.length; team++) {
+            Long teamId = matrix.getTeamId(team);
+            Integer capacity = null;
+            if (scenario != null && scenario.getTeamCapacities() != null) {
+                capacity = scenario.getTeamCapacities().get(teamId);
+            }
+            if (capacity == null && request.getTeamCapacities() != null) {
+                capacity = request.getTeamCapacities().get(teamId);
+            }
+            if (capacity == null) {
+                capacity = request.getTeamCapacity();
+            }
+            capacities[team] = capacity != null ? capacity : -1;
+        }
+        return capacities;
+    }
+
+    private Map<String, Object> toResult(String name, CapacityMatrix.Scenario scenario, int[] capacities, String[] teamNames,
+                                         EffortRatingConfig config, int[] baselineRatings) {
+        CapacityMatrix matrix = scenario.getBase();
+        CapacityMatrix.Totals totals = scenario.evaluate();
+        int[] ratings = starRatings(totals, config, matrix.getEpicCount());
+
+        List<Map<String, Object>> teams = new ArrayList<>(matrix.getTeamCount());
+        long overAllocation = 0;
+        int overAllocatedTeams = 0;
+        for (int team = 0; team < matrix.getTeamCount(); team++) {
+            int load = totals.getTeamTotal(team);
+            if (teamNames[team] == null && load == 0) {
+                continue;
+            }
+            Map<String, Object> teamResult = new LinkedHashMap<>();
+            teamResult.put("teamId", matrix.getTeamId(team));
+            teamResult.put("teamName", teamNames[team]);
+            teamResult.put("load", load);
+            if (capacities[team] >= 0) {
+                int over = Math.max(0, load - capacities[team]);
+                teamResult.put("capacity", capacities[team]);
+                teamResult.put("utilisation", capacities[team] > 0 ? (double) load / capacities[team] : null);
+                teamResult.put("overAllocation", over);
+                if (over > 0) {
+                    overAllocation += over;
+                    overAllocatedTeams++;
+                }
+            }
+            teams.add(teamResult);
+        }
+
+        List<Map<String, Object>> epics = new ArrayList<>(matrix.getEpicCount());
+        for (int epic = 0; epic < matrix.getEpicCount(); epic++) {
+            Map<String, Object> epicResult = new LinkedHashMap<>();
+            epicResult.put("epicId", matrix.getEpicId(epic));
+            epicResult.put("epicName", matrix.getEpicName(epic));
+            epicResult.put("removed", scenario.isRemoved(epic));
+            epicResult.put("totalEffort", totals.getEpicTotal(epic));
+            epicResult.put("starRating", ratings[epic] > 0 ? ratings[epic] : null);
+            epicResult.put("ratingChanged", ratings[epic] != baselineRatings[epic]);
+            epics.add(epicResult);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("totalEffort", totals.getGrandTotal());
+        result.put("overAllocation", overAllocation);
+        result.put("overAllocatedTeams", overAllocatedTeams);
+        result.put("teams", teams);
+        result.put("epics", epics);
+        return result;
+    }
+
+    private int[] starRatings(CapacityMatrix.Totals totals, EffortRatingConfig config, int epicCount) {
+        return config != null
+                ? totals.starRatings(config.getStar1Max(), config.getStar2Max(), config.getStar3Max(), config.getStar4Max())
+                : new int[epicCount];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scenarioPool.shutdownNow();
+    }
+}
\ No newline at end of file
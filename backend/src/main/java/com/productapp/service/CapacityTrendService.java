@@ -0,0 +1,132 @@
+package com.productapp.service;
+
+import com.productapp.repository.EpicEffortRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Demand per team per quarter across a range of capacity plans, for trend views of a product or of
+ * a whole organization.
+ *
+ * The rollup is one GROUP BY over epic_efforts joined to capacity_plans and teams, whatever the
+ * number of quarters, and nothing is created for quarters without a plan. The result is columnar:
+ * quarter and team labels once, then one team x quarter matrix per effort unit, since demand in
+ * sprints and in days cannot be added up.
+ */
+@Service
+public class CapacityTrendService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacityTrendService.class);
+
+    public static final int MAX_RANGE_QUARTERS = 40;
+
+    @Autowired
+    private EpicEffortRepository epicEffortRepository;
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProductTrend(Long productId, Integer fromYear, Integer fromQuarter, Integer toYear, Integer toQuarter) {
+        int quarterCount = validateRange(fromYear, fromQuarter, toYear, toQuarter);
+        List<Object[]> rows = epicEffortRepository.sumEffortByQuarterAndTeamForProduct(productId, fromYear, fromQuarter, toYear, toQuarter);
+        logger.debug("Capacity trend for product {}: {} team quarters over {} quarters", productId, rows.size(), quarterCount);
+        return toColumns(rows, fromYear, fromQuarter, quarterCount);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getOrganizationTrend(Long organizationId, Integer fromYear, Integer fromQuarter, Integer toYear, Integer toQuarter) {
+        int quarterCount = validateRange(fromYear, fromQuarter, toYear, toQuarter);
+        List<Object[]> rows = epicEffortRepository.sumEffortByQuarterAndTeamForOrganization(organizationId, fromYear, fromQuarter, toYear, toQuarter);
+        logger.debug("Capacity trend for organization {}: {} team quarters over {} quarters", organizationId, rows.size(), quarterCount);
+        return toColumns(rows, fromYear, fromQuarter, quarterCount);
+    }
+
+    // Number of quarters in the range, or IllegalArgumentException if it is not a valid range
+    private int validateRange(Integer fromYear, Integer fromQuarter, Integer toYear, Integer toQuarter) {
+        if (fromQuarter < 1 || fromQuarter > 4 || toQuarter < 1 || toQuarter > 4) {
+            throw new IllegalArgumentException("Quarter must be between 1 and 4");
+        }
+        int quarterCount = (toYear * 4 + toQuarter) - (fromYear * 4 + fromQuarter) + 1;
+        if (quarterCount < 1) {
+            throw new IllegalArgumentException("Range start must not be after range end");
+        }
+        if (quarterCount > MAX_RANGE_QUARTERS) {
+            throw new IllegalArgumentException("Range cannot span more than " + MAX_RANGE_QUARTERS + " quarters");
+        }
+        return quarterCount;
+    }
+
+    private Map<String, Object> toColumns(List<Object[]> rows, int fromYear, int fromQuarter, int quarterCount) {
+        int firstQuarter = fromYear * 4 + (fromQuarter - 1);
+        List<String> quarters = new ArrayList<>(quarterCount);
+        for (int i = 0; i < quarterCount; i++) {
+            int index = firstQuarter + i;
+            quarters.add(EpicEffortRatingService.quarterKey(index / 4, index % 4 + 1));
+        }
+
+        // Teams ordered by product and name, so columns are stable between calls
+        Map<Long, Object[]> teamsById = new HashMap<>();
+        for (Object[] row : rows) {
+            teamsById.putIfAbsent((Long) row[3], row);
+        }
+        List<Object[]> teams = new ArrayList<>(teamsById.values());
+        teams.sort(Comparator.comparing((Object[] team) -> (Long) team[5])
+                .thenComparing(team -> (String) team[4], Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(team -> (Long) team[3]));
+        Map<Long, Integer> teamIndex = new HashMap<>();
+        List<Long> teamIds = new ArrayList<>(teams.size());
+        List<String> teamNames = new ArrayList<>(teams.size());
+        List<Long> teamProductIds = new ArrayList<>(teams.size());
+        for (Object[] team : teams) {
+            teamIndex.put((Long) team[3], teamIds.size());
+            teamIds.add((Long) team[3]);
+            teamNames.add((String) team[4]);
+            teamProductIds.add((Long) team[5]);
+        }
+
+        Map<String, long[][]> demandByUnit = new TreeMap<>();
+        Map<String, long[][]> epicsByUnit = new TreeMap<>();
+        for (Object[] row : rows) {
+            String unit = (String) row[2];
+            int quarter = ((Integer) row[0]) * 4 + ((Integer) row[1] - 1) - firstQuarter;
+            int team = teamIndex.get((Long) row[3]);
+            demandByUnit.computeIfAbsent(unit, u -> new long[teams.size()][quarterCount])[team][quarter] +=
+                    row[6] != null ? ((Number) row[6]).longValue() : 0;
+            epicsByUnit.computeIfAbsent(unit, u -> new long[teams.size()][quarterCount])[team][quarter] +=
+                    ((Number) row[7]).longValue();
+        }
+
+        Map<String, Object> units = new LinkedHashMap<>();
+        for (Map.Entry<String, long[][]> entry : demandByUnit.entrySet()) {
+            long[][] demand = entry.getValue();
+            long[] totals = new long[quarterCount];
+            for (long[] teamDemand : demand) {
+                for (int quarter = 0; quarter < quarterCount; quarter++) {
+                    totals[quarter] += teamDemand[quarter];
+                }
+            }
+            Map<String, Object> unit = new LinkedHashMap<>();
+            unit.put("demand", demand);
+            unit.put("epics", epicsByUnit.get(entry.getKey()));
+            unit.put("totals", totals);
+            units.put(entry.getKey(), unit);
+        }
+
+        Map<String, Object> trend = new LinkedHashMap<>();
+        trend.put("quarters", quarters);
+        trend.put("teamIds", teamIds);
+        trend.put("teamNames", teamNames);
+        trend.put("teamProductIds", teamProductIds);
+        trend.put("units", units);
+        return trend;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.productapp.service;
+
+import com.productapp.entity.CapacityPlan;
+import com.productapp.entity.EffortRatingConfig;
+import com.productapp.entity.EpicEffortRating;
+import com.productapp.repository.CapacityPlanRepository;
+import com.productapp.repository.EffortRatingConfigRepository;
+import com.productapp.repository.EpicEffortRatingRepository;
+import com.productapp.repository.EpicEffortRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the materialized epic_effort_ratings table: the total effort of each epic of a
+ * capacity plan and its star rating under the product's effort rating config.
+ *
+ * Rows are refreshed when epic efforts are saved (only the touched epics), when a plan's effort
+ * unit changes (the whole plan) and when a rating config changes (every plan of the product),
+ * so reading the ratings of a quarter is a single indexed lookup.
+ */
+@Service
+public class EpicEffortRatingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EpicEffortRatingService.class);
+
+    @Autowired
+    private EpicEffortRatingRepository epicEffortRatingRepository;
+
+    @Autowired
+    private EpicEffortRepository epicEffortRepository;
+
+    @Autowired
+    private EffortRatingConfigRepository effortRatingConfigRepository;
+
+    @Autowired
+    private CapacityPlanRepository capacityPlanRepository;
+
+    /**
+     * Star ratings of the rated epics of a quarter, keyed by epic ID.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getStarRatings(Long productId, Integer year, Integer quarter) {
+        Map<String, Integer> ratings = new HashMap<>();
+        for (EpicEffortRating rating : epicEffortRatingRepository.findRatedByProductIdAndYearAndQuarter(productId, year, quarter)) {
+            ratings.put(rating.getEpicId(), rating.getStarRating());
+        }
+        return ratings;
+    }
+
+    /**
+     * Star ratings of the rated epics of every quarter from {@code fromYear} to {@code toYear},
+     * keyed by {@link #quarterKey} and then by epic ID.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Integer>> getStarRatingsByQuarter(Long productId, Integer fromYear, Integer toYear) {
+        Map<String, Map<String, Integer>> ratingsByQuarter = new HashMap<>();
+        for (Object[] row : epicEffortRatingRepository.findRatedByProductIdAndYearBetween(productId, fromYear, toYear)) {
+            ratingsByQuarter.computeIfAbsent(quarterKey((Integer) row[0], (Integer) row[1]), key -> new HashMap<>())
+                    .put((String) row[2], (Integer) row[3]);
+        }
+        return ratingsByQuarter;
+    }
+
+    public static String quarterKey(Integer year, Integer quarter) {
+        return year + "-Q" + quarter;
+    }
+
+    /**
+     * Recompute the totals and ratings of the given epics after their efforts changed.
+     */
+    @Transactional
+    public void refreshEpics(CapacityPlan capacityPlan, Collection<String> epicIds) {
+        if (epicIds.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> totals = toTotals(epicEffortRepository.sumEffortByEpic(capacityPlan.getId(), epicIds));
+        List<EpicEffortRating> existing = epicEffortRatingRepository.findByCapacityPlanIdAndEpicIdIn(capacityPlan.getId(), epicIds);
+        apply(capacityPlan, selectConfig(capacityPlan, effortRatingConfigRepository.findByProductId(capacityPlan.getProductId())),
+                totals, existing, epicIds);
+    }
+
+    /**
+     * Recompute every epic of a plan, e.g. after its effort unit changed.
+     */
+    @Transactional
+    public void refreshPlan(CapacityPlan capacityPlan) {
+        Map<String, Integer> totals = toTotals(epicEffortRepository.sumEffortByEpic(capacityPlan.getId()));
+        List<EpicEffortRating> existing = epicEffortRatingRepository.findByCapacityPlanId(capacityPlan.getId());
+        apply(capacityPlan, selectConfig(capacityPlan, effortRatingConfigRepository.findByProductId(capacityPlan.getProductId())),
+                totals, existing, totals.keySet());
+    }
+
+    /**
+     * Re-rate every stored total of a product after its rating configs changed. Totals are unchanged,
+     * so no efforts are read.
+     */
+    @Transactional
+    public void refreshProduct(Long productId) {
+        List<EffortRatingConfig> configs = effortRatingConfigRepository.findByProductId(productId);
+        Map<Long, CapacityPlan> plans = capacityPlanRepository.findByProductIdOrderByYearDescQuarterDesc(productId).stream()
+                .collect(Collectors.toMap(CapacityPlan::getId, Function.identity()));
+
+        List<EpicEffortRating> changed = new ArrayList<>();
+        for (EpicEffortRating rating : epicEffortRatingRepository.findByProductId(productId)) {
+            CapacityPlan plan = plans.get(rating.getCapacityPlanId());
+            Integer starRating = plan != null ? calculateStarRating(rating.getTotalEffort(), selectConfig(plan, configs)) : null;
+            if (!Objects.equals(starRating, rating.getStarRating())) {
+                rating.setStarRating(starRating);
+                changed.add(rating);
+            }
+        }
+        epicEffortRatingRepository.saveAll(changed);
+        logger.info("Re-rated {} epic effort ratings for product {}", changed.size(), productId);
+    }
+
+    /**
+     * Calculate star rating based on effort value and configuration. Returns null when there is no
+     * effort to rate or no configuration.
+     */
+    public static Integer calculateStarRating(Integer effortValue, EffortRatingConfig config) {
+        if (config == null || effortValue == null || effortValue <= 0) {
+            return null;
+        }
+        if (effortValue <= config.getStar1Max()) {
+            return 1;
+        } else if (effortValue <= config.getStar2Max()) {
+            return 2;
+        } else if (effortValue <= config.getStar3Max()) {
+            return 3;
+        } else if (effortValue <= config.getStar4Max()) {
+            return 4;
+        } else {
+            return 5;
+        }
+    }
+
+    // Choose effort rating config based on capacity plan's effort unit, falling back to the first config
+    static EffortRatingConfig selectConfig(CapacityPlan capacityPlan, List<EffortRatingConfig> configs) {
+        if (configs.isEmpty()) {
+            return null;
+        }
+        return configs.stream()
+                .filter(c -> c.getUnitType().equals(capacityPlan.getEffortUnit()))
+                .findFirst()
+                .orElse(configs.get(0));
+    }
+
+    private void apply(CapacityPlan capacityPlan, EffortRatingConfig config, Map<String, Integer> totals,
+                       List<EpicEffortRating> existing, Collection<String> epicIds) {
+        Map<String, EpicEffortRating> existingByEpicId = new HashMap<>();
+        for (EpicEffortRating rating : existing) {
+            existingByEpicId.put(rating.getEpicId(), rating);
+        }
+
+        List<EpicEffortRating> toSave = new ArrayList<>();
+        List<EpicEffortRating> toDelete = new ArrayList<>();
+        for (String epicId : epicIds) {
+            Integer total = totals.get(epicId);
+            EpicEffortRating rating = existingByEpicId.remove(epicId);
+            if (total == null) {
+                // No efforts left for this epic
+                if (rating != null) {
+                    toDelete.add(rating);
+                }
+                continue;
+            }
+            if (rating == null) {
+                rating = new EpicEffortRating(capacityPlan.getId(), epicId);
+            }
+            Integer starRating = calculateStarRating(total, config);
+            if (rating.getId() == null || !total.equals(rating.getTotalEffort()) || !Objects.equals(starRating, rating.getStarRating())) {
+                rating.setTotalEffort(total);
+                rating.setStarRating(starRating);
+                toSave.add(rating);
+            }
+        }
+        // Rows of epics whose efforts no longer exist at all
+        toDelete.addAll(existingByEpicId.values());
+
+        if (!toDelete.isEmpty()) {
+            epicEffortRatingRepository.deleteAllInBatch(toDelete);
+        }
+        epicEffortRatingRepository.saveAll(toSave);
+        logger.debug("Refreshed epic effort ratings for capacity plan {}: {} saved, {} removed",
+                capacityPlan.getId(), toSave.size(), toDelete.size());
+    }
+
+    private Map<String, Integer> toTotals(List<Object[]> rows) {
+        Map<String, Integer> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            totals.put((String) row[0], row[1] != null ? ((Number) row[1]).intValue() : 0);
+        }
+        return totals;
+    }
+}
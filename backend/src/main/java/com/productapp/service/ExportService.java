@@ -0,0 +1,261 @@
+package com.productapp.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams roadmap items, backlog epics and epic efforts of a product or an organization as CSV or
+ * JSON.
+ *
+ * Rows are read through a forward-only, read-only cursor (row-by-row streaming on MySQL) and written
+ * to the response as they arrive, optionally through gzip, so memory use does not depend on the
+ * number of rows exported.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    // Rows per round trip on drivers that cannot stream row by row
+    private static final int CURSOR_FETCH_SIZE = 1000;
+
+    public enum Dataset {
+        ROADMAP_ITEMS("roadmap-items",
+                "SELECT p.id AS product_id, p.product_name, q.year, q.quarter, ri.epic_id, ri.epic_name, ri.priority, ri.status, " +
+                "ri.estimated_effort, ri.assigned_team, ri.reach, ri.impact, ri.confidence, ri.rice_score, ri.effort_rating, " +
+                "ri.start_date, ri.end_date, ri.initiative_name, ri.theme_name, ri.published, ri.published_date " +
+                "FROM roadmap_items ri JOIN quarterly_roadmap q ON q.id = ri.roadmap_id JOIN products p ON p.id = q.product_id " +
+                "WHERE %s ORDER BY p.id, q.year, q.quarter, ri.id"),
+        BACKLOG_EPICS("backlog-epics",
+                "SELECT p.id AS product_id, p.product_name, be.epic_id, be.epic_name, be.epic_description, be.theme_name, " +
+                "be.initiative_name, be.track, be.created_at, be.updated_at " +
+                "FROM backlog_epics be JOIN products p ON p.id = be.product_id " +
+                "WHERE %s ORDER BY p.id, be.id"),
+        EPIC_EFFORTS("epic-efforts",
+                "SELECT p.id AS product_id, p.product_name, cp.year, cp.quarter, cp.effort_unit, ee.epic_id, ee.epic_name, " +
+                "t.name AS team_name, ee.effort_days, ee.notes " +
+                "FROM epic_efforts ee JOIN capacity_plans cp ON cp.id = ee.capacity_plan_id " +
+                "JOIN teams t ON t.id = ee.team_id JOIN products p ON p.id = cp.product_id " +
+                "WHERE %s ORDER BY p.id, cp.year, cp.quarter, ee.id");
+
+        private final String name;
+        private final String sql;
+
+        Dataset(String name, String sql) {
+            this.name = name;
+            this.sql = sql;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static Dataset fromName(String name) {
+            for (Dataset dataset : values()) {
+                if (dataset.name.equals(name)) {
+                    return dataset;
+                }
+            }
+            throw new IllegalArgumentException("Unknown export: " + name);
+        }
+    }
+
+    public enum Scope {
+        PRODUCT("p.id = ?"),
+        ORGANIZATION("p.organization_id = ?");
+
+        private final String condition;
+
+        Scope(String condition) {
+            this.condition = condition;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Write a dataset to {@code out} as CSV or JSON, gzipped if requested. Returns the number of rows.
+     */
+    public long export(Dataset dataset, Scope scope, Long scopeId, boolean json, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        long rows = json ? writeJson(dataset, scope, scopeId, target) : writeCsv(dataset, scope, scopeId, target);
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+        target.flush();
+        logger.info("Exported {} {} rows for {} {}", rows, dataset.getName(), scope.name().toLowerCase(), scopeId);
+        return rows;
+    }
+
+    private long writeCsv(Dataset dataset, Scope scope, Long scopeId, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long[] rows = {0};
+        // The header comes from the result's columns, so an export without rows still has one
+        stream(dataset, scope, scopeId, meta -> {
+            try {
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    writer.write(i > 1 ? "," : "");
+                    writer.write(meta.getColumnLabel(i));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columns = meta.getColumnCount();
+            try {
+                for (int i = 1; i <= columns; i++) {
+                    writer.write(i > 1 ? "," : "");
+                    writeCsvValue(writer, rs.getString(i), isText(meta.getColumnType(i)));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows[0];
+    }
+
+    private long writeJson(Dataset dataset, Scope scope, Long scopeId, OutputStream out) throws IOException {
+        long[] rows = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // The response stream is closed by the container, not by the generator
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            stream(dataset, scope, scopeId, meta -> { }, rs -> {
+                ResultSetMetaData meta = rs.getMetaData();
+                try {
+                    generator.writeStartObject();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        generator.writeFieldName(meta.getColumnLabel(i));
+                        writeJsonValue(generator, rs, i, meta.getColumnType(i));
+                    }
+                    generator.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+            generator.writeEndArray();
+        }
+        return rows[0];
+    }
+
+    // Called once with the columns of the result, before the first row and also when there are no rows
+    private interface ColumnsHandler {
+        void processColumns(ResultSetMetaData meta) throws SQLException;
+    }
+
+    private void stream(Dataset dataset, Scope scope, Long scopeId, ColumnsHandler columnsHandler, RowCallbackHandler rowHandler) {
+        String sql = String.format(dataset.sql, scope.condition);
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL only streams instead of buffering the whole result when the fetch size is Integer.MIN_VALUE
+            boolean mysql = con.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            statement.setFetchSize(mysql ? Integer.MIN_VALUE : CURSOR_FETCH_SIZE);
+            statement.setLong(1, scopeId);
+            return statement;
+        }, (ResultSetExtractor<Void>) rs -> {
+            columnsHandler.processColumns(rs.getMetaData());
+            while (rs.next()) {
+                rowHandler.processRow(rs);
+            }
+            return null;
+        });
+    }
+
+    private void writeCsvValue(Writer writer, String value, boolean text) throws IOException {
+        if (value == null) {
+            return;
+        }
+        // Spreadsheets run text starting with these as a formula; a leading quote keeps it text.
+        // Numbers are left alone so negative values stay numeric.
+        if (text && !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    private static boolean isText(int type) {
+        return switch (type) {
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR, Types.CLOB, Types.NCLOB -> true;
+            default -> false;
+        };
+    }
+
+    private void writeJsonValue(JsonGenerator generator, ResultSet rs, int column, int type) throws SQLException, IOException {
+        switch (type) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> {
+                long value = rs.getLong(column);
+                if (rs.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(value);
+                }
+            }
+            case Types.FLOAT, Types.REAL, Types.DOUBLE, Types.DECIMAL, Types.NUMERIC -> {
+                double value = rs.getDouble(column);
+                if (rs.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(value);
+                }
+            }
+            case Types.BIT, Types.BOOLEAN -> {
+                boolean value = rs.getBoolean(column);
+                if (rs.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeBoolean(value);
+                }
+            }
+            default -> {
+                String value = rs.getString(column);
+                if (value == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(value);
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.productapp.service;
+
+import com.productapp.event.KanbanBoardEvent;
+import com.productapp.repository.ArchivedKanbanItemRepository;
+import com.productapp.repository.KanbanItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves Kanban cards that have been done for longer than the retention period into
+ * kanban_items_archive.
+ *
+ * Cards are moved in batches of {@link #BATCH_SIZE}, each batch copied and deleted in its own short
+ * transaction, so a large backlog of finished cards never holds locks for long.
+ */
+@Service
+public class KanbanArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KanbanArchiveService.class);
+
+    static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private KanbanItemRepository kanbanItemRepository;
+
+    @Autowired
+    private ArchivedKanbanItemRepository archivedKanbanItemRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${kanban.archive.after-days:90}")
+    private int defaultAfterDays;
+
+    public int getDefaultAfterDays() {
+        return defaultAfterDays;
+    }
+
+    @Scheduled(cron = "${kanban.archive.cron:0 30 3 * * *}")
+    public void archiveScheduled() {
+        if (defaultAfterDays <= 0) {
+            return;
+        }
+        try {
+            archiveCompleted(null, defaultAfterDays);
+        } catch (Exception e) {
+            logger.error("Scheduled kanban archive failed", e);
+        }
+    }
+
+    /**
+     * Archive cards that entered DONE more than {@code afterDays} days ago, for one product or for
+     * all products when {@code productId} is null. Returns the number of cards archived.
+     */
+    public int archiveCompleted(Long productId, int afterDays) {
+        if (afterDays < 0) {
+            throw new IllegalArgumentException("Retention days must be 0 or greater");
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int total = 0;
+        int archived;
+        do {
+            archived = transactionTemplate.execute(tx -> archiveBatch(productId, cutoff));
+            total += archived;
+        } while (archived == BATCH_SIZE);
+
+        if (total > 0) {
+            logger.info("Archived {} done kanban items older than {} days{}", total, afterDays,
+                    productId != null ? " for product " + productId : "");
+        }
+        return total;
+    }
+
+    private int archiveBatch(Long productId, LocalDateTime cutoff) {
+        List<Object[]> rows = productId != null
+                ? kanbanItemRepository.findArchivableItemsByProductId(productId, cutoff, BATCH_SIZE)
+                : kanbanItemRepository.findArchivableItems(cutoff, BATCH_SIZE);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            ids.add(((Number) row[0]).longValue());
+            if (row[1] != null) {
+                productIds.add(((Number) row[1]).longValue());
+            }
+        }
+
+        archivedKanbanItemRepository.copyFromKanbanItems(ids);
+        kanbanItemRepository.deleteByIdIn(ids);
+
+        for (Long archivedProductId : productIds) {
+            eventPublisher.publishEvent(new KanbanBoardEvent(archivedProductId, KanbanBoardEvent.Type.BOARD_CHANGED,
+                    Map.of("status", KanbanBoardService.DONE)));
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,85 @@
+package com.productapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.productapp.dto.KanbanItemResponse;
+import com.productapp.entity.Product;
+import com.productapp.event.KanbanBoardEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of assembled Kanban boards, keyed by product ID.
+ *
+ * Entries are evicted by size and TTL, and invalidated once a {@link KanbanBoardEvent} for the
+ * product has committed. An invalidation that races an in-flight load waits for the load to
+ * finish and then discards it, so a board read before the commit is never kept afterwards.
+ */
+@Service
+public class KanbanBoardCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(KanbanBoardCache.class);
+
+    @Autowired
+    private KanbanBoardService kanbanBoardService;
+
+    private final Cache<Long, Map<String, List<KanbanItemResponse>>> boards;
+
+    public KanbanBoardCache(@Value("${kanban.board-cache.max-size:500}") long maxSize,
+                            @Value("${kanban.board-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.boards = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Map<String, List<KanbanItemResponse>> getBoard(Product product) {
+        return boards.get(product.getId(), productId -> freeze(kanbanBoardService.getBoard(product)));
+    }
+
+    public void evict(Long productId) {
+        boards.invalidate(productId);
+        logger.debug("Evicted cached kanban board for product {}", productId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardEvent(KanbanBoardEvent event) {
+        if (event.getType() != KanbanBoardEvent.Type.RESYNC) {
+            evict(event.getProductId());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = boards.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", boards.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadCount", stats.loadCount());
+        result.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    // Cached boards are shared between requests, so callers get read-only views
+    private Map<String, List<KanbanItemResponse>> freeze(Map<String, List<KanbanItemResponse>> board) {
+        Map<String, List<KanbanItemResponse>> frozen = new LinkedHashMap<>();
+        for (Map.Entry<String, List<KanbanItemResponse>> column : board.entrySet()) {
+            frozen.put(column.getKey(), Collections.unmodifiableList(column.getValue()));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+}
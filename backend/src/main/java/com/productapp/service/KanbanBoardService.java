@@ -0,0 +1,168 @@
+package com.productapp.service;
+
+import com.productapp.dto.KanbanColumnPageResponse;
+import com.productapp.dto.KanbanItemResponse;
+import com.productapp.entity.KanbanItem;
+import com.productapp.entity.Product;
+import com.productapp.entity.RoadmapItem;
+import com.productapp.repository.KanbanItemRepository;
+import com.productapp.repository.RoadmapItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assembles the Kanban board for a product.
+ *
+ * The board is built from a fixed number of set-based reads - the active columns, the first
+ * page of DONE, the epics that have left COMMITTED and all published roadmap items - which are
+ * joined in memory on epicId. The number of queries is therefore independent of the number of
+ * cards on the board.
+ *
+ * DONE only grows, so the board carries its first {@link #BOARD_DONE_LIMIT} cards; the rest is
+ * read with {@link #getColumnPage}. Positions are the index of each card in its rank-ordered column.
+ */
+@Service
+public class KanbanBoardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KanbanBoardService.class);
+
+    public static final String COMMITTED = "COMMITTED";
+    public static final String TODO = "TODO";
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String DONE = "DONE";
+    public static final List<String> COLUMNS = List.of(COMMITTED, TODO, IN_PROGRESS, DONE);
+
+    public static final String ROADMAP_ITEM_LABEL = "roadmap-item";
+
+    public static final int BOARD_DONE_LIMIT = 100;
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final List<String> ACTIVE_COLUMNS = List.of(COMMITTED, TODO, IN_PROGRESS);
+
+    @Autowired
+    private KanbanItemRepository kanbanItemRepository;
+
+    @Autowired
+    private RoadmapItemRepository roadmapItemRepository;
+
+    @Transactional(readOnly = true)
+    public Map<String, List<KanbanItemResponse>> getBoard(Product product) {
+        List<KanbanItem> items = new ArrayList<>(kanbanItemRepository.findColumnsOrderByRank(product, ACTIVE_COLUMNS));
+        items.addAll(kanbanItemRepository.findColumnFirstPage(product.getId(), DONE, BOARD_DONE_LIMIT));
+        List<RoadmapItem> publishedRoadmapItems = roadmapItemRepository.findPublishedByProductId(product.getId());
+
+        // Epics with a card outside COMMITTED, wherever that card is, so roadmap items can be matched without a lookup per item
+        Set<String> progressedEpicIds = new HashSet<>(kanbanItemRepository.findProgressedEpicIds(product.getId()));
+
+        Map<String, List<KanbanItemResponse>> groupedItems = new LinkedHashMap<>();
+        for (String column : COLUMNS) {
+            groupedItems.put(column, new ArrayList<>());
+        }
+
+        // Published roadmap items appear in COMMITTED until a tracking item moves them elsewhere
+        for (RoadmapItem roadmapItem : publishedRoadmapItems) {
+            if (!progressedEpicIds.contains(roadmapItem.getEpicId())) {
+                groupedItems.get(COMMITTED).add(toKanbanCard(roadmapItem));
+            }
+        }
+
+        for (KanbanItem item : items) {
+            // Skip COMMITTED tracking items, the roadmap item already represents them
+            if (isTrackingItem(item) && COMMITTED.equals(item.getStatus())) {
+                continue;
+            }
+            groupedItems.computeIfAbsent(item.getStatus(), k -> new ArrayList<>()).add(new KanbanItemResponse(item));
+        }
+
+        // Cards are ordered by rank key; expose their index as the position the board UI works with
+        for (List<KanbanItemResponse> columnItems : groupedItems.values()) {
+            for (int i = 0; i < columnItems.size(); i++) {
+                columnItems.get(i).setPosition(i);
+            }
+        }
+
+        logger.debug("Assembled kanban board for product {} from {} kanban items and {} published roadmap items",
+                product.getId(), items.size(), publishedRoadmapItems.size());
+        return groupedItems;
+    }
+
+    /**
+     * Read one page of a column in rank order, continuing after {@code after} - the cursor returned
+     * with the previous page ("rankKey:id:position", position being that of the next card), or
+     * "rankKey:id" of the last card already shown, in which case the positions are counted. COMMITTED
+     * is not paged because its roadmap cards have no rank; it is always complete on the board.
+     * Every card has a rank key (V26 and V38 keyed older cards, moves key the rest), so paging only reads.
+     */
+    @Transactional(readOnly = true)
+    public KanbanColumnPageResponse getColumnPage(Product product, String column, String after, int limit) {
+        if (!COLUMNS.contains(column) || COMMITTED.equals(column)) {
+            throw new IllegalArgumentException("Column cannot be paged: " + column);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Fetch one extra card to learn whether another page follows
+        List<KanbanItem> page;
+        long offset = 0;
+        if (after == null || after.isEmpty()) {
+            page = kanbanItemRepository.findColumnFirstPage(product.getId(), column, pageSize + 1);
+        } else {
+            String[] parts = after.split(":");
+            if ((parts.length != 2 && parts.length != 3) || parts[0].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+            String afterRankKey = parts[0];
+            Long afterId;
+            try {
+                afterId = Long.parseLong(parts[1]);
+                offset = parts.length == 3 ? Long.parseLong(parts[2]) : -1;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+            page = kanbanItemRepository.findColumnPageAfter(product.getId(), column, afterRankKey, afterId, pageSize + 1);
+            if (offset < 0) {
+                offset = kanbanItemRepository.countColumnUpTo(product.getId(), column, afterRankKey, afterId);
+            }
+        }
+
+        boolean hasMore = page.size() > pageSize;
+        List<KanbanItemResponse> items = new ArrayList<>(Math.min(page.size(), pageSize));
+        for (int i = 0; i < page.size() && i < pageSize; i++) {
+            KanbanItemResponse card = new KanbanItemResponse(page.get(i));
+            card.setPosition((int) (offset + i));
+            items.add(card);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            KanbanItemResponse last = items.get(items.size() - 1);
+            nextCursor = last.getRankKey() + ":" + last.getId() + ":" + (offset + items.size());
+        }
+        return new KanbanColumnPageResponse(column, items, nextCursor);
+    }
+
+    public static boolean isTrackingItem(KanbanItem item) {
+        return item.getEpicId() != null && ROADMAP_ITEM_LABEL.equals(item.getLabels());
+    }
+
+    private KanbanItemResponse toKanbanCard(RoadmapItem roadmapItem) {
+        KanbanItemResponse card = new KanbanItemResponse();
+        card.setId(roadmapItem.getId() * -1); // Negative ID to distinguish from regular kanban items
+        card.setTitle(roadmapItem.getEpicName());
+        card.setDescription(roadmapItem.getEpicDescription());
+        card.setStatus(COMMITTED);
+        card.setPriority(roadmapItem.getPriority());
+        card.setAssignee(roadmapItem.getAssignedTeam());
+        card.setDueDate(roadmapItem.getEndDate() != null ? roadmapItem.getEndDate().atStartOfDay() : null);
+        card.setEpicId(roadmapItem.getEpicId());
+        card.setLabels(ROADMAP_ITEM_LABEL);
+        return card;
+    }
+}
@@ -0,0 +1,224 @@
+package com.productapp.service;
+
+import com.productapp.event.KanbanBoardEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes Kanban board changes to subscribed clients over server-sent events.
+ *
+ * Publishing never blocks: each subscriber has a bounded queue and its own drain task, so a client
+ * whose socket stops accepting writes holds up only its own stream. When a slow client's queue fills
+ * up its pending deltas are dropped and replaced by a single RESYNC event, telling it to refetch the
+ * board instead of replaying every change. A client stuck in a single send for longer than
+ * {@link #SEND_TIMEOUT_MS} is disconnected; its EventSource reconnects and refetches the board.
+ */
+@Service
+public class KanbanEventStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KanbanEventStreamService.class);
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int QUEUE_CAPACITY = 256;
+    private static final int MAX_SUBSCRIBERS_PER_PRODUCT = 200;
+    private static final long SEND_TIMEOUT_MS = 10 * 1000L;
+
+    private final Map<Long, List<Subscriber>> subscribersByProduct = new ConcurrentHashMap<>();
+    private final AtomicLong eventSequence = new AtomicLong();
+    private final AtomicInteger dispatcherThreadCount = new AtomicInteger();
+    // Threads are only held while a drain has events to send, and a blocked send for at most SEND_TIMEOUT_MS
+    private final ExecutorService dispatcher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "kanban-sse-" + dispatcherThreadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SseEmitter subscribe(Long productId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(productId, emitter);
+        // Check the cap and add under the map's per-key lock, so concurrent subscribes cannot overshoot it
+        List<Subscriber> subscribers = subscribersByProduct.compute(productId, (id, existing) -> {
+            List<Subscriber> list = existing != null ? existing : new CopyOnWriteArrayList<>();
+            if (list.size() >= MAX_SUBSCRIBERS_PER_PRODUCT) {
+                throw new IllegalStateException("Too many open board streams for product " + productId);
+            }
+            list.add(subscriber);
+            return list;
+        });
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        logger.debug("Opened kanban event stream for product {} ({} subscribers)", productId, subscribers.size());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardEvent(KanbanBoardEvent event) {
+        List<Subscriber> subscribers = subscribersByProduct.get(event.getProductId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        // Built once and shared by every subscriber of the product
+        Set<ResponseBodyEmitter.DataWithMediaType> sseEvent = SseEmitter.event()
+                .id(Long.toString(eventSequence.incrementAndGet()))
+                .name(event.getType().name())
+                .data(event.getPayload() != null ? event.getPayload() : Map.of(), MediaType.APPLICATION_JSON)
+                .build();
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(sseEvent);
+        }
+    }
+
+    @Scheduled(fixedDelay = 25000)
+    public void sendHeartbeats() {
+        // Keeps idle connections open through proxies that drop silent streams
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        for (List<Subscriber> subscribers : subscribersByProduct.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(heartbeat);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (List<Subscriber> subscribers : subscribersByProduct.values()) {
+            for (Subscriber subscriber : subscribers) {
+                long sendStartedAt = subscriber.sendStartedAt;
+                if (sendStartedAt != 0 && now - sendStartedAt > TimeUnit.MILLISECONDS.toNanos(SEND_TIMEOUT_MS)) {
+                    logger.warn("Kanban event stream for product {} stalled for over {} ms, disconnecting",
+                            subscriber.productId, SEND_TIMEOUT_MS);
+                    subscriber.close(new TimeoutException("Send timed out"));
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribersByProduct.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    private void remove(Subscriber subscriber) {
+        // Products without open streams are dropped from the map rather than kept with an empty list
+        subscribersByProduct.computeIfPresent(subscriber.productId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private class Subscriber {
+        private final Long productId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // System.nanoTime() when the send in progress started, 0 when not sending
+        private volatile long sendStartedAt;
+        private Thread drainThread;
+
+        Subscriber(Long productId, SseEmitter emitter) {
+            this.productId = productId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Client cannot keep up: drop its backlog and ask it to resync
+                queue.clear();
+                queue.offer(SseEmitter.event()
+                        .id(Long.toString(eventSequence.incrementAndGet()))
+                        .name(KanbanBoardEvent.Type.RESYNC.name())
+                        .data(Map.of("productId", productId), MediaType.APPLICATION_JSON)
+                        .build());
+                logger.warn("Kanban event stream for product {} overflowed, sending resync", productId);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!closed.get() && draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            synchronized (this) {
+                drainThread = Thread.currentThread();
+            }
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    sendStartedAt = System.nanoTime();
+                    emitter.send(event);
+                    sendStartedAt = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks may not fire for a half-closed connection
+                close(e);
+                return;
+            } finally {
+                sendStartedAt = 0;
+                // Under the lock close() interrupts with, so an interrupt meant for this drain is cleared
+                // here and never reaches the pool thread's next task
+                synchronized (this) {
+                    drainThread = null;
+                    Thread.interrupted();
+                }
+                draining.set(false);
+            }
+            // An event may have arrived between the last poll and releasing the flag
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void close(Throwable cause) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            remove(this);
+            queue.clear();
+            // Unblocks a send stuck on the socket, where the servlet container allows it
+            synchronized (this) {
+                if (drainThread != null) {
+                    drainThread.interrupt();
+                }
+            }
+            // On the pool: the emitter's monitor is held by a send still stuck, and the watchdog must not wait for it
+            dispatcher.execute(() -> emitter.completeWithError(cause));
+        }
+    }
+}
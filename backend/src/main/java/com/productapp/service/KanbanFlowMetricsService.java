@@ -0,0 +1,182 @@
+package com.productapp.service;
+
+import com.productapp.entity.KanbanFlowDaily;
+import com.productapp.entity.KanbanItem;
+import com.productapp.entity.KanbanStatusTransition;
+import com.productapp.entity.KanbanWipCounter;
+import com.productapp.repository.KanbanFlowDailyRepository;
+import com.productapp.repository.KanbanStatusTransitionRepository;
+import com.productapp.repository.KanbanWipCounterRepository;
+import com.productapp.util.CycleTimeSketch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Kanban flow metrics - throughput, WIP and cycle time - maintained incrementally as cards move.
+ *
+ * Every status change is appended to kanban_status_transitions. In the same transaction the
+ * per-column WIP counters are adjusted in place and cards reaching DONE are added to their day's
+ * throughput count and cycle-time sketch. Reading the metrics touches one row per day of the
+ * requested window and one per column, however long the history is.
+ *
+ * WIP counts the started columns, TODO and IN_PROGRESS. DONE is measured as throughput instead, and
+ * COMMITTED is left out: it is the backlog of published roadmap work, most of which has no card until
+ * its first move, so a per-column counter cannot see it. A card's first move out of COMMITTED is still
+ * logged as a transition from COMMITTED.
+ */
+@Service
+public class KanbanFlowMetricsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KanbanFlowMetricsService.class);
+
+    public static final int MAX_WINDOW_DAYS = 365;
+
+    @Autowired
+    private KanbanStatusTransitionRepository transitionRepository;
+
+    @Autowired
+    private KanbanFlowDailyRepository flowDailyRepository;
+
+    @Autowired
+    private KanbanWipCounterRepository wipCounterRepository;
+
+    /**
+     * Record the status changes of saved cards, given the status each card had before. Cards whose
+     * status did not change are ignored. Must run in the transaction that saved the cards.
+     */
+    @Transactional
+    public void recordTransitions(Long productId, Map<KanbanItem, String> previousStatuses) {
+        LocalDateTime now = LocalDateTime.now();
+        List<KanbanStatusTransition> transitions = new ArrayList<>();
+        Map<String, Integer> wipDeltas = new TreeMap<>();
+        CycleTimeSketch completedToday = new CycleTimeSketch();
+
+        for (Map.Entry<KanbanItem, String> entry : previousStatuses.entrySet()) {
+            KanbanItem item = entry.getKey();
+            String fromStatus = entry.getValue();
+            String toStatus = item.getStatus();
+            if (toStatus == null || toStatus.equals(fromStatus)) {
+                continue;
+            }
+
+            transitions.add(new KanbanStatusTransition(productId, item.getId(), fromStatus, toStatus, now));
+            if (isWip(fromStatus)) {
+                wipDeltas.merge(fromStatus, -1, Integer::sum);
+            }
+            if (isWip(toStatus)) {
+                wipDeltas.merge(toStatus, 1, Integer::sum);
+            }
+            if (KanbanBoardService.DONE.equals(toStatus)) {
+                completedToday.add(cycleTimeHours(item, now));
+            }
+        }
+        if (transitions.isEmpty()) {
+            return;
+        }
+
+        transitionRepository.saveAll(transitions);
+        // Adjust counters in a fixed order so concurrent moves cannot deadlock on them
+        for (Map.Entry<String, Integer> delta : wipDeltas.entrySet()) {
+            if (delta.getValue() != 0) {
+                wipCounterRepository.adjust(productId, delta.getKey(), delta.getValue());
+            }
+        }
+        if (completedToday.getCount() > 0) {
+            addCompletions(productId, now.toLocalDate(), completedToday);
+        }
+        logger.debug("Recorded {} kanban transitions for product {}", transitions.size(), productId);
+    }
+
+    /**
+     * Account for a card leaving the board without a transition, e.g. when it is deleted.
+     */
+    @Transactional
+    public void recordRemoval(Long productId, String status) {
+        if (isWip(status)) {
+            wipCounterRepository.adjust(productId, status, -1);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getMetrics(Long productId, int days) {
+        int window = Math.max(1, Math.min(days, MAX_WINDOW_DAYS));
+        LocalDate fromDay = LocalDate.now().minusDays(window - 1);
+
+        List<Map<String, Object>> throughput = new ArrayList<>();
+        CycleTimeSketch cycleTimes = new CycleTimeSketch();
+        long completed = 0;
+        for (KanbanFlowDaily day : flowDailyRepository.findByProductIdAndDayGreaterThanEqualOrderByDayAsc(productId, fromDay)) {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("day", day.getDay());
+            point.put("completed", day.getCompletedCount());
+            throughput.add(point);
+            completed += day.getCompletedCount();
+            cycleTimes.merge(CycleTimeSketch.decode(day.getCycleTimeSketch()));
+        }
+
+        Map<String, Integer> wip = new LinkedHashMap<>();
+        for (String column : KanbanBoardService.COLUMNS) {
+            if (isWip(column)) {
+                wip.put(column, 0);
+            }
+        }
+        for (KanbanWipCounter counter : wipCounterRepository.findByProductId(productId)) {
+            // COMMITTED counters seeded by V29 are no longer maintained
+            if (isWip(counter.getStatus())) {
+                wip.put(counter.getStatus(), counter.getItemCount());
+            }
+        }
+
+        Map<String, Object> cycleTime = new LinkedHashMap<>();
+        cycleTime.put("count", cycleTimes.getCount());
+        cycleTime.put("p50Hours", cycleTimes.quantile(0.50));
+        cycleTime.put("p85Hours", cycleTimes.quantile(0.85));
+        cycleTime.put("p95Hours", cycleTimes.quantile(0.95));
+        cycleTime.put("relativeAccuracy", CycleTimeSketch.RELATIVE_ACCURACY);
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("days", window);
+        metrics.put("completed", completed);
+        metrics.put("throughput", throughput);
+        metrics.put("wip", wip);
+        metrics.put("cycleTime", cycleTime);
+        return metrics;
+    }
+
+    private void addCompletions(Long productId, LocalDate day, CycleTimeSketch completions) {
+        flowDailyRepository.ensureDay(productId, day);
+        KanbanFlowDaily flowDay = flowDailyRepository.findForUpdate(productId, day)
+                .orElseThrow(() -> new IllegalStateException("Flow metrics row missing for product " + productId + " on " + day));
+        CycleTimeSketch sketch = CycleTimeSketch.decode(flowDay.getCycleTimeSketch());
+        sketch.merge(completions);
+        flowDay.setCompletedCount(flowDay.getCompletedCount() + (int) completions.getCount());
+        flowDay.setCycleTimeSketch(sketch.encode());
+        flowDailyRepository.save(flowDay);
+    }
+
+    private static boolean isWip(String status) {
+        return status != null && !KanbanBoardService.COMMITTED.equals(status) && !KanbanBoardService.DONE.equals(status);
+    }
+
+    // From the first move into IN_PROGRESS, or from creation for cards that skipped it
+    private double cycleTimeHours(KanbanItem item, LocalDateTime now) {
+        LocalDateTime start = item.getStartedAt() != null ? item.getStartedAt() : item.getCreatedAt();
+        LocalDateTime end = item.getCompletedAt() != null ? item.getCompletedAt() : now;
+        if (start == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(start, end).toSeconds()) / 3600.0;
+    }
+}
@@ -0,0 +1,319 @@
+package com.productapp.service;
+
+import com.productapp.dto.KanbanItemResponse;
+import com.productapp.dto.KanbanMoveRequest;
+import com.productapp.entity.KanbanItem;
+import com.productapp.entity.Product;
+import com.productapp.entity.RoadmapItem;
+import com.productapp.event.KanbanBoardEvent;
+import com.productapp.exception.ResourceNotFoundException;
+import com.productapp.repository.KanbanItemRepository;
+import com.productapp.repository.RoadmapItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies card moves and deletions on the Kanban board.
+ *
+ * Roadmap items (negative IDs on the board) are moved through a tracking kanban item that carries
+ * their progress, and the roadmap item status is kept in sync with the column it lands in.
+ *
+ * Cards are versioned. A move may carry the version the client last saw and is rejected with an
+ * {@link ObjectOptimisticLockingFailureException} if the card changed since; concurrent writes that
+ * slip past that check are caught by the version check on flush. Moves therefore never wait on
+ * each other and a losing client simply refetches and retries.
+ */
+@Service
+public class KanbanMoveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KanbanMoveService.class);
+
+    @Autowired
+    private KanbanItemRepository kanbanItemRepository;
+
+    @Autowired
+    private RoadmapItemRepository roadmapItemRepository;
+
+    @Autowired
+    private KanbanRankService kanbanRankService;
+
+    @Autowired
+    private KanbanBoardService kanbanBoardService;
+
+    @Autowired
+    private KanbanFlowMetricsService flowMetricsService;
+
+    @Autowired
+    private RoadmapVersionService roadmapVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public KanbanItem moveItem(Product product, Long itemId, String newStatus, Integer newPosition, Long expectedVersion) {
+        if (!KanbanBoardService.COLUMNS.contains(newStatus)) {
+            throw new IllegalArgumentException("Unknown kanban column: " + newStatus);
+        }
+        KanbanItem item;
+        RoadmapItem roadmapItem = null;
+        String previousRoadmapStatus = null;
+        if (itemId < 0) {
+            roadmapItem = roadmapItemRepository.findByIdAndProductId(Math.abs(itemId), product.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Roadmap item", "id", Math.abs(itemId)));
+            List<KanbanItem> existingItems = kanbanItemRepository.findByEpicIdAndProduct(roadmapItem.getEpicId(), product);
+            item = existingItems.isEmpty() ? newTrackingItem(roadmapItem, product) : existingItems.get(0);
+
+            previousRoadmapStatus = roadmapItem.getStatus();
+            roadmapItem.setStatus(mapKanbanStatusToRoadmapStatus(newStatus));
+            roadmapItemRepository.save(roadmapItem);
+            logger.info("Updated roadmap item status to: {} for epic: {}", roadmapItem.getStatus(), roadmapItem.getEpicName());
+        } else {
+            item = kanbanItemRepository.findByIdAndProduct(itemId, product)
+                    .orElseThrow(() -> new ResourceNotFoundException("Kanban item", "id", itemId));
+        }
+        checkVersion(item, expectedVersion);
+        // A roadmap card without a tracking item yet was in COMMITTED
+        String previousStatus = item.getId() == null ? KanbanBoardService.COMMITTED : item.getStatus();
+
+        // A move without a position drops the card at the end of the column
+        int position = newPosition != null ? newPosition : endOfColumn(item, product, newStatus);
+
+        // Only the moved card is written: its rank key is placed between its new neighbours
+        kanbanRankService.placeAt(item, product, newStatus, position);
+        item.setStatus(newStatus);
+        item.setPosition(position);
+        // Flush now so a version conflict surfaces here and the published card carries the new version
+        KanbanItem saved = kanbanItemRepository.saveAndFlush(item);
+        flowMetricsService.recordTransitions(product.getId(), Collections.singletonMap(saved, previousStatus));
+        if (roadmapItem != null && !roadmapItem.getStatus().equals(previousRoadmapStatus)) {
+            // Last write of the move, so the roadmap stays locked only until the commit
+            roadmapVersionService.recordFieldChanges(roadmapItem.getRoadmap().getId(),
+                    Map.of(roadmapItem.getEpicId(), Map.of("status", roadmapItem.getStatus())));
+        }
+        eventPublisher.publishEvent(new KanbanBoardEvent(product.getId(), KanbanBoardEvent.Type.CARD_MOVED, new KanbanItemResponse(saved)));
+        return saved;
+    }
+
+    /**
+     * Delete a card of the product. The delete and the WIP counter adjustment commit together, so
+     * the counters cannot drift from the cards when either fails.
+     */
+    @Transactional
+    public void deleteItem(Product product, Long itemId) {
+        KanbanItem item = kanbanItemRepository.findByIdAndProduct(itemId, product)
+                .orElseThrow(() -> new ResourceNotFoundException("Kanban item", "id", itemId));
+        // Remaining cards keep their rank keys, so no renumbering is needed
+        kanbanItemRepository.delete(item);
+        flowMetricsService.recordRemoval(product.getId(), item.getStatus());
+        eventPublisher.publishEvent(new KanbanBoardEvent(product.getId(), KanbanBoardEvent.Type.CARD_DELETED,
+                Map.of("id", itemId, "status", item.getStatus())));
+    }
+
+    /**
+     * Apply an ordered list of moves in one transaction. Every affected column is loaded once,
+     * the moves are replayed in memory, rank keys are recalculated once per column and all
+     * changed cards are flushed in JDBC batches. Returns the resulting affected columns.
+     */
+    @Transactional
+    public Map<String, List<KanbanItemResponse>> applyMoves(Product product, List<KanbanMoveRequest.Move> moves) {
+        for (KanbanMoveRequest.Move move : moves) {
+            if (!KanbanBoardService.COLUMNS.contains(move.getStatus())) {
+                throw new IllegalArgumentException("Unknown kanban column: " + move.getStatus());
+            }
+        }
+
+        Map<Long, Map<String, Map<String, Object>>> roadmapChanges = new HashMap<>();
+        Map<Long, KanbanItem> itemsByMoveId = resolveItems(product, moves, roadmapChanges);
+        for (KanbanMoveRequest.Move move : moves) {
+            checkVersion(itemsByMoveId.get(move.getItemId()), move.getExpectedVersion());
+        }
+
+        Set<String> affectedStatuses = new LinkedHashSet<>();
+        for (KanbanMoveRequest.Move move : moves) {
+            affectedStatuses.add(move.getStatus());
+            String currentStatus = itemsByMoveId.get(move.getItemId()).getStatus();
+            if (currentStatus != null) {
+                affectedStatuses.add(currentStatus);
+            }
+        }
+
+        Map<String, List<KanbanItem>> columns = new LinkedHashMap<>();
+        for (String status : affectedStatuses) {
+            columns.put(status, new ArrayList<>());
+        }
+        for (KanbanItem columnItem : kanbanItemRepository.findColumnsOrderByRank(product, affectedStatuses)) {
+            columns.get(columnItem.getStatus()).add(columnItem);
+        }
+
+        // Replay the moves in memory
+        Set<KanbanItem> moved = new LinkedHashSet<>();
+        Map<KanbanItem, String> previousStatuses = new LinkedHashMap<>();
+        for (KanbanMoveRequest.Move move : moves) {
+            KanbanItem item = itemsByMoveId.get(move.getItemId());
+            if (!previousStatuses.containsKey(item)) {
+                previousStatuses.put(item, item.getId() == null ? KanbanBoardService.COMMITTED : item.getStatus());
+            }
+            if (item.getStatus() != null) {
+                columns.get(item.getStatus()).remove(item);
+            }
+            List<KanbanItem> target = columns.get(move.getStatus());
+            target.add(Math.min(move.getPosition(), target.size()), item);
+            item.setStatus(move.getStatus());
+            moved.add(item);
+        }
+
+        Set<KanbanItem> changed = new LinkedHashSet<>();
+        for (Map.Entry<String, List<KanbanItem>> column : columns.entrySet()) {
+            changed.addAll(kanbanRankService.assignKeys(product.getId(), column.getKey(), column.getValue(), moved));
+        }
+
+        // Written as JDBC batches of hibernate.jdbc.batch_size, ordered by order_updates
+        kanbanItemRepository.saveAll(changed);
+        kanbanItemRepository.flush();
+        flowMetricsService.recordTransitions(product.getId(), previousStatuses);
+        roadmapVersionService.recordFieldChanges(roadmapChanges);
+        logger.info("Applied {} kanban moves for product {}, {} cards written", moves.size(), product.getId(), changed.size());
+        for (KanbanItem item : moved) {
+            eventPublisher.publishEvent(new KanbanBoardEvent(product.getId(), KanbanBoardEvent.Type.CARD_MOVED, new KanbanItemResponse(item)));
+        }
+
+        Map<String, List<KanbanItemResponse>> board = kanbanBoardService.getBoard(product);
+        Map<String, List<KanbanItemResponse>> result = new LinkedHashMap<>();
+        for (String status : affectedStatuses) {
+            result.put(status, board.getOrDefault(status, new ArrayList<>()));
+        }
+        return result;
+    }
+
+    // Index just past the last card of the column, not counting the moved card itself
+    private int endOfColumn(KanbanItem item, Product product, String status) {
+        long count = kanbanItemRepository.countByProductAndStatus(product, status);
+        if (item.getId() != null && status.equals(item.getStatus())) {
+            count--;
+        }
+        return (int) Math.max(count, 0);
+    }
+
+    private void checkVersion(KanbanItem item, Long expectedVersion) {
+        // Roadmap cards without a tracking item have never been written, so there is nothing to compare
+        if (expectedVersion == null || item.getId() == null) {
+            return;
+        }
+        if (!expectedVersion.equals(item.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(KanbanItem.class, item.getId());
+        }
+    }
+
+    public static String mapKanbanStatusToRoadmapStatus(String kanbanStatus) {
+        // Map Kanban statuses to corresponding Roadmap statuses
+        switch (kanbanStatus) {
+            case "COMMITTED":
+                return "Committed";
+            case "TODO":
+                return "To-Do";
+            case "IN_PROGRESS":
+                return "In-Progress";
+            case "DONE":
+                return "Done";
+            default:
+                return "Committed"; // Default fallback
+        }
+    }
+
+    /**
+     * Load every card referenced by the moves with set-based queries, creating tracking items for
+     * roadmap items that do not have one yet. Keyed by the item ID used in the move request. Roadmap
+     * items whose status changes with the move are added to roadmapChanges, by roadmap and epic ID.
+     */
+    private Map<Long, KanbanItem> resolveItems(Product product, List<KanbanMoveRequest.Move> moves,
+                                               Map<Long, Map<String, Map<String, Object>>> roadmapChanges) {
+        Set<Long> kanbanIds = new LinkedHashSet<>();
+        Set<Long> roadmapIds = new LinkedHashSet<>();
+        for (KanbanMoveRequest.Move move : moves) {
+            if (move.getItemId() < 0) {
+                roadmapIds.add(Math.abs(move.getItemId()));
+            } else {
+                kanbanIds.add(move.getItemId());
+            }
+        }
+
+        Map<Long, KanbanItem> itemsByMoveId = new HashMap<>();
+        if (!kanbanIds.isEmpty()) {
+            for (KanbanItem item : kanbanItemRepository.findByIdInAndProduct(kanbanIds, product)) {
+                itemsByMoveId.put(item.getId(), item);
+            }
+        }
+        for (Long kanbanId : kanbanIds) {
+            if (!itemsByMoveId.containsKey(kanbanId)) {
+                throw new ResourceNotFoundException("Kanban item", "id", kanbanId);
+            }
+        }
+
+        if (roadmapIds.isEmpty()) {
+            return itemsByMoveId;
+        }
+
+        Map<Long, RoadmapItem> roadmapItems = roadmapItemRepository.findByIdInAndProductId(roadmapIds, product.getId()).stream()
+                .collect(Collectors.toMap(RoadmapItem::getId, Function.identity()));
+        for (Long roadmapId : roadmapIds) {
+            if (!roadmapItems.containsKey(roadmapId)) {
+                throw new ResourceNotFoundException("Roadmap item", "id", roadmapId);
+            }
+        }
+
+        Set<String> epicIds = roadmapItems.values().stream().map(RoadmapItem::getEpicId).collect(Collectors.toSet());
+        Map<String, KanbanItem> trackingByEpicId = new HashMap<>();
+        for (KanbanItem tracking : kanbanItemRepository.findByProductAndEpicIdIn(product, epicIds)) {
+            trackingByEpicId.putIfAbsent(tracking.getEpicId(), tracking);
+        }
+
+        Map<Long, String> finalStatusByRoadmapId = new HashMap<>();
+        for (KanbanMoveRequest.Move move : moves) {
+            if (move.getItemId() < 0) {
+                finalStatusByRoadmapId.put(Math.abs(move.getItemId()), move.getStatus());
+            }
+        }
+
+        for (RoadmapItem roadmapItem : roadmapItems.values()) {
+            KanbanItem tracking = trackingByEpicId.computeIfAbsent(roadmapItem.getEpicId(),
+                    epicId -> newTrackingItem(roadmapItem, product));
+            itemsByMoveId.put(-roadmapItem.getId(), tracking);
+            String roadmapStatus = mapKanbanStatusToRoadmapStatus(finalStatusByRoadmapId.get(roadmapItem.getId()));
+            if (!roadmapStatus.equals(roadmapItem.getStatus())) {
+                roadmapItem.setStatus(roadmapStatus);
+                roadmapChanges.computeIfAbsent(roadmapItem.getRoadmap().getId(), id -> new HashMap<>())
+                        .put(roadmapItem.getEpicId(), Map.of("status", roadmapStatus));
+            }
+        }
+        return itemsByMoveId;
+    }
+
+    private KanbanItem newTrackingItem(RoadmapItem roadmapItem, Product product) {
+        KanbanItem trackingItem = new KanbanItem();
+        trackingItem.setTitle(roadmapItem.getEpicName());
+        trackingItem.setDescription(roadmapItem.getEpicDescription());
+        trackingItem.setPriority(roadmapItem.getPriority());
+        trackingItem.setAssignee(roadmapItem.getAssignedTeam());
+        trackingItem.setDueDate(roadmapItem.getEndDate() != null ? roadmapItem.getEndDate().atStartOfDay() : null);
+        trackingItem.setEpicId(roadmapItem.getEpicId());
+        trackingItem.setLabels(KanbanBoardService.ROADMAP_ITEM_LABEL);
+        trackingItem.setProduct(product);
+        return trackingItem;
+    }
+}
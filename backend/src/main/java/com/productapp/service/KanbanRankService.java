@@ -0,0 +1,214 @@
+package com.productapp.service;
+
+import com.productapp.entity.KanbanItem;
+import com.productapp.entity.Product;
+import com.productapp.event.KanbanBoardEvent;
+import com.productapp.repository.KanbanItemRepository;
+import com.productapp.repository.ProductRepository;
+import com.productapp.util.RankKeyUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the rank keys that order Kanban cards within a column.
+ *
+ * Placing a card only computes a key between its two new neighbours, so a drag writes a single row.
+ * When keys grow past {@link RankKeyUtil#MAX_KEY_LENGTH} the column is rebalanced in the background
+ * once the current transaction has committed.
+ */
+@Service
+public class KanbanRankService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KanbanRankService.class);
+
+    @Autowired
+    private KanbanItemRepository kanbanItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Columns with a rebalance already queued, keyed by "productId:status"
+    private final Set<String> pendingRebalances = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Assign {@code item} a rank key that places it at {@code position} in the given column.
+     * The position is the index among the other cards of the column, as sent by the board UI.
+     * Only the item itself is modified; the caller is responsible for saving it.
+     */
+    @Transactional
+    public void placeAt(KanbanItem item, Product product, String status, int position) {
+        if (kanbanItemRepository.existsByProductAndStatusAndRankKeyIsNull(product, status)) {
+            rebalanceColumn(product, status);
+        }
+
+        String rankKey;
+        try {
+            rankKey = keyForPosition(item, product, status, position);
+        } catch (IllegalArgumentException e) {
+            // Neighbours share a key (e.g. after a concurrent move), spread the column out and retry once
+            logger.warn("Rank keys collided in product {} column {}, rebalancing", product.getId(), status);
+            rebalanceColumn(product, status);
+            rankKey = keyForPosition(item, product, status, position);
+        }
+
+        item.setRankKey(rankKey);
+        if (RankKeyUtil.needsRebalance(rankKey)) {
+            scheduleRebalance(product.getId(), status);
+        }
+    }
+
+    /**
+     * Rewrite the rank keys of a whole column with evenly spaced keys, keeping the current order.
+     * The integer position column is refreshed at the same time.
+     */
+    @Transactional
+    public void rebalanceColumn(Product product, String status) {
+        List<KanbanItem> columnItems = kanbanItemRepository.findColumnOrderByRank(product, status);
+        List<String> keys = RankKeyUtil.evenlySpaced(columnItems.size());
+        for (int i = 0; i < columnItems.size(); i++) {
+            KanbanItem columnItem = columnItems.get(i);
+            columnItem.setRankKey(keys.get(i));
+            columnItem.setPosition(i);
+        }
+        kanbanItemRepository.saveAll(columnItems);
+        eventPublisher.publishEvent(new KanbanBoardEvent(product.getId(), KanbanBoardEvent.Type.BOARD_CHANGED, Map.of("status", status)));
+        logger.info("Rebalanced {} rank keys for product {} column {}", columnItems.size(), product.getId(), status);
+    }
+
+    /**
+     * Give the moved cards of an in-memory ordered column rank keys that fit between their unmoved
+     * neighbours. Unmoved cards keep their keys; if their keys are missing or out of order the whole
+     * column is rebalanced instead. Returns every card whose key changed.
+     */
+    public Set<KanbanItem> assignKeys(Long productId, String status, List<KanbanItem> column, Set<KanbanItem> moved) {
+        Set<KanbanItem> changed = new LinkedHashSet<>();
+        boolean keysTooLong = false;
+        String previous = null;
+        int i = 0;
+        while (i < column.size()) {
+            KanbanItem columnItem = column.get(i);
+            if (!moved.contains(columnItem)) {
+                if (!isAfter(columnItem.getRankKey(), previous)) {
+                    return spreadColumn(column);
+                }
+                previous = columnItem.getRankKey();
+                i++;
+                continue;
+            }
+
+            // A run of moved cards shares the same pair of unmoved neighbours
+            int end = i;
+            while (end < column.size() && moved.contains(column.get(end))) {
+                end++;
+            }
+            String next = end < column.size() ? column.get(end).getRankKey() : null;
+            if (end < column.size() && !isAfter(next, previous)) {
+                return spreadColumn(column);
+            }
+
+            List<String> keys = RankKeyUtil.between(previous, next, end - i);
+            for (int k = i; k < end; k++) {
+                KanbanItem movedItem = column.get(k);
+                movedItem.setRankKey(keys.get(k - i));
+                movedItem.setPosition(k);
+                changed.add(movedItem);
+                keysTooLong |= RankKeyUtil.needsRebalance(movedItem.getRankKey());
+            }
+            previous = keys.get(keys.size() - 1);
+            i = end;
+        }
+
+        if (keysTooLong) {
+            scheduleRebalance(productId, status);
+        }
+        return changed;
+    }
+
+    private boolean isAfter(String key, String previous) {
+        return key != null && (previous == null || key.compareTo(previous) > 0);
+    }
+
+    private Set<KanbanItem> spreadColumn(List<KanbanItem> column) {
+        List<String> keys = RankKeyUtil.evenlySpaced(column.size());
+        for (int i = 0; i < column.size(); i++) {
+            column.get(i).setRankKey(keys.get(i));
+            column.get(i).setPosition(i);
+        }
+        return new LinkedHashSet<>(column);
+    }
+
+    private String keyForPosition(KanbanItem item, Product product, String status, int position) {
+        Long excludeId = item.getId() != null ? item.getId() : 0L;
+        int index = Math.max(position, 0);
+
+        if (index == 0) {
+            List<KanbanItem> first = kanbanItemRepository.findRankNeighbours(product.getId(), status, excludeId, 0);
+            return RankKeyUtil.between(null, first.isEmpty() ? null : first.get(0).getRankKey());
+        }
+
+        List<KanbanItem> neighbours = kanbanItemRepository.findRankNeighbours(product.getId(), status, excludeId, index - 1);
+        if (neighbours.isEmpty()) {
+            // Dropped past the end of the column
+            return RankKeyUtil.between(kanbanItemRepository.findMaxRankKey(product, status, excludeId), null);
+        }
+        String before = neighbours.get(0).getRankKey();
+        String after = neighbours.size() > 1 ? neighbours.get(1).getRankKey() : null;
+        return RankKeyUtil.between(before, after);
+    }
+
+    void scheduleRebalance(Long productId, String status) {
+        String columnKey = productId + ":" + status;
+        if (!pendingRebalances.add(columnKey)) {
+            return;
+        }
+
+        Runnable rebalance = () -> taskExecutor.execute(() -> {
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(tx ->
+                        productRepository.findById(productId).ifPresent(product -> rebalanceColumn(product, status)));
+            } catch (Exception e) {
+                logger.error("Background rank rebalance failed for product {} column {}", productId, status, e);
+            } finally {
+                pendingRebalances.remove(columnKey);
+            }
+        });
+
+        // Rebalance only once the key that triggered it is committed, otherwise it would be ordered against stale keys
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    rebalance.run();
+                }
+            });
+        } else {
+            rebalance.run();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.productapp.service;
+
+import com.productapp.entity.Product;
+import com.productapp.entity.User;
+import com.productapp.repository.UserRepository;
+import com.productapp.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+/**
+ * Who may read a product's or an organization's data through the reporting endpoints, capacity
+ * trends and exports.
+ *
+ * A product is readable by its owner, by members of its organization and by global superadmins; an
+ * organization by its members and by global superadmins. Endpoints that change data keep their own
+ * checks and do not go through here.
+ */
+@Service
+public class ProductAccessService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * The authenticated user, or null if the request carries no known user.
+     */
+    public User currentUser(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal)) {
+            return null;
+        }
+        return userRepository.findById(((UserPrincipal) authentication.getPrincipal()).getId()).orElse(null);
+    }
+
+    public boolean canAccessProduct(User user, Product product) {
+        if (user == null || product == null) {
+            return false;
+        }
+        boolean owner = product.getUser() != null && product.getUser().getId().equals(user.getId());
+        boolean sameOrganization = user.getOrganization() != null && product.getOrganization() != null
+                && user.getOrganization().getId().equals(product.getOrganization().getId());
+        return owner || sameOrganization || isGlobalSuperadmin(user);
+    }
+
+    public boolean canAccessOrganization(User user, Long organizationId) {
+        if (user == null) {
+            return false;
+        }
+        boolean member = user.getOrganization() != null && user.getOrganization().getId().equals(organizationId);
+        return member || isGlobalSuperadmin(user);
+    }
+
+    public boolean isGlobalSuperadmin(User user) {
+        return user != null && Boolean.TRUE.equals(user.getIsGlobalSuperadmin());
+    }
+}
\ No newline at end of file
@@ -3,30 +3,153 @@ package com.productapp.service;
 import com.productapp.dto.QuarterlyRoadmapRequest;
 import com.productapp.entity.QuarterlyRoadmap;
 import com.productapp.entity.RoadmapItem;
+import com.productapp.event.KanbanBoardEvent;
+import com.productapp.event.RoadmapSavedEvent;
 import com.productapp.repository.QuarterlyRoadmapRepository;
 import com.productapp.repository.RoadmapItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 @Service
 public class QuarterlyRoadmapService {
 
     private static final Logger logger = LoggerFactory.getLogger(QuarterlyRoadmapService.class);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+    
+    // Rows per round trip when reading a roadmap range on drivers that cannot stream row by row
+    private static final int RANGE_FETCH_SIZE = 500;
+
+    // Roadmap item fields that can be changed one at a time, with their types
+    private static final Map<String, Class<?>> PATCHABLE_FIELDS = new LinkedHashMap<>();
+    static {
+        PATCHABLE_FIELDS.put("epicName", String.class);
+        PATCHABLE_FIELDS.put("epicDescription", String.class);
+        PATCHABLE_FIELDS.put("priority", String.class);
+        PATCHABLE_FIELDS.put("status", String.class);
+        PATCHABLE_FIELDS.put("estimatedEffort", String.class);
+        PATCHABLE_FIELDS.put("assignedTeam", String.class);
+        PATCHABLE_FIELDS.put("reach", Integer.class);
+        PATCHABLE_FIELDS.put("impact", Integer.class);
+        PATCHABLE_FIELDS.put("confidence", Integer.class);
+        PATCHABLE_FIELDS.put("riceScore", Double.class);
+        PATCHABLE_FIELDS.put("effortRating", Integer.class);
+        PATCHABLE_FIELDS.put("startDate", LocalDate.class);
+        PATCHABLE_FIELDS.put("endDate", LocalDate.class);
+        PATCHABLE_FIELDS.put("initiativeName", String.class);
+        PATCHABLE_FIELDS.put("themeName", String.class);
+        PATCHABLE_FIELDS.put("themeColor", String.class);
+    }
 
     @Autowired
     private QuarterlyRoadmapRepository quarterlyRoadmapRepository;
     
     @Autowired
     private RoadmapItemRepository roadmapItemRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private RoadmapVersionService roadmapVersionService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Hand every roadmap of a quarter range to the handler together with its items, in year and
+     * quarter order; quarters without a roadmap are skipped. Roadmaps are read first (at most one
+     * per quarter), then the items through a forward-only cursor ordered the same way, and each
+     * quarter's items are detached once handled, so only one quarter of items is held at a time.
+     */
+    @Transactional(readOnly = true)
+    public void forEachRoadmapInRange(Long productId, Integer fromYear, Integer fromQuarter, Integer toYear, Integer toQuarter,
+                                      boolean publishedOnly, BiConsumer<QuarterlyRoadmap, List<RoadmapItem>> handler) {
+        Iterator<QuarterlyRoadmap> roadmaps = quarterlyRoadmapRepository
+                .findRange(productId, fromYear, fromQuarter, toYear, toQuarter).iterator();
+        if (!roadmaps.hasNext()) {
+            return;
+        }
 
+        // MySQL only streams instead of buffering the whole result when the fetch size is Integer.MIN_VALUE
+        boolean mysql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+        String jpql = "SELECT ri FROM RoadmapItem ri WHERE ri.roadmap.productId = :productId " +
+                "AND ri.roadmap.year BETWEEN :fromYear AND :toYear " +
+                "AND (ri.roadmap.year > :fromYear OR ri.roadmap.quarter >= :fromQuarter) " +
+                "AND (ri.roadmap.year < :toYear OR ri.roadmap.quarter <= :toQuarter) " +
+                (publishedOnly ? "AND ri.published = true " : "") +
+                "ORDER BY ri.roadmap.year, ri.roadmap.quarter, ri.id";
+        QuarterlyRoadmap roadmap = roadmaps.next();
+        List<RoadmapItem> quarterItems = new ArrayList<>();
+        try (Stream<RoadmapItem> items = entityManager.createQuery(jpql, RoadmapItem.class)
+                .setParameter("productId", productId)
+                .setParameter("fromYear", fromYear)
+                .setParameter("fromQuarter", fromQuarter)
+                .setParameter("toYear", toYear)
+                .setParameter("toQuarter", toQuarter)
+                .setHint("org.hibernate.fetchSize", mysql ? Integer.MIN_VALUE : RANGE_FETCH_SIZE)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()) {
+            Iterator<RoadmapItem> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                RoadmapItem item = iterator.next();
+                // Both results are in (year, quarter) order, so the item belongs to this or a later roadmap
+                while (!roadmap.getId().equals(item.getRoadmap().getId())) {
+                    handleQuarter(roadmap, quarterItems, handler);
+                    quarterItems = new ArrayList<>();
+                    roadmap = roadmaps.next();
+                }
+                quarterItems.add(item);
+            }
+        }
+        handleQuarter(roadmap, quarterItems, handler);
+        while (roadmaps.hasNext()) {
+            handleQuarter(roadmaps.next(), new ArrayList<>(), handler);
+        }
+    }
+
+    private void handleQuarter(QuarterlyRoadmap roadmap, List<RoadmapItem> items,
+                               BiConsumer<QuarterlyRoadmap, List<RoadmapItem>> handler) {
+        handler.accept(roadmap, items);
+        items.forEach(entityManager::detach);
+    }
+
+    /**
+     * Save the roadmap for a quarter. Incoming items are matched to the existing rows by epicId and
+     * only the differences are written: new epics are inserted, changed rows are updated in JDBC
+     * batches and removed epics are deleted with a single statement. Unchanged rows keep their IDs,
+     * which the Kanban board uses to identify roadmap cards.
+     *
+     * Existing rows also keep their published flag and date, since the request does not carry them:
+     * an item published to the Kanban board stays published when the quarter is edited, and only
+     * new epics start unpublished. (Replacing every row used to unpublish the whole quarter on
+     * each save.)
+     */
     @Transactional
     public QuarterlyRoadmap createOrUpdateRoadmap(Long productId, QuarterlyRoadmapRequest request) {
 
@@ -35,60 +158,201 @@ public class QuarterlyRoadmapService {
                 .findByProductIdAndYearAndQuarter(productId, request.getYear(), request.getQuarter());
         
         QuarterlyRoadmap roadmap;
+        List<RoadmapItem> existingItems;
         if (existingRoadmapOpt.isPresent()) {
             roadmap = existingRoadmapOpt.get();
-            // Delete existing items first
-            roadmapItemRepository.deleteByRoadmapId(roadmap.getId());
+            existingItems = roadmapItemRepository.findByRoadmapId(roadmap.getId());
         } else {
             roadmap = new QuarterlyRoadmap();
             roadmap.setProductId(productId);
             roadmap.setYear(request.getYear());
             roadmap.setQuarter(request.getQuarter());
+            // Save roadmap first to ensure we have an ID
+            roadmap = quarterlyRoadmapRepository.save(roadmap);
+            existingItems = new ArrayList<>();
         }
         
-        // Save roadmap first to ensure we have an ID
-        roadmap = quarterlyRoadmapRepository.save(roadmap);
+        Map<String, RoadmapItem> existingByEpicId = new HashMap<>();
+        List<RoadmapItem> toDelete = new ArrayList<>();
+        for (RoadmapItem existing : existingItems) {
+            // Duplicate rows for an epic are left over from older saves; keep the first
+            if (existingByEpicId.putIfAbsent(existing.getEpicId(), existing) != null) {
+                toDelete.add(existing);
+            }
+        }
         
-        // Convert and save new items
-        if (request.getRoadmapItems() != null && !request.getRoadmapItems().isEmpty()) {
+        List<RoadmapItem> toInsert = new ArrayList<>();
+        List<RoadmapItem> toUpdate = new ArrayList<>();
+        Set<String> requestedEpicIds = new HashSet<>();
+        if (request.getRoadmapItems() != null) {
             for (QuarterlyRoadmapRequest.RoadmapItem requestItem : request.getRoadmapItems()) {
-                RoadmapItem item = new RoadmapItem();
-                item.setRoadmap(roadmap);
-                item.setEpicId(requestItem.getEpicId());
-                item.setEpicName(requestItem.getEpicName());
-                item.setEpicDescription(requestItem.getEpicDescription());
-                item.setPriority(requestItem.getPriority());
-                item.setStatus(requestItem.getStatus());
-                item.setEstimatedEffort(requestItem.getEstimatedEffort());
-                item.setAssignedTeam(requestItem.getAssignedTeam());
-                item.setReach(requestItem.getReach());
-                item.setImpact(requestItem.getImpact());
-                item.setConfidence(requestItem.getConfidence());
-                item.setRiceScore(requestItem.getRiceScore());
-                item.setEffortRating(requestItem.getEffortRating());
-                
-                // Set initiative and theme information if provided
-                item.setInitiativeName(requestItem.getInitiativeName());
-                item.setThemeName(requestItem.getThemeName());
-                item.setThemeColor(requestItem.getThemeColor());
-                
-                // Parse dates if provided
-                if (requestItem.getStartDate() != null && !requestItem.getStartDate().isEmpty()) {
-                    item.setStartDate(LocalDate.parse(requestItem.getStartDate(), DATE_FORMATTER));
+                if (!requestedEpicIds.add(requestItem.getEpicId())) {
+                    continue;
                 }
-                if (requestItem.getEndDate() != null && !requestItem.getEndDate().isEmpty()) {
-                    item.setEndDate(LocalDate.parse(requestItem.getEndDate(), DATE_FORMATTER));
+                RoadmapItem item = existingByEpicId.get(requestItem.getEpicId());
+                if (item == null) {
+                    item = new RoadmapItem();
+                    item.setRoadmap(roadmap);
+                    item.setEpicId(requestItem.getEpicId());
+                    applyRequestItem(item, requestItem);
+                    toInsert.add(item);
+                } else if (applyRequestItem(item, requestItem)) {
+                    toUpdate.add(item);
                 }
-                
-                // Save each item individually to ensure proper persistence
-                RoadmapItem savedItem = roadmapItemRepository.save(item);
             }
         }
+        for (RoadmapItem existing : existingByEpicId.values()) {
+            if (!requestedEpicIds.contains(existing.getEpicId())) {
+                toDelete.add(existing);
+            }
+        }
+        
+        if (!toDelete.isEmpty()) {
+            roadmapItemRepository.deleteAllInBatch(toDelete);
+        }
+        // IDENTITY keys are assigned per insert, so only new epics cost a round trip each
+        roadmapItemRepository.saveAll(toInsert);
+        // Changed rows are written by the flush below, batched by hibernate.jdbc.batch_size with order_updates
         
         // Force flush to ensure data is written to database within this transaction
         quarterlyRoadmapRepository.flush();
         roadmapItemRepository.flush();
         
+        logger.info("Saved roadmap {} Q{} for product {}: {} inserted, {} updated, {} deleted",
+                request.getYear(), request.getQuarter(), productId, toInsert.size(), toUpdate.size(), toDelete.size());
+        
+        if (!toInsert.isEmpty() || !toUpdate.isEmpty() || !toDelete.isEmpty()) {
+            roadmapVersionService.recordVersion(roadmap.getId());
+            if (!toInsert.isEmpty()) {
+                // New epics get capacity plan cells once this save has committed
+                eventPublisher.publishEvent(new RoadmapSavedEvent(productId, request.getYear(), request.getQuarter()));
+            }
+            // Published items of this roadmap are shown on the Kanban board
+            eventPublisher.publishEvent(new KanbanBoardEvent(productId, KanbanBoardEvent.Type.BOARD_CHANGED, null));
+        }
+        
         return roadmap;
     }
+    
+    /**
+     * Update only the supplied fields of one roadmap item with a single UPDATE, located through the
+     * unique quarter key and the (roadmap_id, epic_id) index. Returns false if the quarter has no
+     * item for the epic. Unknown fields and values of the wrong type are rejected with an
+     * IllegalArgumentException before anything is written.
+     */
+    @Transactional
+    public boolean patchRoadmapItem(Long productId, Integer year, Integer quarter, String epicId, Map<String, Object> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        
+        StringBuilder jpql = new StringBuilder("UPDATE RoadmapItem ri SET ri.updatedAt = :updatedAt");
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            Class<?> type = PATCHABLE_FIELDS.get(field.getKey());
+            if (type == null) {
+                throw new IllegalArgumentException("Field cannot be updated: " + field.getKey());
+            }
+            // Field names come from the whitelist above, never from the request text itself
+            jpql.append(", ri.").append(field.getKey()).append(" = :").append(field.getKey());
+            values.put(field.getKey(), convertPatchValue(field.getKey(), field.getValue(), type));
+        }
+        jpql.append(" WHERE ri.epicId = :epicId AND ri.roadmap.id = (SELECT q.id FROM QuarterlyRoadmap q")
+            .append(" WHERE q.productId = :productId AND q.year = :year AND q.quarter = :quarter)");
+        
+        Query update = entityManager.createQuery(jpql.toString())
+                .setParameter("updatedAt", LocalDateTime.now())
+                .setParameter("epicId", epicId)
+                .setParameter("productId", productId)
+                .setParameter("year", year)
+                .setParameter("quarter", quarter);
+        values.forEach(update::setParameter);
+        
+        int updated = update.executeUpdate();
+        if (updated > 0) {
+            logger.debug("Patched {} of roadmap item {} in {} Q{} for product {}", values.keySet(), epicId, year, quarter, productId);
+            // The patched values are the whole change, so they are recorded as they are
+            quarterlyRoadmapRepository.findByProductIdAndYearAndQuarter(productId, year, quarter)
+                    .ifPresent(roadmap -> roadmapVersionService.recordFieldChanges(roadmap.getId(), Map.of(epicId, values)));
+            // Published items of this roadmap are shown on the Kanban board
+            eventPublisher.publishEvent(new KanbanBoardEvent(productId, KanbanBoardEvent.Type.BOARD_CHANGED, null));
+        }
+        return updated > 0;
+    }
+    
+    private Object convertPatchValue(String field, Object value, Class<?> type) {
+        if (value == null) {
+            if ("epicName".equals(field)) {
+                throw new IllegalArgumentException("epicName cannot be null");
+            }
+            return null;
+        }
+        try {
+            if (type == String.class) {
+                return value.toString();
+            } else if (type == Integer.class) {
+                return value instanceof Number ? ((Number) value).intValue() : Integer.valueOf(value.toString());
+            } else if (type == Double.class) {
+                return value instanceof Number ? ((Number) value).doubleValue() : Double.valueOf(value.toString());
+            } else {
+                return parseDate(value.toString());
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value for " + field + ": " + value);
+        }
+    }
+    
+    /**
+     * Copy the editable fields of a request item onto a roadmap item. Returns true if any value changed,
+     * so unchanged rows are not written at all.
+     */
+    private boolean applyRequestItem(RoadmapItem item, QuarterlyRoadmapRequest.RoadmapItem requestItem) {
+        LocalDate startDate = parseDate(requestItem.getStartDate());
+        LocalDate endDate = parseDate(requestItem.getEndDate());
+        
+        boolean changed = !Objects.equals(item.getEpicName(), requestItem.getEpicName())
+                || !Objects.equals(item.getEpicDescription(), requestItem.getEpicDescription())
+                || !Objects.equals(item.getPriority(), requestItem.getPriority())
+                || !Objects.equals(item.getStatus(), requestItem.getStatus())
+                || !Objects.equals(item.getEstimatedEffort(), requestItem.getEstimatedEffort())
+                || !Objects.equals(item.getAssignedTeam(), requestItem.getAssignedTeam())
+                || !Objects.equals(item.getReach(), requestItem.getReach())
+                || !Objects.equals(item.getImpact(), requestItem.getImpact())
+                || !Objects.equals(item.getConfidence(), requestItem.getConfidence())
+                || !Objects.equals(item.getRiceScore(), requestItem.getRiceScore())
+                || !Objects.equals(item.getEffortRating(), requestItem.getEffortRating())
+                || !Objects.equals(item.getInitiativeName(), requestItem.getInitiativeName())
+                || !Objects.equals(item.getThemeName(), requestItem.getThemeName())
+                || !Objects.equals(item.getThemeColor(), requestItem.getThemeColor())
+                || !Objects.equals(item.getStartDate(), startDate)
+                || !Objects.equals(item.getEndDate(), endDate);
+        if (!changed) {
+            return false;
+        }
+        
+        item.setEpicName(requestItem.getEpicName());
+        item.setEpicDescription(requestItem.getEpicDescription());
+        item.setPriority(requestItem.getPriority());
+        item.setStatus(requestItem.getStatus());
+        item.setEstimatedEffort(requestItem.getEstimatedEffort());
+        item.setAssignedTeam(requestItem.getAssignedTeam());
+        item.setReach(requestItem.getReach());
+        item.setImpact(requestItem.getImpact());
+        item.setConfidence(requestItem.getConfidence());
+        item.setRiceScore(requestItem.getRiceScore());
+        item.setEffortRating(requestItem.getEffortRating());
+        
+        // Set initiative and theme information if provided
+        item.setInitiativeName(requestItem.getInitiativeName());
+        item.setThemeName(requestItem.getThemeName());
+        item.setThemeColor(requestItem.getThemeColor());
+        
+        item.setStartDate(startDate);
+        item.setEndDate(endDate);
+        return true;
+    }
+    
+    private LocalDate parseDate(String date) {
+        return date != null && !date.isEmpty() ? LocalDate.parse(date, DATE_FORMATTER) : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.productapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.productapp.event.KanbanBoardEvent;
+import com.productapp.repository.RoadmapItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of the epic IDs assigned to any quarter of a product's roadmap, optionally
+ * excluding one quarter, keyed by product ID, generation and exclusion.
+ *
+ * All entries of a product are invalidated once a roadmap save or publish has committed, which is
+ * signalled by the BOARD_CHANGED and ROADMAP_PUBLISHED {@link KanbanBoardEvent}s, by moving the
+ * product to a new generation. A load that was already running stores its result under the old
+ * generation, which is never read again, so it cannot bring back epic IDs from before the change.
+ *
+ * Generations are drawn from one counter shared by all products and kept in a second bounded
+ * cache. A product whose generation was dropped simply gets a new one, never a reused one. So
+ * entries of old generations are never read again, and the size bound and TTL drop them.
+ */
+@Service
+public class RoadmapAssignedEpicsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoadmapAssignedEpicsCache.class);
+
+    @Autowired
+    private RoadmapItemRepository roadmapItemRepository;
+
+    private final Cache<String, List<String>> assignedEpics;
+
+    private final Cache<Long, Long> generations;
+
+    private final AtomicLong nextGeneration = new AtomicLong();
+
+    public RoadmapAssignedEpicsCache(@Value("${roadmap.assigned-epics-cache.max-size:1000}") long maxSize,
+                                     @Value("${roadmap.assigned-epics-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.assignedEpics = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public List<String> getAssignedEpicIds(Long productId, Integer excludeYear, Integer excludeQuarter) {
+        if (excludeYear != null && excludeQuarter != null) {
+            return assignedEpics.get(productPrefix(productId) + excludeYear + "-Q" + excludeQuarter,
+                    key -> Collections.unmodifiableList(roadmapItemRepository
+                            .findDistinctEpicIdsByProductIdExcludingQuarter(productId, excludeYear, excludeQuarter)));
+        }
+        return assignedEpics.get(productPrefix(productId) + "all",
+                key -> Collections.unmodifiableList(roadmapItemRepository.findDistinctEpicIdsByProductId(productId)));
+    }
+
+    public void evict(Long productId) {
+        long generation = nextGeneration.incrementAndGet();
+        generations.put(productId, generation);
+        logger.debug("Evicted cached assigned epic IDs for product {}, now at generation {}", productId, generation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardEvent(KanbanBoardEvent event) {
+        if (event.getType() == KanbanBoardEvent.Type.BOARD_CHANGED
+                || event.getType() == KanbanBoardEvent.Type.ROADMAP_PUBLISHED) {
+            evict(event.getProductId());
+        }
+    }
+
+    private String productPrefix(Long productId) {
+        return productId + ":" + generations.get(productId, id -> nextGeneration.incrementAndGet()) + ":";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,364 @@
+package com.productapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productapp.entity.RoadmapItem;
+import com.productapp.entity.RoadmapVersion;
+import com.productapp.repository.QuarterlyRoadmapRepository;
+import com.productapp.repository.RoadmapItemRepository;
+import com.productapp.repository.RoadmapVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Version history of quarterly roadmaps.
+ *
+ * Every save that changes a roadmap appends a version. A version normally stores a delta against the
+ * previous one: the epics added (with all their fields), the epics removed, and for changed epics
+ * only the fields that changed. Every {@link #CHECKPOINT_INTERVAL} versions a checkpoint stores the
+ * whole plan instead, so any version is rebuilt from the nearest checkpoint and at most
+ * CHECKPOINT_INTERVAL - 1 deltas, and storage grows with the edits made rather than with the plan
+ * size times the number of saves.
+ *
+ * Payloads are JSON. A checkpoint is {"items": {epicId: {field: value}}} and a delta is
+ * {"added": {epicId: {field: value}}, "changed": {epicId: {field: value}}, "removed": [epicId]}.
+ *
+ * Saves of a whole quarter are diffed against the rebuilt latest version. Writes that change known
+ * fields of single epics, such as a Kanban move or a field PATCH, are appended as a "changed" delta
+ * by {@link #recordFieldChanges} without reading the plan or the earlier versions.
+ */
+@Service
+public class RoadmapVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoadmapVersionService.class);
+
+    static final int CHECKPOINT_INTERVAL = 20;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    @Autowired
+    private RoadmapVersionRepository roadmapVersionRepository;
+
+    @Autowired
+    private RoadmapItemRepository roadmapItemRepository;
+
+    @Autowired
+    private QuarterlyRoadmapRepository quarterlyRoadmapRepository;
+
+    /**
+     * Record the current items of a roadmap as a new version, if they differ from the latest one.
+     * Must run in the transaction that changed the items.
+     *
+     * The roadmap row is locked first, so concurrent saves of one roadmap take the next version
+     * number in turn instead of colliding on (roadmap_id, version_number).
+     */
+    @Transactional
+    public void recordVersion(Long roadmapId) {
+        if (quarterlyRoadmapRepository.findByIdForUpdate(roadmapId).isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Object>> current = snapshot(roadmapItemRepository.findByRoadmapId(roadmapId));
+        Optional<RoadmapVersion> latest = roadmapVersionRepository.findTopByRoadmapIdOrderByVersionNumberDesc(roadmapId);
+
+        Map<String, Map<String, Object>> previous = latest.isPresent()
+                ? rebuild(roadmapId, latest.get().getVersionNumber())
+                : new TreeMap<>();
+        Map<String, Object> delta = delta(previous, current);
+        int changeCount = changeCount(delta);
+        if (latest.isPresent() && changeCount == 0) {
+            return;
+        }
+
+        int versionNumber = latest.map(version -> version.getVersionNumber() + 1).orElse(1);
+        boolean checkpoint = (versionNumber - 1) % CHECKPOINT_INTERVAL == 0;
+        Map<String, Object> payload = checkpoint ? Map.of("items", current) : delta;
+        roadmapVersionRepository.save(new RoadmapVersion(roadmapId, versionNumber, checkpoint, changeCount, write(payload)));
+        logger.debug("Recorded roadmap {} version {} ({} changes{})", roadmapId, versionNumber, changeCount,
+                checkpoint ? ", checkpoint" : "");
+    }
+
+    /**
+     * Record a write whose changes the caller already knows, new values of some fields of some epics
+     * keyed by epic ID and field name, as a delta on the latest version. Neither the items nor earlier
+     * versions are read, so the cost does not depend on the plan size. A roadmap without versions, or
+     * whose next version is due to be a checkpoint, is recorded in full by {@link #recordVersion}.
+     * Must run in the transaction that changed the items, after it made its other writes, so the
+     * roadmap lock is held only until the commit that follows.
+     */
+    @Transactional
+    public void recordFieldChanges(Long roadmapId, Map<String, Map<String, Object>> changedFields) {
+        if (changedFields.isEmpty() || quarterlyRoadmapRepository.findByIdForUpdate(roadmapId).isEmpty()) {
+            return;
+        }
+        Integer latest = roadmapVersionRepository.findLatestVersionNumber(roadmapId);
+        if (latest == null || latest % CHECKPOINT_INTERVAL == 0) {
+            recordVersion(roadmapId);
+            return;
+        }
+
+        Map<String, Object> changed = new TreeMap<>();
+        changedFields.forEach((epicId, fields) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            fields.forEach((field, value) -> values.put(field, versionedValue(value)));
+            changed.put(epicId, values);
+        });
+        int versionNumber = latest + 1;
+        roadmapVersionRepository.save(new RoadmapVersion(roadmapId, versionNumber, false, changed.size(),
+                write(Map.of("changed", changed))));
+        logger.debug("Recorded roadmap {} version {} ({} changed epics)", roadmapId, versionNumber, changed.size());
+    }
+
+    /**
+     * {@link #recordFieldChanges} for several roadmaps, keyed by roadmap ID. Roadmaps are locked in
+     * ID order, so two writers touching the same roadmaps cannot deadlock.
+     */
+    @Transactional
+    public void recordFieldChanges(Map<Long, Map<String, Map<String, Object>>> changedFieldsByRoadmapId) {
+        for (Map.Entry<Long, Map<String, Map<String, Object>>> roadmap : new TreeMap<>(changedFieldsByRoadmapId).entrySet()) {
+            recordFieldChanges(roadmap.getKey(), roadmap.getValue());
+        }
+    }
+
+    /**
+     * Record a version of each of the given roadmaps. Roadmaps are locked in ID order, so two
+     * writers touching the same roadmaps cannot deadlock.
+     */
+    @Transactional
+    public void recordVersions(Collection<Long> roadmapIds) {
+        for (Long roadmapId : new TreeSet<>(roadmapIds)) {
+            recordVersion(roadmapId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getVersions(Long roadmapId) {
+        List<Map<String, Object>> versions = new ArrayList<>();
+        for (Object[] row : roadmapVersionRepository.findSummariesByRoadmapId(roadmapId)) {
+            Map<String, Object> version = new LinkedHashMap<>();
+            version.put("version", row[0]);
+            version.put("checkpoint", row[1]);
+            version.put("changeCount", row[2]);
+            version.put("createdAt", row[3]);
+            versions.add(version);
+        }
+        return versions;
+    }
+
+    /**
+     * The items of a version keyed by epic ID, or empty if the version does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Map<String, Object>>> getVersion(Long roadmapId, int versionNumber) {
+        if (!exists(roadmapId, versionNumber)) {
+            return Optional.empty();
+        }
+        return Optional.of(rebuild(roadmapId, versionNumber));
+    }
+
+    /**
+     * The latest version saved at or before the given time, if any.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Integer> getVersionNumberAsOf(Long roadmapId, LocalDateTime at) {
+        return roadmapVersionRepository.findTopByRoadmapIdAndCreatedAtLessThanEqualOrderByVersionNumberDesc(roadmapId, at)
+                .map(RoadmapVersion::getVersionNumber);
+    }
+
+    /**
+     * Differences between two versions: epics added and removed, and for changed epics each changed
+     * field with its value in both versions. Empty if either version does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> diff(Long roadmapId, int fromVersion, int toVersion) {
+        if (!exists(roadmapId, fromVersion) || !exists(roadmapId, toVersion)) {
+            return Optional.empty();
+        }
+        Map<String, Map<String, Object>> from = rebuild(roadmapId, fromVersion);
+        Map<String, Map<String, Object>> to = rebuild(roadmapId, toVersion);
+
+        Map<String, Object> added = new TreeMap<>();
+        List<String> removed = new ArrayList<>();
+        Map<String, Object> changed = new TreeMap<>();
+        for (String epicId : union(from.keySet(), to.keySet())) {
+            Map<String, Object> fromItem = from.get(epicId);
+            Map<String, Object> toItem = to.get(epicId);
+            if (fromItem == null) {
+                added.put(epicId, toItem);
+            } else if (toItem == null) {
+                removed.add(epicId);
+            } else {
+                Map<String, Object> fields = new TreeMap<>();
+                for (String field : union(fromItem.keySet(), toItem.keySet())) {
+                    if (!Objects.equals(fromItem.get(field), toItem.get(field))) {
+                        Map<String, Object> values = new LinkedHashMap<>();
+                        values.put("from", fromItem.get(field));
+                        values.put("to", toItem.get(field));
+                        fields.put(field, values);
+                    }
+                }
+                if (!fields.isEmpty()) {
+                    changed.put(epicId, fields);
+                }
+            }
+        }
+
+        Map<String, Object> diff = new LinkedHashMap<>();
+        diff.put("fromVersion", fromVersion);
+        diff.put("toVersion", toVersion);
+        diff.put("added", added);
+        diff.put("removed", removed);
+        diff.put("changed", changed);
+        return Optional.of(diff);
+    }
+
+    private boolean exists(Long roadmapId, int versionNumber) {
+        return versionNumber >= 1 && roadmapVersionRepository.findTopByRoadmapIdOrderByVersionNumberDesc(roadmapId)
+                .map(latest -> versionNumber <= latest.getVersionNumber())
+                .orElse(false);
+    }
+
+    // Apply the deltas after the nearest checkpoint
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, Object>> rebuild(Long roadmapId, int versionNumber) {
+        RoadmapVersion checkpoint = roadmapVersionRepository
+                .findTopByRoadmapIdAndCheckpointTrueAndVersionNumberLessThanEqualOrderByVersionNumberDesc(roadmapId, versionNumber)
+                .orElseThrow(() -> new IllegalStateException("No checkpoint for roadmap " + roadmapId + " version " + versionNumber));
+
+        Map<String, Map<String, Object>> items = new TreeMap<>();
+        Map<String, Object> checkpointItems = (Map<String, Object>) read(checkpoint.getPayload()).get("items");
+        checkpointItems.forEach((epicId, fields) -> items.put(epicId, new LinkedHashMap<>((Map<String, Object>) fields)));
+
+        if (versionNumber > checkpoint.getVersionNumber()) {
+            for (RoadmapVersion version : roadmapVersionRepository.findByRoadmapIdAndVersionNumberBetweenOrderByVersionNumberAsc(
+                    roadmapId, checkpoint.getVersionNumber() + 1, versionNumber)) {
+                Map<String, Object> delta = read(version.getPayload());
+                ((List<String>) delta.getOrDefault("removed", List.of())).forEach(items::remove);
+                ((Map<String, Object>) delta.getOrDefault("added", Map.of())).forEach((epicId, fields) ->
+                        items.put(epicId, new LinkedHashMap<>((Map<String, Object>) fields)));
+                ((Map<String, Object>) delta.getOrDefault("changed", Map.of())).forEach((epicId, fields) ->
+                        items.computeIfAbsent(epicId, id -> new LinkedHashMap<>()).putAll((Map<String, Object>) fields));
+            }
+        }
+        return items;
+    }
+
+    private Map<String, Object> delta(Map<String, Map<String, Object>> previous, Map<String, Map<String, Object>> current) {
+        Map<String, Object> added = new TreeMap<>();
+        Map<String, Object> changed = new TreeMap<>();
+        List<String> removed = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> item : current.entrySet()) {
+            Map<String, Object> previousFields = previous.get(item.getKey());
+            if (previousFields == null) {
+                added.put(item.getKey(), item.getValue());
+                continue;
+            }
+            Map<String, Object> changedFields = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> field : item.getValue().entrySet()) {
+                if (!Objects.equals(previousFields.get(field.getKey()), field.getValue())) {
+                    changedFields.put(field.getKey(), field.getValue());
+                }
+            }
+            if (!changedFields.isEmpty()) {
+                changed.put(item.getKey(), changedFields);
+            }
+        }
+        for (String epicId : previous.keySet()) {
+            if (!current.containsKey(epicId)) {
+                removed.add(epicId);
+            }
+        }
+
+        Map<String, Object> delta = new LinkedHashMap<>();
+        if (!added.isEmpty()) {
+            delta.put("added", added);
+        }
+        if (!changed.isEmpty()) {
+            delta.put("changed", changed);
+        }
+        if (!removed.isEmpty()) {
+            delta.put("removed", removed);
+        }
+        return delta;
+    }
+
+    private int changeCount(Map<String, Object> delta) {
+        int count = 0;
+        for (Object part : delta.values()) {
+            count += part instanceof Map ? ((Map<?, ?>) part).size() : ((List<?>) part).size();
+        }
+        return count;
+    }
+
+    // Versioned fields of each item, with dates as ISO strings so they compare equal after a JSON round trip
+    private Map<String, Map<String, Object>> snapshot(List<RoadmapItem> roadmapItems) {
+        Map<String, Map<String, Object>> items = new TreeMap<>();
+        for (RoadmapItem item : roadmapItems) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("epicName", item.getEpicName());
+            fields.put("epicDescription", item.getEpicDescription());
+            fields.put("priority", item.getPriority());
+            fields.put("status", item.getStatus());
+            fields.put("estimatedEffort", item.getEstimatedEffort());
+            fields.put("assignedTeam", item.getAssignedTeam());
+            fields.put("reach", item.getReach());
+            fields.put("impact", item.getImpact());
+            fields.put("confidence", item.getConfidence());
+            fields.put("riceScore", item.getRiceScore());
+            fields.put("effortRating", item.getEffortRating());
+            fields.put("startDate", versionedValue(item.getStartDate()));
+            fields.put("endDate", versionedValue(item.getEndDate()));
+            fields.put("initiativeName", item.getInitiativeName());
+            fields.put("themeName", item.getThemeName());
+            fields.put("themeColor", item.getThemeColor());
+            fields.put("published", item.getPublished());
+            // Duplicate rows for an epic are left over from older saves; keep the first
+            items.putIfAbsent(item.getEpicId(), fields);
+        }
+        return items;
+    }
+
+    // Dates as ISO strings, as they read back from a payload
+    private static Object versionedValue(Object value) {
+        return value instanceof LocalDate ? value.toString() : value;
+    }
+
+    private static TreeSet<String> union(Iterable<String> first, Iterable<String> second) {
+        TreeSet<String> union = new TreeSet<>();
+        first.forEach(union::add);
+        second.forEach(union::add);
+        return union;
+    }
+
+    private String write(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize roadmap version", e);
+        }
+    }
+
+    private Map<String, Object> read(String payload) {
+        try {
+            return objectMapper.readValue(payload, PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not parse roadmap version", e);
+        }
+    }
+}
\ No newline at end of file
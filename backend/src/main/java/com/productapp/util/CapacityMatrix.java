@@ -0,0 +1,331 @@
+package com.productapp.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dense epic x team effort grid of one capacity plan, held in primitive arrays.
+ *
+ * Cells are added through a {@link Builder}; {@link Builder#build()} lays them out as
+ * {@code int[epic][team]} and computes the epic (row) totals, team (column) totals and grand total
+ * in a single pass. Star ratings are derived from the row totals without further allocation per
+ * epic.
+ *
+ * A built matrix is never modified. What-if edits are made on a {@link Scenario} forked from it,
+ * which records only the changed cells and removed epics and shares the grid with the matrix, so
+ * many scenarios can be evaluated against one plan concurrently.
+ */
+public final class CapacityMatrix {
+
+    private final String[] epicIds;
+    private final String[] epicNames;
+    private final long[] teamIds;
+    private final Map<String, Integer> epicIndex;
+    private final Map<Long, Integer> teamIndex;
+    private final int[][] efforts;
+    private final int[] epicTotals;
+    private final int[] teamTotals;
+    private final long grandTotal;
+
+    private CapacityMatrix(String[] epicIds, String[] epicNames, long[] teamIds,
+                           Map<String, Integer> epicIndex, Map<Long, Integer> teamIndex, int[][] efforts) {
+        this.epicIds = epicIds;
+        this.epicNames = epicNames;
+        this.teamIds = teamIds;
+        this.epicIndex = epicIndex;
+        this.teamIndex = teamIndex;
+        this.efforts = efforts;
+        this.epicTotals = new int[epicIds.length];
+        this.teamTotals = new int[teamIds.length];
+
+        long total = 0;
+        for (int epic = 0; epic < efforts.length; epic++) {
+            int[] row = efforts[epic];
+            int rowTotal = 0;
+            for (int team = 0; team < row.length; team++) {
+                rowTotal += row[team];
+                teamTotals[team] += row[team];
+            }
+            epicTotals[epic] = rowTotal;
+            total += rowTotal;
+        }
+        this.grandTotal = total;
+    }
+
+    public int getEpicCount() {
+        return epicIds.length;
+    }
+
+    public int getTeamCount() {
+        return teamIds.length;
+    }
+
+    public String getEpicId(int epic) {
+        return epicIds[epic];
+    }
+
+    public String getEpicName(int epic) {
+        return epicNames[epic];
+    }
+
+    public long getTeamId(int team) {
+        return teamIds[team];
+    }
+
+    /**
+     * Row of the given epic, or -1 if the plan has no cell for it.
+     */
+    public int indexOfEpic(String epicId) {
+        Integer index = epicIndex.get(epicId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Column of the given team, or -1 if the plan has no cell for it.
+     */
+    public int indexOfTeam(long teamId) {
+        Integer index = teamIndex.get(teamId);
+        return index != null ? index : -1;
+    }
+
+    public int getEffort(int epic, int team) {
+        return efforts[epic][team];
+    }
+
+    public int getEpicTotal(int epic) {
+        return epicTotals[epic];
+    }
+
+    public int getTeamTotal(int team) {
+        return teamTotals[team];
+    }
+
+    public long getGrandTotal() {
+        return grandTotal;
+    }
+
+    /**
+     * Star rating (1-5) of every epic's total given the upper bounds of ratings 1 to 4, or 0 where the
+     * epic has no effort. Same bands as EpicEffortRatingService.calculateStarRating.
+     */
+    public int[] starRatings(int star1Max, int star2Max, int star3Max, int star4Max) {
+        return starRatings(epicTotals, star1Max, star2Max, star3Max, star4Max);
+    }
+
+    static int[] starRatings(int[] totals, int star1Max, int star2Max, int star3Max, int star4Max) {
+        int[] ratings = new int[totals.length];
+        for (int epic = 0; epic < totals.length; epic++) {
+            int total = totals[epic];
+            if (total <= 0) {
+                ratings[epic] = 0;
+            } else if (total <= star1Max) {
+                ratings[epic] = 1;
+            } else if (total <= star2Max) {
+                ratings[epic] = 2;
+            } else if (total <= star3Max) {
+                ratings[epic] = 3;
+            } else if (total <= star4Max) {
+                ratings[epic] = 4;
+            } else {
+                ratings[epic] = 5;
+            }
+        }
+        return ratings;
+    }
+
+    /**
+     * A new, unedited scenario over this matrix.
+     */
+    public Scenario fork() {
+        return new Scenario(this);
+    }
+
+    /**
+     * Copy-on-write overlay of a matrix. Edits are kept as a sparse map of changed cells and a set of
+     * removed epics; evaluating starts from the matrix's totals and applies only the differences, so
+     * it costs O(epics + teams + edits) rather than a pass over the grid. A scenario is not thread
+     * safe, but any number of scenarios may share one matrix across threads.
+     */
+    public static final class Scenario {
+
+        private final CapacityMatrix base;
+        // Cell index (epic * teamCount + team) -> effort
+        private final Map<Integer, Integer> cells = new HashMap<>();
+        private boolean[] removedEpics;
+
+        private Scenario(CapacityMatrix base) {
+            this.base = base;
+        }
+
+        public CapacityMatrix getBase() {
+            return base;
+        }
+
+        public Scenario setEffort(int epic, int team, int effort) {
+            cells.put(epic * base.teamIds.length + team, effort);
+            return this;
+        }
+
+        public Scenario removeEpic(int epic) {
+            if (removedEpics == null) {
+                removedEpics = new boolean[base.epicIds.length];
+            }
+            removedEpics[epic] = true;
+            return this;
+        }
+
+        public boolean isRemoved(int epic) {
+            return removedEpics != null && removedEpics[epic];
+        }
+
+        public int getEffort(int epic, int team) {
+            if (isRemoved(epic)) {
+                return 0;
+            }
+            Integer edited = cells.get(epic * base.teamIds.length + team);
+            return edited != null ? edited : base.efforts[epic][team];
+        }
+
+        public Totals evaluate() {
+            int[] epicTotals = base.epicTotals.clone();
+            int[] teamTotals = base.teamTotals.clone();
+            int teamCount = base.teamIds.length;
+            for (Map.Entry<Integer, Integer> cell : cells.entrySet()) {
+                int epic = cell.getKey() / teamCount;
+                int team = cell.getKey() % teamCount;
+                if (isRemoved(epic)) {
+                    continue;
+                }
+                int delta = cell.getValue() - base.efforts[epic][team];
+                epicTotals[epic] += delta;
+                teamTotals[team] += delta;
+            }
+            if (removedEpics != null) {
+                for (int epic = 0; epic < removedEpics.length; epic++) {
+                    if (removedEpics[epic]) {
+                        int[] row = base.efforts[epic];
+                        for (int team = 0; team < teamCount; team++) {
+                            teamTotals[team] -= row[team];
+                        }
+                        epicTotals[epic] = 0;
+                    }
+                }
+            }
+            long grandTotal = 0;
+            for (int total : epicTotals) {
+                grandTotal += total;
+            }
+            return new Totals(epicTotals, teamTotals, grandTotal);
+        }
+    }
+
+    /**
+     * Row, column and grand totals of an evaluated scenario, indexed like the matrix it came from.
+     */
+    public static final class Totals {
+
+        private final int[] epicTotals;
+        private final int[] teamTotals;
+        private final long grandTotal;
+
+        private Totals(int[] epicTotals, int[] teamTotals, long grandTotal) {
+            this.epicTotals = epicTotals;
+            this.teamTotals = teamTotals;
+            this.grandTotal = grandTotal;
+        }
+
+        public int getEpicTotal(int epic) {
+            return epicTotals[epic];
+        }
+
+        public int getTeamTotal(int team) {
+            return teamTotals[team];
+        }
+
+        public long getGrandTotal() {
+            return grandTotal;
+        }
+
+        public int[] starRatings(int star1Max, int star2Max, int star3Max, int star4Max) {
+            return CapacityMatrix.starRatings(epicTotals, star1Max, star2Max, star3Max, star4Max);
+        }
+    }
+
+    /**
+     * Collects cells in the order they are added; epics and teams are indexed on first sight.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> epicIndex = new HashMap<>();
+        private final Map<Long, Integer> teamIndex = new HashMap<>();
+        private String[] epicIds = new String[16];
+        private String[] epicNames = new String[16];
+        private long[] teamIds = new long[8];
+        // Cells as parallel primitive arrays until the grid dimensions are known
+        private int[] cellEpics = new int[64];
+        private int[] cellTeams = new int[64];
+        private int[] cellEfforts = new int[64];
+        private int cellCount;
+
+        public Builder addTeam(long teamId) {
+            teamIndex(teamId);
+            return this;
+        }
+
+        public Builder addCell(String epicId, String epicName, long teamId, int effort) {
+            if (cellCount == cellEfforts.length) {
+                int size = cellCount * 2;
+                cellEpics = Arrays.copyOf(cellEpics, size);
+                cellTeams = Arrays.copyOf(cellTeams, size);
+                cellEfforts = Arrays.copyOf(cellEfforts, size);
+            }
+            cellEpics[cellCount] = epicIndex(epicId, epicName);
+            cellTeams[cellCount] = teamIndex(teamId);
+            cellEfforts[cellCount] = effort;
+            cellCount++;
+            return this;
+        }
+
+        public CapacityMatrix build() {
+            int epics = epicIndex.size();
+            int teams = teamIndex.size();
+            int[][] grid = new int[epics][teams];
+            for (int cell = 0; cell < cellCount; cell++) {
+                grid[cellEpics[cell]][cellTeams[cell]] += cellEfforts[cell];
+            }
+            return new CapacityMatrix(Arrays.copyOf(epicIds, epics), Arrays.copyOf(epicNames, epics),
+                    Arrays.copyOf(teamIds, teams), new HashMap<>(epicIndex), new HashMap<>(teamIndex), grid);
+        }
+
+        private int epicIndex(String epicId, String epicName) {
+            Integer index = epicIndex.get(epicId);
+            if (index != null) {
+                return index;
+            }
+            int next = epicIndex.size();
+            if (next == epicIds.length) {
+                epicIds = Arrays.copyOf(epicIds, next * 2);
+                epicNames = Arrays.copyOf(epicNames, next * 2);
+            }
+            epicIds[next] = epicId;
+            epicNames[next] = epicName;
+            epicIndex.put(epicId, next);
+            return next;
+        }
+
+        private int teamIndex(long teamId) {
+            Integer index = teamIndex.get(teamId);
+            if (index != null) {
+                return index;
+            }
+            int next = teamIndex.size();
+            if (next == teamIds.length) {
+                teamIds = Arrays.copyOf(teamIds, next * 2);
+            }
+            teamIds[next] = teamId;
+            teamIndex.put(teamId, next);
+            return next;
+        }
+    }
+}
\ No newline at end of file
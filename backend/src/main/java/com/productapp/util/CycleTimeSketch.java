@@ -0,0 +1,92 @@
+package com.productapp.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch for cycle times, stored alongside each day's flow metrics.
+ *
+ * Values are counted in logarithmic buckets whose bounds grow by a constant factor, so any
+ * quantile is reported within {@link #RELATIVE_ACCURACY} of the true value. Sketches of different
+ * days are merged by adding bucket counts, which makes rolling windows cheap to compute.
+ */
+public final class CycleTimeSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.02;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    // Anything shorter than a minute is counted as one minute
+    private static final double MIN_HOURS = 1.0 / 60;
+
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long count;
+
+    public void add(double hours) {
+        int index = (int) Math.ceil(Math.log(Math.max(hours, MIN_HOURS)) / LOG_GAMMA);
+        buckets.merge(index, 1L, Long::sum);
+        count++;
+    }
+
+    public void merge(CycleTimeSketch other) {
+        for (Map.Entry<Integer, Long> bucket : other.buckets.entrySet()) {
+            buckets.merge(bucket.getKey(), bucket.getValue(), Long::sum);
+        }
+        count += other.count;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Estimate the {@code q}-quantile (0 to 1) in hours, or null if the sketch is empty.
+     */
+    public Double quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = (long) Math.floor(Math.min(Math.max(q, 0), 1) * (count - 1));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return bucketValue(bucket.getKey());
+            }
+        }
+        return bucketValue(buckets.lastKey());
+    }
+
+    /**
+     * Compact text form: "index:count" pairs separated by commas.
+     */
+    public String encode() {
+        StringBuilder encoded = new StringBuilder();
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            if (encoded.length() > 0) {
+                encoded.append(',');
+            }
+            encoded.append(bucket.getKey()).append(':').append(bucket.getValue());
+        }
+        return encoded.toString();
+    }
+
+    public static CycleTimeSketch decode(String encoded) {
+        CycleTimeSketch sketch = new CycleTimeSketch();
+        if (encoded == null || encoded.isEmpty()) {
+            return sketch;
+        }
+        for (String pair : encoded.split(",")) {
+            int separator = pair.indexOf(':');
+            long bucketCount = Long.parseLong(pair.substring(separator + 1));
+            sketch.buckets.merge(Integer.parseInt(pair.substring(0, separator)), bucketCount, Long::sum);
+            sketch.count += bucketCount;
+        }
+        return sketch;
+    }
+
+    // Midpoint of the bucket (gamma^(i-1), gamma^i], within the relative accuracy of every value in it
+    private static double bucketValue(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.productapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lexicographic rank keys used to order Kanban cards within a column.
+ *
+ * Keys are base-36 strings ('0'-'9', 'a'-'z') compared as plain strings. A key can always be
+ * generated between any two existing keys, so moving a card only rewrites the moved card.
+ * Keys never end in '0', which guarantees there is always room before any key.
+ */
+public final class RankKeyUtil {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    private static final char ZERO = DIGITS.charAt(0);
+
+    /** Keys longer than this should be rebalanced for the column they belong to. */
+    public static final int MAX_KEY_LENGTH = 16;
+
+    private RankKeyUtil() {
+    }
+
+    /**
+     * Generate a key strictly between {@code before} and {@code after}.
+     * Either bound may be null to mean the start or the end of the column.
+     */
+    public static String between(String before, String after) {
+        String lower = before == null ? "" : before;
+        if (after != null && lower.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Rank key '" + lower + "' must sort before '" + after + "'");
+        }
+        if (endsWithZero(lower) || endsWithZero(after)) {
+            throw new IllegalArgumentException("Rank keys must not end with '" + ZERO + "'");
+        }
+        return midpoint(lower, after);
+    }
+
+    /**
+     * Generate {@code count} ascending keys strictly between {@code before} and {@code after}.
+     * Keys are produced by bisection so their length grows with log(count) rather than count.
+     */
+    public static List<String> between(String before, String after, int count) {
+        List<String> keys = new ArrayList<>(count);
+        fillBetween(before, after, count, keys);
+        return keys;
+    }
+
+    /**
+     * Generate {@code count} evenly spaced keys of equal length, used when rebalancing a column.
+     */
+    public static List<String> evenlySpaced(int count) {
+        List<String> keys = new ArrayList<>(count);
+        if (count <= 0) {
+            return keys;
+        }
+
+        // Pick a width that leaves at least 36 slots between neighbouring keys
+        int width = 1;
+        long capacity = BASE;
+        while (capacity / (count + 1) < BASE) {
+            width++;
+            capacity *= BASE;
+        }
+
+        long step = capacity / (count + 1);
+        for (int i = 1; i <= count; i++) {
+            keys.add(stripTrailingZeros(toFixedWidth(step * i, width)));
+        }
+        return keys;
+    }
+
+    public static boolean needsRebalance(String key) {
+        return key != null && key.length() > MAX_KEY_LENGTH;
+    }
+
+    private static void fillBetween(String before, String after, int count, List<String> keys) {
+        if (count <= 0) {
+            return;
+        }
+        String mid = between(before, after);
+        int leftCount = (count - 1) / 2;
+        fillBetween(before, mid, leftCount, keys);
+        keys.add(mid);
+        fillBetween(mid, after, count - 1 - leftCount, keys);
+    }
+
+    private static String midpoint(String a, String b) {
+        if (b != null) {
+            // Keep the common prefix and recurse on the remainder
+            int n = 0;
+            while (n < b.length() && charAt(a, n) == b.charAt(n)) {
+                n++;
+            }
+            if (n > 0) {
+                return b.substring(0, n) + midpoint(a.length() > n ? a.substring(n) : "", b.substring(n));
+            }
+        }
+
+        int digitA = a.isEmpty() ? 0 : DIGITS.indexOf(a.charAt(0));
+        int digitB = b != null ? DIGITS.indexOf(b.charAt(0)) : BASE;
+        if (digitB - digitA > 1) {
+            return String.valueOf(DIGITS.charAt(Math.round(0.5f * (digitA + digitB))));
+        }
+
+        // First digits are adjacent
+        if (b != null && b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(digitA) + midpoint(a.length() > 1 ? a.substring(1) : "", null);
+    }
+
+    private static char charAt(String value, int index) {
+        return index < value.length() ? value.charAt(index) : ZERO;
+    }
+
+    private static boolean endsWithZero(String key) {
+        return key != null && !key.isEmpty() && key.charAt(key.length() - 1) == ZERO;
+    }
+
+    private static String toFixedWidth(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(chars);
+    }
+
+    private static String stripTrailingZeros(String key) {
+        int end = key.length();
+        while (end > 1 && key.charAt(end - 1) == ZERO) {
+            end--;
+        }
+        return key.substring(0, end);
+    }
+}
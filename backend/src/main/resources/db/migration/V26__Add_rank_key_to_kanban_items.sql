@@ -0,0 +1,14 @@
+-- Order Kanban cards by a lexicographic rank key instead of a dense integer position.
+-- A move then only rewrites the moved card; the integer position is kept for compatibility.
+ALTER TABLE kanban_items
+ADD COLUMN rank_key VARCHAR(64) COLLATE utf8mb4_bin;
+
+-- Backfill keys from the current positions, spaced 36^3 apart and never ending in '0'
+UPDATE kanban_items k
+JOIN (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY product_id, status ORDER BY position, id) AS rn
+    FROM kanban_items
+) ranked ON k.id = ranked.id
+SET k.rank_key = LPAD(LOWER(CONV(ranked.rn * 46656 + 18, 10, 36)), 6, '0');
+
+ALTER TABLE kanban_items ADD INDEX idx_kanban_items_product_status_rank (product_id, status, rank_key);
@@ -0,0 +1,34 @@
+-- Record when a card entered DONE so finished cards can be archived after a retention period
+ALTER TABLE kanban_items
+ADD COLUMN completed_at TIMESTAMP NULL;
+
+UPDATE kanban_items
+SET completed_at = COALESCE(updated_at, CURRENT_TIMESTAMP)
+WHERE status = 'DONE';
+
+ALTER TABLE kanban_items ADD INDEX idx_kanban_items_status_completed (status, completed_at);
+
+-- Cards done for longer than the retention period are moved here, keeping kanban_items small
+CREATE TABLE IF NOT EXISTS kanban_items_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    status VARCHAR(50) NOT NULL,
+    rank_key VARCHAR(64) COLLATE utf8mb4_bin,
+    priority VARCHAR(20),
+    assignee VARCHAR(255),
+    due_date TIMESTAMP NULL,
+    labels VARCHAR(500),
+    epic_id VARCHAR(255),
+    story_points INT,
+    product_id BIGINT,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    created_by VARCHAR(255),
+    started_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_kanban_items_archive_product (product_id, id),
+    INDEX idx_kanban_items_archive_product_epic (product_id, epic_id)
+);
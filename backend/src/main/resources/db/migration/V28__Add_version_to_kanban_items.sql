@@ -0,0 +1,3 @@
+-- Optimistic locking for Kanban cards: concurrent moves of the same card fail fast instead of overwriting each other
+ALTER TABLE kanban_items
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
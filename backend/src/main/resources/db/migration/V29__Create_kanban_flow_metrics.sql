@@ -0,0 +1,51 @@
+-- When a card first entered IN_PROGRESS; cycle time runs from here to completed_at
+ALTER TABLE kanban_items
+ADD COLUMN started_at TIMESTAMP NULL;
+
+-- Append-only log of Kanban status transitions
+CREATE TABLE IF NOT EXISTS kanban_status_transitions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    from_status VARCHAR(50),
+    to_status VARCHAR(50) NOT NULL,
+    transitioned_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_kanban_transitions_product_time (product_id, transitioned_at),
+    INDEX idx_kanban_transitions_item (item_id)
+);
+
+-- Per-product daily throughput and cycle-time sketch, updated as cards reach DONE
+CREATE TABLE IF NOT EXISTS kanban_flow_daily (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    completed_count INT NOT NULL DEFAULT 0,
+    cycle_time_sketch TEXT,
+    UNIQUE KEY uk_kanban_flow_daily_product_day (product_id, day)
+);
+
+-- Live count of cards per product and active column
+CREATE TABLE IF NOT EXISTS kanban_wip_counters (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    item_count INT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_kanban_wip_counters_product_status (product_id, status)
+);
+
+-- Seed the aggregates from the current cards; cycle times are only known for cards finished from now on
+INSERT INTO kanban_wip_counters (product_id, status, item_count)
+SELECT product_id, status, COUNT(*)
+FROM kanban_items
+WHERE status <> 'DONE' AND product_id IS NOT NULL
+GROUP BY product_id, status;
+
+INSERT INTO kanban_flow_daily (product_id, day, completed_count)
+SELECT product_id, DATE(completed_at), COUNT(*)
+FROM (
+    SELECT product_id, completed_at FROM kanban_items WHERE status = 'DONE'
+    UNION ALL
+    SELECT product_id, completed_at FROM kanban_items_archive
+) done_items
+WHERE completed_at IS NOT NULL AND product_id IS NOT NULL
+GROUP BY product_id, DATE(completed_at);
@@ -0,0 +1,35 @@
+-- Materialized total effort and star rating per epic of a capacity plan, maintained on capacity plan
+-- and effort rating config writes so roadmap reads do not regroup every epic effort
+CREATE TABLE epic_effort_ratings (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    capacity_plan_id BIGINT NOT NULL,
+    epic_id VARCHAR(255) NOT NULL,
+    total_effort INT NOT NULL DEFAULT 0,
+    star_rating INT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    
+    FOREIGN KEY (capacity_plan_id) REFERENCES capacity_plans(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_epic_effort_ratings_plan_epic (capacity_plan_id, epic_id)
+);
+
+-- Backfill from existing efforts, rating with the config matching the plan's effort unit or the product's first config
+INSERT INTO epic_effort_ratings (capacity_plan_id, epic_id, total_effort, star_rating)
+SELECT totals.capacity_plan_id, totals.epic_id, totals.total_effort,
+       CASE
+           WHEN c.id IS NULL OR totals.total_effort <= 0 THEN NULL
+           WHEN totals.total_effort <= c.star_1_max THEN 1
+           WHEN totals.total_effort <= c.star_2_max THEN 2
+           WHEN totals.total_effort <= c.star_3_max THEN 3
+           WHEN totals.total_effort <= c.star_4_max THEN 4
+           ELSE 5
+       END
+FROM (
+    SELECT capacity_plan_id, epic_id, SUM(effort_days) AS total_effort
+    FROM epic_efforts
+    GROUP BY capacity_plan_id, epic_id
+) totals
+JOIN capacity_plans cp ON cp.id = totals.capacity_plan_id
+LEFT JOIN effort_rating_configs c ON c.id = COALESCE(
+    (SELECT MIN(m.id) FROM effort_rating_configs m WHERE m.product_id = cp.product_id AND m.unit_type = cp.effort_unit),
+    (SELECT MIN(f.id) FROM effort_rating_configs f WHERE f.product_id = cp.product_id)
+);
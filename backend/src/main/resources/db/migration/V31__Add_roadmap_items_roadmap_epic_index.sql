@@ -0,0 +1,6 @@
+-- Covering index for the distinct epic IDs assigned across a product's quarters: the join from
+-- quarterly_roadmap reads epic_id straight from the index. It also serves the roadmap_id foreign key,
+-- so the single-column index is no longer needed.
+CREATE INDEX idx_roadmap_items_roadmap_epic ON roadmap_items (roadmap_id, epic_id);
+
+DROP INDEX idx_roadmap_id ON roadmap_items;
\ No newline at end of file
@@ -0,0 +1,16 @@
+-- History of quarterly roadmap saves. Most rows hold only the fields that changed per epic since the
+-- previous version; every few versions a checkpoint holds the whole plan, so rebuilding any version
+-- reads one checkpoint and the deltas after it.
+CREATE TABLE roadmap_versions (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    roadmap_id BIGINT NOT NULL,
+    version_number INT NOT NULL,
+    checkpoint BOOLEAN NOT NULL DEFAULT FALSE,
+    change_count INT NOT NULL DEFAULT 0,
+    payload MEDIUMTEXT NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    FOREIGN KEY (roadmap_id) REFERENCES quarterly_roadmap(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_roadmap_versions_roadmap_version (roadmap_id, version_number),
+    INDEX idx_roadmap_versions_roadmap_created (roadmap_id, created_at)
+);
\ No newline at end of file
@@ -0,0 +1,3 @@
+-- The save path upserts efforts on uk_epic_efforts_plan_epic_team (capacity_plan_id, epic_id, team_id). Its
+-- capacity_plan_id prefix serves the plan lookups and the foreign key, so the single-column index is redundant.
+DROP INDEX idx_epic_efforts_capacity_plan ON epic_efforts;
\ No newline at end of file
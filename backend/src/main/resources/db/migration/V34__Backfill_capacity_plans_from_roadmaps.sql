@@ -0,0 +1,19 @@
+-- Capacity plan reads no longer create plans or cells; they are created when a roadmap is saved.
+-- Backfill the plans and zero-effort cells that the old read path would have created.
+INSERT INTO capacity_plans (product_id, year, quarter, created_at, updated_at)
+SELECT q.product_id, q.year, q.quarter, NOW(), NOW()
+FROM quarterly_roadmap q
+WHERE EXISTS (SELECT 1 FROM roadmap_items ri WHERE ri.roadmap_id = q.id)
+  AND NOT EXISTS (
+      SELECT 1 FROM capacity_plans cp
+      WHERE cp.product_id = q.product_id AND cp.year = q.year AND cp.quarter = q.quarter
+  );
+
+INSERT INTO epic_efforts (capacity_plan_id, epic_id, epic_name, team_id, effort_days, created_at, updated_at)
+SELECT cp.id, ri.epic_id, MIN(ri.epic_name), t.id, 0, NOW(), NOW()
+FROM capacity_plans cp
+JOIN quarterly_roadmap q ON q.product_id = cp.product_id AND q.year = cp.year AND q.quarter = cp.quarter
+JOIN roadmap_items ri ON ri.roadmap_id = q.id
+JOIN teams t ON t.product_id = cp.product_id AND t.is_active = TRUE
+WHERE NOT EXISTS (SELECT 1 FROM epic_efforts ee WHERE ee.capacity_plan_id = cp.id AND ee.epic_id = ri.epic_id)
+GROUP BY cp.id, ri.epic_id, t.id;
\ No newline at end of file
@@ -0,0 +1,13 @@
+-- An epic ID appears at most once per product backlog. Concurrent creates could insert the same epic
+-- twice, so duplicates are removed first, keeping the oldest row of each epic.
+DELETE duplicate FROM backlog_epics duplicate
+JOIN backlog_epics original
+  ON original.product_id = duplicate.product_id
+ AND original.epic_id = duplicate.epic_id
+ AND original.id < duplicate.id;
+
+-- Lookups of a single backlog epic by product and epic ID, used by the per-epic backlog endpoints.
+-- It also serves the product_id foreign key, so the single-column index is no longer needed.
+CREATE UNIQUE INDEX idx_backlog_epics_product_epic ON backlog_epics (product_id, epic_id);
+
+DROP INDEX idx_backlog_epics_product_id ON backlog_epics;
\ No newline at end of file
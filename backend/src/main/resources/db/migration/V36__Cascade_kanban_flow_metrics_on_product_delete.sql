@@ -0,0 +1,14 @@
+-- Flow metrics of a deleted product go with it, as its cards already do, so WIP counters cannot
+-- outlive the cards they count. Rows left behind by products deleted so far are removed first.
+DELETE FROM kanban_wip_counters WHERE product_id NOT IN (SELECT id FROM products);
+DELETE FROM kanban_flow_daily WHERE product_id NOT IN (SELECT id FROM products);
+DELETE FROM kanban_status_transitions WHERE product_id NOT IN (SELECT id FROM products);
+
+ALTER TABLE kanban_wip_counters
+ADD CONSTRAINT fk_kanban_wip_counters_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE;
+
+ALTER TABLE kanban_flow_daily
+ADD CONSTRAINT fk_kanban_flow_daily_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE;
+
+ALTER TABLE kanban_status_transitions
+ADD CONSTRAINT fk_kanban_status_transitions_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE;
\ No newline at end of file
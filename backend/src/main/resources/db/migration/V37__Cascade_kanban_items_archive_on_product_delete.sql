@@ -0,0 +1,6 @@
+-- Archived cards of a deleted product go with it, as its live cards already do. Archived rows left
+-- behind by products deleted so far are removed first.
+DELETE FROM kanban_items_archive WHERE product_id NOT IN (SELECT id FROM products);
+
+ALTER TABLE kanban_items_archive
+ADD CONSTRAINT fk_kanban_items_archive_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE;
\ No newline at end of file
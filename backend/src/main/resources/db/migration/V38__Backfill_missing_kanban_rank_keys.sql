@@ -0,0 +1,14 @@
+-- Re-key every column that still has cards without a rank key, as rebalancing it would, so reading
+-- a column never has to write. Cards keep their current order (missing keys sort first) and get
+-- keys in the V26 format, spaced 36^3 apart and never ending in '0'.
+UPDATE kanban_items k
+JOIN (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY product_id, status ORDER BY rank_key, position, id) AS rn
+    FROM kanban_items
+    WHERE (product_id, status) IN (
+        SELECT product_id, status FROM (
+            SELECT DISTINCT product_id, status FROM kanban_items WHERE rank_key IS NULL
+        ) unranked
+    )
+) ranked ON k.id = ranked.id
+SET k.rank_key = LPAD(LOWER(CONV(ranked.rn * 46656 + 18, 10, 36)), 6, '0');
\ No newline at end of file
@@ -5,6 +5,7 @@ CREATE TABLE IF NOT EXISTS kanban_items (
     description TEXT,
     status VARCHAR(50) NOT NULL,
     position INT,
+    rank_key VARCHAR(64) COLLATE utf8mb4_bin,
     priority VARCHAR(20),
     assignee VARCHAR(255),
     due_date TIMESTAMP,
@@ -15,5 +16,36 @@ CREATE TABLE IF NOT EXISTS kanban_items (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     created_by VARCHAR(255),
-    FOREIGN KEY (product_id) REFERENCES products(product_id) ON DELETE CASCADE
+    completed_at TIMESTAMP NULL,
+    started_at TIMESTAMP NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    FOREIGN KEY (product_id) REFERENCES products(product_id) ON DELETE CASCADE,
+    INDEX idx_kanban_items_product_status_rank (product_id, status, rank_key),
+    INDEX idx_kanban_items_status_completed (status, completed_at)
+);
+
+-- Create kanban_items_archive table for cards done longer than the retention period
+CREATE TABLE IF NOT EXISTS kanban_items_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    status VARCHAR(50) NOT NULL,
+    rank_key VARCHAR(64) COLLATE utf8mb4_bin,
+    priority VARCHAR(20),
+    assignee VARCHAR(255),
+    due_date TIMESTAMP NULL,
+    labels VARCHAR(500),
+    epic_id VARCHAR(255),
+    story_points INT,
+    product_id BIGINT,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    created_by VARCHAR(255),
+    started_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE,
+    INDEX idx_kanban_items_archive_product (product_id, id),
+    INDEX idx_kanban_items_archive_product_epic (product_id, epic_id)
 );
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.productapp.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productapp.entity.BacklogEpic;
+import com.productapp.repository.BacklogEpicRepository;
+import com.productapp.service.BacklogEpicService;
+import com.productapp.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BacklogEpicV4ControllerTest {
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final Long USER_ID = 2L;
+
+    @Mock
+    private BacklogEpicRepository backlogEpicRepository;
+
+    @Mock
+    private BacklogEpicService backlogEpicService;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private BacklogEpicV4Controller controller;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+    }
+
+    @Test
+    void parseSelectsAllFieldsWhenNoneAreGiven() {
+        assertEquals(EnumSet.allOf(BacklogEpicV4Controller.Field.class), BacklogEpicV4Controller.Field.parse(null));
+        assertEquals(EnumSet.allOf(BacklogEpicV4Controller.Field.class), BacklogEpicV4Controller.Field.parse(" "));
+    }
+
+    @Test
+    void parseMatchesJsonNamesAndIgnoresBlanksAndDuplicates() {
+        assertEquals(EnumSet.of(BacklogEpicV4Controller.Field.ID, BacklogEpicV4Controller.Field.THEME_NAME),
+                BacklogEpicV4Controller.Field.parse(" themeName , id,,id "));
+    }
+
+    @Test
+    void parseRejectsUnknownFields() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BacklogEpicV4Controller.Field.parse("id,THEME_NAME"));
+        assertEquals("Unknown epic field: THEME_NAME", e.getMessage());
+    }
+
+    @Test
+    void streamedEpicsHoldOnlyTheSelectedFieldsInDeclarationOrder() throws Exception {
+        when(jwtUtil.getUserIdFromJwtToken("token")).thenReturn(USER_ID);
+        when(backlogEpicRepository.findByProductId(PRODUCT_ID)).thenReturn(List.of(epic("e-1", "First"), epic("e-2", null)));
+
+        JsonNode body = read(controller.getBacklogEpics(PRODUCT_ID, "name,id", request));
+
+        assertEquals(PRODUCT_ID.longValue(), body.get("productId").asLong());
+        JsonNode epics = body.get("epics");
+        assertEquals(2, epics.size());
+        assertEquals(List.of("id", "name"), fieldNames(epics.get(0)));
+        assertEquals("e-1", epics.get(0).get("id").asText());
+        assertEquals("First", epics.get(0).get("name").asText());
+        assertTrue(epics.get(1).get("name").isNull());
+    }
+
+    @Test
+    void unknownFieldIsRejectedBeforeTheBacklogIsRead() {
+        ResponseEntity<?> response = controller.getBacklogEpics(PRODUCT_ID, "id,secret", request);
+
+        assertEquals(400, response.getStatusCode().value());
+        verify(backlogEpicService, never()).getOwnedProduct(any(), any());
+        verify(backlogEpicRepository, never()).findByProductId(any());
+    }
+
+    private JsonNode read(ResponseEntity<?> response) throws Exception {
+        assertEquals(200, response.getStatusCode().value());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static BacklogEpic epic(String epicId, String name) {
+        BacklogEpic epic = new BacklogEpic();
+        epic.setEpicId(epicId);
+        epic.setEpicName(name);
+        return epic;
+    }
+}
\ No newline at end of file
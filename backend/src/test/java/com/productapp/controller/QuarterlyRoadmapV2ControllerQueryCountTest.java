@@ -0,0 +1,183 @@
+package com.productapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productapp.dto.QuarterlyRoadmapRequest;
+import com.productapp.dto.QuarterlyRoadmapResponse;
+import com.productapp.entity.BacklogEpic;
+import com.productapp.entity.Product;
+import com.productapp.entity.QuarterlyRoadmap;
+import com.productapp.entity.RoadmapItem;
+import com.productapp.entity.Theme;
+import com.productapp.entity.User;
+import com.productapp.model.Organization;
+import com.productapp.service.EpicEffortRatingService;
+import com.productapp.service.QuarterlyRoadmapService;
+import com.productapp.service.RoadmapVersionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A quarter's roadmap resolves the epic, initiative and theme details of its items with a fixed
+ * set of queries, whatever the number of items: growing the roadmap must not add statements.
+ *
+ * The controller runs outside a transaction, as it does when serving a request, so the fixture is
+ * committed through a TransactionTemplate rather than the test-managed transaction.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QuarterlyRoadmapV2Controller.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:roadmap;MODE=MySQL;NON_KEYWORDS=YEAR,DAY,VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QuarterlyRoadmapV2ControllerQueryCountTest {
+
+    private static final long MAX_ROADMAP_STATEMENTS = 4;
+
+    @Autowired
+    private QuarterlyRoadmapV2Controller controller;
+
+    @MockBean
+    private QuarterlyRoadmapService quarterlyRoadmapService;
+
+    @MockBean
+    private EpicEffortRatingService epicEffortRatingService;
+
+    @MockBean
+    private RoadmapVersionService roadmapVersionService;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private TransactionTemplate transaction;
+    private Product product;
+    private QuarterlyRoadmap roadmap;
+    private Theme[] themes;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> createProduct());
+    }
+
+    // A product with three themes and an empty Q1 2025 roadmap
+    private void createProduct() {
+        Organization organization = new Organization("Acme", null);
+        organization.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(organization);
+
+        User user = new User("owner@example.com", "secret");
+        user.setOrganization(organization);
+        user.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(user);
+
+        product = new Product("Roadmap", user);
+        product.setOrganization(organization);
+        product.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(product);
+
+        themes = new Theme[3];
+        for (int i = 0; i < themes.length; i++) {
+            themes[i] = new Theme(product, "Theme " + i, null, "#00000" + i);
+            themes[i].setCreatedAt(LocalDateTime.now());
+            entityManager.persist(themes[i]);
+        }
+
+        roadmap = new QuarterlyRoadmap();
+        roadmap.setProductId(product.getId());
+        roadmap.setYear(2025);
+        roadmap.setQuarter(1);
+        entityManager.persist(roadmap);
+    }
+
+    @Test
+    void roadmapLoadsInConstantNumberOfStatements() {
+        transaction.executeWithoutResult(status -> addItems(0, 3));
+        long smallRoadmap = countRoadmapStatements(3);
+
+        transaction.executeWithoutResult(status -> addItems(3, 80));
+        long largeRoadmap = countRoadmapStatements(80);
+
+        assertEquals(smallRoadmap, largeRoadmap, "roadmap statements grew with the number of items");
+        assertTrue(largeRoadmap <= MAX_ROADMAP_STATEMENTS, "roadmap took " + largeRoadmap + " statements");
+    }
+
+    // Statements run by one roadmap load
+    private long countRoadmapStatements(int expectedItems) {
+        statistics.clear();
+        ResponseEntity<QuarterlyRoadmapResponse> response = controller.getRoadmap(product.getId(), 2025, 1, false);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(expectedItems, response.getBody().getRoadmapItems().size());
+        // Theme details come from the current themes, not from the values stored on the item
+        for (QuarterlyRoadmapRequest.RoadmapItem item : response.getBody().getRoadmapItems()) {
+            int index = Integer.parseInt(item.getEpicId().substring("epic-".length()));
+            assertEquals("Theme " + index % themes.length, item.getThemeName());
+            assertEquals("Initiative " + index, item.getInitiativeName());
+        }
+        return statements;
+    }
+
+    // One backlog epic with a theme and one roadmap item for each index in [from, to)
+    private void addItems(int from, int to) {
+        Product owner = entityManager.getReference(Product.class, product.getId());
+        QuarterlyRoadmap quarter = entityManager.getReference(QuarterlyRoadmap.class, roadmap.getId());
+        for (int i = from; i < to; i++) {
+            Theme theme = themes[i % themes.length];
+
+            BacklogEpic epic = new BacklogEpic();
+            epic.setProduct(owner);
+            epic.setEpicId("epic-" + i);
+            epic.setEpicName("Epic " + i);
+            epic.setThemeId(String.valueOf(theme.getId()));
+            epic.setThemeName("Stale theme");
+            epic.setInitiativeName("Initiative " + i);
+            entityManager.persist(epic);
+
+            RoadmapItem item = new RoadmapItem();
+            item.setRoadmap(quarter);
+            item.setEpicId("epic-" + i);
+            item.setEpicName("Epic " + i);
+            item.setThemeName("Stale theme");
+            item.setStatus("Committed");
+            entityManager.persist(item);
+        }
+    }
+}
\ No newline at end of file
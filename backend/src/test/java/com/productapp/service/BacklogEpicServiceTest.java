@@ -0,0 +1,181 @@
+package com.productapp.service;
+
+import com.productapp.dto.EpicDto;
+import com.productapp.entity.BacklogEpic;
+import com.productapp.entity.Product;
+import com.productapp.event.KanbanBoardEvent;
+import com.productapp.exception.DuplicateResourceException;
+import com.productapp.repository.BacklogEpicRepository;
+import com.productapp.repository.EpicEffortRatingRepository;
+import com.productapp.repository.EpicEffortRepository;
+import com.productapp.repository.RoadmapItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BacklogEpicServiceTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    @Mock
+    private BacklogEpicRepository backlogEpicRepository;
+
+    @Mock
+    private RoadmapItemRepository roadmapItemRepository;
+
+    @Mock
+    private EpicEffortRepository epicEffortRepository;
+
+    @Mock
+    private EpicEffortRatingRepository epicEffortRatingRepository;
+
+    @Mock
+    private RoadmapVersionService roadmapVersionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BacklogEpicService backlogEpicService;
+
+    @Captor
+    private ArgumentCaptor<Iterable<BacklogEpic>> saved;
+
+    @Captor
+    private ArgumentCaptor<Iterable<BacklogEpic>> deleted;
+
+    private Product product;
+    private BacklogEpic alpha;
+    private BacklogEpic beta;
+    private BacklogEpic gamma;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product();
+        product.setId(PRODUCT_ID);
+        alpha = epic("alpha", "Alpha");
+        beta = epic("beta", "Beta");
+        gamma = epic("gamma", "Gamma");
+    }
+
+    @Test
+    void applyChangesWritesChangedEpicsAndDeletesOnlyListedOnes() {
+        when(backlogEpicRepository.findByProductId(PRODUCT_ID)).thenReturn(List.of(alpha, beta, gamma));
+        when(roadmapItemRepository.findDistinctRoadmapIdsByEpicIdInAndProductId(List.of("gamma"), PRODUCT_ID)).thenReturn(List.of(7L));
+
+        List<BacklogEpic> result = backlogEpicService.applyChanges(product,
+                List.of(dto("alpha", "Alpha"), dto("beta", "Beta v2"), dto("delta", "Delta")),
+                List.of("gamma", "beta", "unknown"));
+
+        verify(backlogEpicRepository).saveAll(saved.capture());
+        assertEquals(List.of("beta", "delta"), epicIds(saved.getValue()));
+        assertEquals("Beta v2", beta.getEpicName());
+        verify(backlogEpicRepository).deleteAllInBatch(deleted.capture());
+        assertEquals(List.of("gamma"), epicIds(deleted.getValue()));
+        verify(roadmapItemRepository).deleteByEpicIdInAndProductId(List.of("gamma"), PRODUCT_ID);
+        verify(epicEffortRepository).deleteByEpicIdInAndProductId(List.of("gamma"), PRODUCT_ID);
+        verify(epicEffortRatingRepository).deleteByEpicIdInAndProductId(List.of("gamma"), PRODUCT_ID);
+        verify(roadmapVersionService).recordVersions(Set.of(7L));
+        ArgumentCaptor<KanbanBoardEvent> event = ArgumentCaptor.forClass(KanbanBoardEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(KanbanBoardEvent.Type.BOARD_CHANGED, event.getValue().getType());
+        assertEquals(List.of("alpha", "beta", "delta"), epicIds(result));
+        assertSame(product, result.get(2).getProduct());
+    }
+
+    @Test
+    void applyChangesLeavesUnlistedEpicsAndSkipsTheCascadeWithoutDeletes() {
+        when(backlogEpicRepository.findByProductId(PRODUCT_ID)).thenReturn(List.of(alpha, beta));
+
+        List<BacklogEpic> result = backlogEpicService.applyChanges(product,
+                List.of(dto("alpha", "First"), dto("alpha", "Second")), null);
+
+        verify(backlogEpicRepository).saveAll(saved.capture());
+        assertEquals(List.of("alpha"), epicIds(saved.getValue()));
+        assertEquals("Second", alpha.getEpicName());
+        verify(backlogEpicRepository, never()).deleteAllInBatch(any());
+        verify(roadmapItemRepository, never()).deleteByEpicIdInAndProductId(anyCollection(), any());
+        verify(roadmapVersionService, never()).recordVersions(anyCollection());
+        verify(eventPublisher, never()).publishEvent(any());
+        assertEquals(List.of("alpha", "beta"), epicIds(result));
+    }
+
+    @Test
+    void replaceEpicsDeletesEpicsMissingFromTheList() {
+        when(backlogEpicRepository.findByProductId(PRODUCT_ID)).thenReturn(List.of(alpha, beta, gamma));
+        when(roadmapItemRepository.findDistinctRoadmapIdsByEpicIdInAndProductId(anyList(), any())).thenReturn(List.of());
+
+        List<BacklogEpic> result = backlogEpicService.replaceEpics(product, List.of(dto("beta", "Beta")));
+
+        verify(backlogEpicRepository).saveAll(saved.capture());
+        assertEquals(List.of(), epicIds(saved.getValue()));
+        verify(backlogEpicRepository).deleteAllInBatch(deleted.capture());
+        assertEquals(List.of("alpha", "gamma"), epicIds(deleted.getValue()));
+        verify(roadmapItemRepository).deleteByEpicIdInAndProductId(List.of("alpha", "gamma"), PRODUCT_ID);
+        assertEquals(List.of("beta"), epicIds(result));
+    }
+
+    @Test
+    void applyChangesRejectsEpicsWithoutId() {
+        when(backlogEpicRepository.findByProductId(PRODUCT_ID)).thenReturn(List.of(alpha));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> backlogEpicService.applyChanges(product, List.of(dto(" ", "Blank")), List.of("alpha")));
+        verify(backlogEpicRepository, never()).saveAll(any());
+        verify(backlogEpicRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void concurrentlyCreatedEpicIsReportedAsDuplicate() {
+        when(backlogEpicRepository.findByProductId(PRODUCT_ID)).thenReturn(List.of());
+        when(backlogEpicRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(DuplicateResourceException.class,
+                () -> backlogEpicService.applyChanges(product, List.of(dto("alpha", "Alpha")), List.of()));
+        verify(backlogEpicRepository, never()).deleteAllInBatch(any());
+    }
+
+    private BacklogEpic epic(String epicId, String name) {
+        BacklogEpic epic = new BacklogEpic();
+        epic.setProduct(product);
+        epic.setEpicId(epicId);
+        epic.setEpicName(name);
+        return epic;
+    }
+
+    private static EpicDto dto(String epicId, String name) {
+        EpicDto epicDto = new EpicDto();
+        epicDto.setId(epicId);
+        epicDto.setName(name);
+        return epicDto;
+    }
+
+    private static List<String> epicIds(Iterable<BacklogEpic> epics) {
+        return StreamSupport.stream(epics.spliterator(), false)
+                .map(BacklogEpic::getEpicId)
+                .collect(Collectors.toList());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.productapp.service;
+
+import com.productapp.dto.CapacityPlanRequest;
+import com.productapp.dto.EpicEffortRequest;
+import com.productapp.entity.CapacityPlan;
+import com.productapp.entity.EpicEffort;
+import com.productapp.repository.CapacityPlanRepository;
+import com.productapp.repository.EpicEffortRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CapacityPlanServiceTest {
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final Long PLAN_ID = 10L;
+
+    @Mock
+    private CapacityPlanRepository capacityPlanRepository;
+
+    @Mock
+    private EpicEffortRepository epicEffortRepository;
+
+    @Mock
+    private EpicEffortRatingService epicEffortRatingService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private CapacityPlanService capacityPlanService;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> rows;
+
+    private CapacityPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        plan = new CapacityPlan(PRODUCT_ID, 2025, 1);
+        plan.setId(PLAN_ID);
+    }
+
+    @Test
+    void writesOnlyCellsWhoseEffortOrNotesChanged() {
+        when(capacityPlanRepository.findByProductIdAndYearAndQuarter(PRODUCT_ID, 2025, 1)).thenReturn(Optional.of(plan));
+        when(epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(PLAN_ID)).thenReturn(List.of(
+                effort("a", 1L, 3, null), effort("a", 2L, 5, "x"), effort("b", 1L, 2, null)));
+
+        capacityPlanService.saveCapacityPlan(PRODUCT_ID, 2025, 1, request(null,
+                cell("a", 1L, 3, null), cell("a", 2L, 5, "y"), cell("b", 1L, 4, null), cell("c", 1L, 1, null)));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(List.of("a/2=5 y", "b/1=4 null", "c/1=1 null"), describe(rows.getValue()));
+        verify(epicEffortRatingService).refreshEpics(plan, Set.of("a", "b", "c"));
+        verify(epicEffortRatingService, never()).refreshPlan(any());
+    }
+
+    @Test
+    void laterCellsWinAndCellsEditedBackToTheirStoredValueAreSkipped() {
+        when(capacityPlanRepository.findByProductIdAndYearAndQuarter(PRODUCT_ID, 2025, 1)).thenReturn(Optional.of(plan));
+        when(epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(PLAN_ID)).thenReturn(List.of(
+                effort("a", 1L, 3, null), effort("b", 1L, 2, null)));
+
+        capacityPlanService.saveCapacityPlan(PRODUCT_ID, 2025, 1, request(null,
+                cell("a", 1L, 4, null), cell("b", 1L, 7, null), cell("a", 1L, 6, null), cell("b", 1L, 2, null)));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(List.of("a/1=6 null"), describe(rows.getValue()));
+        verify(epicEffortRatingService).refreshEpics(plan, Set.of("a"));
+    }
+
+    @Test
+    void unchangedGridWritesNothing() {
+        when(capacityPlanRepository.findByProductIdAndYearAndQuarter(PRODUCT_ID, 2025, 1)).thenReturn(Optional.of(plan));
+        when(epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(PLAN_ID)).thenReturn(List.of(
+                effort("a", 1L, 3, "x")));
+
+        capacityPlanService.saveCapacityPlan(PRODUCT_ID, 2025, 1, request("SPRINTS", cell("a", 1L, 3, "x")));
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(capacityPlanRepository, never()).save(any());
+        verify(epicEffortRatingService).refreshEpics(plan, Set.of());
+    }
+
+    @Test
+    void effortUnitChangeRefreshesTheWholePlan() {
+        when(capacityPlanRepository.findByProductIdAndYearAndQuarter(PRODUCT_ID, 2025, 1)).thenReturn(Optional.of(plan));
+        when(capacityPlanRepository.save(plan)).thenReturn(plan);
+        when(epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(PLAN_ID)).thenReturn(List.of(
+                effort("a", 1L, 3, null)));
+
+        CapacityPlan saved = capacityPlanService.saveCapacityPlan(PRODUCT_ID, 2025, 1, request("DAYS", cell("a", 1L, 3, null)));
+
+        assertSame(plan, saved);
+        assertEquals("DAYS", plan.getEffortUnit());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(epicEffortRatingService).refreshPlan(plan);
+        verify(epicEffortRatingService, never()).refreshEpics(any(), any());
+    }
+
+    @Test
+    void newPlanWritesEveryCell() {
+        when(capacityPlanRepository.findByProductIdAndYearAndQuarter(PRODUCT_ID, 2025, 1)).thenReturn(Optional.empty());
+        when(capacityPlanRepository.save(any(CapacityPlan.class))).thenAnswer(invocation -> {
+            CapacityPlan created = invocation.getArgument(0);
+            created.setId(PLAN_ID);
+            return created;
+        });
+        when(epicEffortRepository.findByCapacityPlanIdOrderByEpicNameTeamId(PLAN_ID)).thenReturn(List.of());
+
+        capacityPlanService.saveCapacityPlan(PRODUCT_ID, 2025, 1, request(null, cell("a", 1L, 3, null), cell("a", 2L, 0, null)));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(List.of("a/1=3 null", "a/2=0 null"), describe(rows.getValue()));
+        assertEquals(PLAN_ID, rows.getValue().get(0)[0]);
+    }
+
+    private static CapacityPlanRequest request(String effortUnit, EpicEffortRequest... cells) {
+        CapacityPlanRequest request = new CapacityPlanRequest(2025, 1, List.of(cells));
+        request.setEffortUnit(effortUnit);
+        return request;
+    }
+
+    private static EpicEffortRequest cell(String epicId, Long teamId, Integer effortDays, String notes) {
+        return new EpicEffortRequest(epicId, "Epic " + epicId, teamId, effortDays, notes);
+    }
+
+    private static EpicEffort effort(String epicId, Long teamId, Integer effortDays, String notes) {
+        EpicEffort effort = new EpicEffort(PLAN_ID, epicId, "Epic " + epicId, teamId, effortDays);
+        effort.setNotes(notes);
+        return effort;
+    }
+
+    // Upsert rows as epic/team=effort notes
+    private static List<String> describe(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> row[1] + "/" + row[3] + "=" + row[4] + " " + row[5])
+                .collect(Collectors.toList());
+    }
+}
\ No newline at end of file
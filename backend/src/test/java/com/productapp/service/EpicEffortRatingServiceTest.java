@@ -0,0 +1,190 @@
+package com.productapp.service;
+
+import com.productapp.entity.CapacityPlan;
+import com.productapp.entity.EffortRatingConfig;
+import com.productapp.entity.EpicEffortRating;
+import com.productapp.repository.CapacityPlanRepository;
+import com.productapp.repository.EffortRatingConfigRepository;
+import com.productapp.repository.EpicEffortRatingRepository;
+import com.productapp.repository.EpicEffortRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EpicEffortRatingServiceTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    @Mock
+    private EpicEffortRatingRepository epicEffortRatingRepository;
+
+    @Mock
+    private EpicEffortRepository epicEffortRepository;
+
+    @Mock
+    private EffortRatingConfigRepository effortRatingConfigRepository;
+
+    @Mock
+    private CapacityPlanRepository capacityPlanRepository;
+
+    @InjectMocks
+    private EpicEffortRatingService epicEffortRatingService;
+
+    @Captor
+    private ArgumentCaptor<Iterable<EpicEffortRating>> saved;
+
+    @Captor
+    private ArgumentCaptor<Iterable<EpicEffortRating>> deleted;
+
+    private CapacityPlan sprintPlan;
+    private EffortRatingConfig sprints;
+    private EffortRatingConfig days;
+
+    @BeforeEach
+    void setUp() {
+        sprintPlan = plan(10L, "SPRINTS");
+        sprints = EffortRatingConfig.createDefaultForSprints(PRODUCT_ID);
+        days = EffortRatingConfig.createDefaultForDays(PRODUCT_ID);
+    }
+
+    @Test
+    void refreshEpicsWritesOnlyChangedRatingsAndDropsEpicsWithoutEfforts() {
+        List<String> epicIds = List.of("same", "grown", "new", "gone");
+        when(epicEffortRepository.sumEffortByEpic(10L, epicIds)).thenReturn(List.of(
+                new Object[] {"same", 3L}, new Object[] {"grown", 9L}, new Object[] {"new", 1L}));
+        EpicEffortRating same = rating(101L, 10L, "same", 3, 2);
+        EpicEffortRating grown = rating(102L, 10L, "grown", 4, 2);
+        EpicEffortRating gone = rating(103L, 10L, "gone", 5, 3);
+        when(epicEffortRatingRepository.findByCapacityPlanIdAndEpicIdIn(10L, epicIds)).thenReturn(List.of(same, grown, gone));
+        when(effortRatingConfigRepository.findByProductId(PRODUCT_ID)).thenReturn(List.of(days, sprints));
+
+        epicEffortRatingService.refreshEpics(sprintPlan, epicIds);
+
+        verify(epicEffortRatingRepository).deleteAllInBatch(deleted.capture());
+        assertEquals(List.of(gone), toList(deleted.getValue()));
+
+        verify(epicEffortRatingRepository).saveAll(saved.capture());
+        Map<String, EpicEffortRating> savedByEpicId = byEpicId(saved.getValue());
+        assertEquals(2, savedByEpicId.size());
+        assertSame(grown, savedByEpicId.get("grown"));
+        assertEquals(9, grown.getTotalEffort());
+        assertEquals(5, grown.getStarRating());
+        assertEquals(1, savedByEpicId.get("new").getTotalEffort());
+        assertEquals(1, savedByEpicId.get("new").getStarRating());
+        assertEquals(10L, savedByEpicId.get("new").getCapacityPlanId());
+    }
+
+    @Test
+    void refreshEpicsWithoutEpicsDoesNothing() {
+        epicEffortRatingService.refreshEpics(sprintPlan, List.of());
+
+        verify(epicEffortRatingRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void refreshPlanRatesUnderPlanUnitAndRemovesStaleRows() {
+        CapacityPlan dayPlan = plan(20L, "DAYS");
+        when(epicEffortRepository.sumEffortByEpic(20L)).thenReturn(List.of(new Object[] {"a", 15L}, new Object[] {"b", null}));
+        EpicEffortRating a = rating(201L, 20L, "a", 15, 5);
+        EpicEffortRating stale = rating(202L, 20L, "stale", 8, 4);
+        when(epicEffortRatingRepository.findByCapacityPlanId(20L)).thenReturn(List.of(a, stale));
+        when(effortRatingConfigRepository.findByProductId(PRODUCT_ID)).thenReturn(List.of(sprints, days));
+
+        epicEffortRatingService.refreshPlan(dayPlan);
+
+        verify(epicEffortRatingRepository).deleteAllInBatch(deleted.capture());
+        assertEquals(List.of(stale), toList(deleted.getValue()));
+        verify(epicEffortRatingRepository).saveAll(saved.capture());
+        Map<String, EpicEffortRating> savedByEpicId = byEpicId(saved.getValue());
+        // 15 days is two stars under the days config, not five under sprints
+        assertEquals(2, a.getStarRating());
+        assertSame(a, savedByEpicId.get("a"));
+        // An epic whose efforts sum to nothing keeps a zero total and no rating
+        assertEquals(0, savedByEpicId.get("b").getTotalEffort());
+        assertNull(savedByEpicId.get("b").getStarRating());
+    }
+
+    @Test
+    void refreshProductReRatesStoredTotalsOnly() {
+        CapacityPlan dayPlan = plan(20L, "DAYS");
+        when(effortRatingConfigRepository.findByProductId(PRODUCT_ID)).thenReturn(List.of(sprints, days));
+        when(capacityPlanRepository.findByProductIdOrderByYearDescQuarterDesc(PRODUCT_ID)).thenReturn(List.of(sprintPlan, dayPlan));
+        EpicEffortRating unchanged = rating(1L, 10L, "a", 3, 2);
+        EpicEffortRating changed = rating(2L, 20L, "b", 25, 5);
+        // A plan that no longer exists
+        EpicEffortRating orphan = rating(3L, 99L, "c", 4, 2);
+        when(epicEffortRatingRepository.findByProductId(PRODUCT_ID)).thenReturn(List.of(unchanged, changed, orphan));
+
+        epicEffortRatingService.refreshProduct(PRODUCT_ID);
+
+        verify(epicEffortRatingRepository).saveAll(saved.capture());
+        assertEquals(List.of(changed, orphan), toList(saved.getValue()));
+        assertEquals(3, changed.getStarRating());
+        assertEquals(25, changed.getTotalEffort());
+        assertNull(orphan.getStarRating());
+        verify(epicEffortRepository, never()).sumEffortByEpic(10L);
+    }
+
+    @Test
+    void selectConfigFallsBackToFirstConfig() {
+        assertSame(days, EpicEffortRatingService.selectConfig(plan(30L, "DAYS"), List.of(sprints, days)));
+        assertSame(sprints, EpicEffortRatingService.selectConfig(plan(30L, "POINTS"), List.of(sprints, days)));
+        assertNull(EpicEffortRatingService.selectConfig(plan(30L, "DAYS"), List.of()));
+    }
+
+    @Test
+    void calculateStarRatingBands() {
+        assertNull(EpicEffortRatingService.calculateStarRating(0, sprints));
+        assertNull(EpicEffortRatingService.calculateStarRating(null, sprints));
+        assertNull(EpicEffortRatingService.calculateStarRating(5, null));
+        int[] expected = {1, 1, 2, 2, 3, 3, 4, 4, 5, 5};
+        for (int effort = 1; effort <= expected.length; effort++) {
+            assertEquals(expected[effort - 1], EpicEffortRatingService.calculateStarRating(effort, sprints), "effort " + effort);
+        }
+        assertEquals("2025-Q3", EpicEffortRatingService.quarterKey(2025, 3));
+    }
+
+    private static CapacityPlan plan(Long id, String effortUnit) {
+        CapacityPlan plan = new CapacityPlan(PRODUCT_ID, 2025, 1);
+        plan.setId(id);
+        plan.setEffortUnit(effortUnit);
+        return plan;
+    }
+
+    private static EpicEffortRating rating(Long id, Long capacityPlanId, String epicId, int totalEffort, Integer starRating) {
+        EpicEffortRating rating = new EpicEffortRating(capacityPlanId, epicId);
+        ReflectionTestUtils.setField(rating, "id", id);
+        rating.setTotalEffort(totalEffort);
+        rating.setStarRating(starRating);
+        return rating;
+    }
+
+    private static List<EpicEffortRating> toList(Iterable<EpicEffortRating> ratings) {
+        return StreamSupport.stream(ratings.spliterator(), false).collect(Collectors.toList());
+    }
+
+    private static Map<String, EpicEffortRating> byEpicId(Iterable<EpicEffortRating> ratings) {
+        return toList(ratings).stream().collect(Collectors.toMap(EpicEffortRating::getEpicId, Function.identity()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.productapp.service;
+
+import com.productapp.dto.KanbanItemResponse;
+import com.productapp.entity.KanbanItem;
+import com.productapp.entity.Product;
+import com.productapp.entity.QuarterlyRoadmap;
+import com.productapp.entity.RoadmapItem;
+import com.productapp.entity.User;
+import com.productapp.model.Organization;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The board is assembled from a fixed set of queries, whatever the number of cards and published
+ * roadmap items: growing the board must not add statements.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(KanbanBoardService.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:kanban;MODE=MySQL;NON_KEYWORDS=YEAR,DAY,VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class KanbanBoardServiceQueryCountTest {
+
+    private static final long MAX_BOARD_STATEMENTS = 4;
+
+    @Autowired
+    private KanbanBoardService kanbanBoardService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Product product;
+    private QuarterlyRoadmap roadmap;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Organization organization = new Organization("Acme", null);
+        organization.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(organization);
+
+        User user = new User("owner@example.com", "secret");
+        user.setOrganization(organization);
+        user.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(user);
+
+        product = new Product("Board", user);
+        product.setOrganization(organization);
+        product.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(product);
+
+        roadmap = new QuarterlyRoadmap();
+        roadmap.setProductId(product.getId());
+        roadmap.setYear(2025);
+        roadmap.setQuarter(1);
+        roadmap.setPublished(true);
+        entityManager.persist(roadmap);
+    }
+
+    @Test
+    void boardLoadsInConstantNumberOfStatements() {
+        addCards(0, 3);
+        long smallBoard = countBoardStatements(6 * 3);
+
+        addCards(3, 60);
+        long largeBoard = countBoardStatements(6 * 60);
+
+        assertEquals(smallBoard, largeBoard, "board statements grew with the number of cards");
+        assertTrue(largeBoard <= MAX_BOARD_STATEMENTS, "board took " + largeBoard + " statements");
+    }
+
+    // Statements run by one board load from a cold persistence context
+    private long countBoardStatements(int expectedCards) {
+        entityManager.flush();
+        entityManager.clear();
+        Product detached = entityManager.find(Product.class, product.getId());
+
+        statistics.clear();
+        Map<String, List<KanbanItemResponse>> board = kanbanBoardService.getBoard(detached);
+        long statements = statistics.getPrepareStatementCount();
+
+        int cards = board.values().stream().mapToInt(List::size).sum();
+        assertEquals(expectedCards, cards);
+        // Roadmap items whose epic has moved on are shown by their tracking item only, and tracking
+        // items still in COMMITTED are shown by their roadmap item only
+        for (KanbanItemResponse card : board.get(KanbanBoardService.COMMITTED)) {
+            assertFalse(card.getEpicId() != null && card.getEpicId().startsWith("tracked-"), card.getEpicId());
+            if (KanbanBoardService.ROADMAP_ITEM_LABEL.equals(card.getLabels())) {
+                assertTrue(card.getId() < 0, "tracking item " + card.getId() + " shown in COMMITTED");
+            }
+        }
+        assertTrue(board.get(KanbanBoardService.TODO).stream().allMatch(card -> card.getEpicId().startsWith("tracked-")));
+        return statements;
+    }
+
+    // For each index in [from, to), six visible cards: a plain COMMITTED card, the TODO tracking item
+    // of a published epic that moved on, an epic-linked IN_PROGRESS card, a DONE card, and the roadmap
+    // cards of a published epic whose tracking item is still in COMMITTED and of one without a
+    // tracking item. The moved-on roadmap item and the COMMITTED tracking item stay hidden.
+    private void addCards(int from, int to) {
+        for (int i = from; i < to; i++) {
+            addCard(KanbanBoardService.COMMITTED, i, null, null);
+            addCard(KanbanBoardService.TODO, i, "tracked-" + i, KanbanBoardService.ROADMAP_ITEM_LABEL);
+            addCard(KanbanBoardService.IN_PROGRESS, i, "linked-" + i, null);
+            addCard(KanbanBoardService.DONE, i, null, null);
+            addCard(KanbanBoardService.COMMITTED, i, "committed-" + i, KanbanBoardService.ROADMAP_ITEM_LABEL);
+
+            addRoadmapItem("tracked-" + i, "In Progress");
+            addRoadmapItem("committed-" + i, "Committed");
+            addRoadmapItem("untracked-" + i, "Committed");
+        }
+    }
+
+    private void addCard(String column, int i, String epicId, String labels) {
+        KanbanItem item = new KanbanItem();
+        item.setTitle(column + " card " + i);
+        item.setStatus(column);
+        item.setPosition(i);
+        item.setRankKey(String.format("a%05d", i));
+        item.setEpicId(epicId);
+        item.setLabels(labels);
+        item.setProduct(product);
+        entityManager.persist(item);
+    }
+
+    private void addRoadmapItem(String epicId, String status) {
+        RoadmapItem roadmapItem = new RoadmapItem();
+        roadmapItem.setRoadmap(roadmap);
+        roadmapItem.setEpicId(epicId);
+        roadmapItem.setEpicName("Epic " + epicId);
+        roadmapItem.setStatus(status);
+        roadmapItem.setPublished(true);
+        entityManager.persist(roadmapItem);
+    }
+}
\ No newline at end of file
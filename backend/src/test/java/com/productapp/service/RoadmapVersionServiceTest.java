@@ -0,0 +1,227 @@
+package com.productapp.service;
+
+import com.productapp.entity.QuarterlyRoadmap;
+import com.productapp.entity.RoadmapItem;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Versions are rebuilt from a checkpoint and the deltas after it, so every recorded version must
+ * read back exactly as the items were when it was recorded, across checkpoint boundaries and after
+ * the JSON round trip of the payloads.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RoadmapVersionService.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:versions;MODE=MySQL;NON_KEYWORDS=YEAR,DAY,VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class RoadmapVersionServiceTest {
+
+    @Autowired
+    private RoadmapVersionService roadmapVersionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private QuarterlyRoadmap roadmap;
+    private List<RoadmapItem> items;
+    private int nextEpic;
+
+    @BeforeEach
+    void setUp() {
+        roadmap = new QuarterlyRoadmap();
+        roadmap.setProductId(1L);
+        roadmap.setYear(2025);
+        roadmap.setQuarter(2);
+        entityManager.persist(roadmap);
+        items = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            addItem();
+        }
+    }
+
+    @Test
+    void everyVersionRebuildsAcrossCheckpoints() {
+        List<Map<String, Map<String, Object>>> expected = new ArrayList<>();
+        int versions = 2 * RoadmapVersionService.CHECKPOINT_INTERVAL + 5;
+        for (int round = 0; round < versions; round++) {
+            if (round > 0) {
+                edit(round);
+            }
+            record();
+            expected.add(expectedItems());
+        }
+
+        for (int version = 1; version <= versions; version++) {
+            assertItems(expected.get(version - 1), roadmapVersionService.getVersion(roadmap.getId(), version).orElseThrow());
+        }
+        List<Map<String, Object>> summaries = roadmapVersionService.getVersions(roadmap.getId());
+        assertEquals(versions, summaries.size());
+        for (Map<String, Object> summary : summaries) {
+            int version = (Integer) summary.get("version");
+            assertEquals((version - 1) % RoadmapVersionService.CHECKPOINT_INTERVAL == 0, summary.get("checkpoint"), "version " + version);
+        }
+    }
+
+    @Test
+    void unchangedItemsAddNoVersion() {
+        record();
+        // Dates, doubles, integers, booleans and nulls all compare equal after the JSON round trip
+        record();
+        entityManager.flush();
+        record();
+
+        assertEquals(1, roadmapVersionService.getVersions(roadmap.getId()).size());
+    }
+
+    @Test
+    void fieldChangesAppendDeltaMatchingFullRecording() {
+        record();
+        RoadmapItem item = items.get(1);
+        item.setStatus("Done");
+        item.setStartDate(LocalDate.of(2025, 5, 2));
+        entityManager.flush();
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("status", "Done");
+        fields.put("startDate", LocalDate.of(2025, 5, 2));
+        roadmapVersionService.recordFieldChanges(roadmap.getId(), Map.of(item.getEpicId(), fields));
+
+        List<Map<String, Object>> summaries = roadmapVersionService.getVersions(roadmap.getId());
+        assertEquals(2, summaries.size());
+        assertEquals(false, summaries.get(0).get("checkpoint"));
+        assertEquals(1, summaries.get(0).get("changeCount"));
+        assertItems(expectedItems(), roadmapVersionService.getVersion(roadmap.getId(), 2).orElseThrow());
+        // A full recording finds nothing left to record
+        record();
+        assertEquals(2, roadmapVersionService.getVersions(roadmap.getId()).size());
+    }
+
+    @Test
+    void fieldChangesFallBackToFullRecordingForFirstVersionAndCheckpoints() {
+        RoadmapItem item = items.get(0);
+        roadmapVersionService.recordFieldChanges(roadmap.getId(), Map.of(item.getEpicId(), Map.of("status", "Committed")));
+        assertEquals(true, roadmapVersionService.getVersions(roadmap.getId()).get(0).get("checkpoint"));
+
+        for (int version = 2; version <= RoadmapVersionService.CHECKPOINT_INTERVAL + 1; version++) {
+            item.setReach(version);
+            entityManager.flush();
+            roadmapVersionService.recordFieldChanges(roadmap.getId(), Map.of(item.getEpicId(), Map.of("reach", version)));
+        }
+
+        List<Map<String, Object>> summaries = roadmapVersionService.getVersions(roadmap.getId());
+        assertEquals(RoadmapVersionService.CHECKPOINT_INTERVAL + 1, summaries.size());
+        assertEquals(true, summaries.get(0).get("checkpoint"));
+        assertEquals(false, summaries.get(1).get("checkpoint"));
+        assertItems(expectedItems(), roadmapVersionService.getVersion(roadmap.getId(), RoadmapVersionService.CHECKPOINT_INTERVAL + 1).orElseThrow());
+    }
+
+    @Test
+    void diffReportsAddedRemovedAndChangedFields() {
+        record();
+        RoadmapItem removed = items.remove(0);
+        entityManager.remove(removed);
+        items.get(0).setPriority("Low");
+        RoadmapItem added = addItem();
+        record();
+
+        Map<String, Object> diff = roadmapVersionService.diff(roadmap.getId(), 1, 2).orElseThrow();
+
+        assertEquals(List.of(removed.getEpicId()), diff.get("removed"));
+        assertEquals(List.of(added.getEpicId()), new ArrayList<>(((Map<?, ?>) diff.get("added")).keySet()));
+        Map<?, ?> changed = (Map<?, ?>) diff.get("changed");
+        assertEquals(1, changed.size());
+        Map<?, ?> priority = (Map<?, ?>) ((Map<?, ?>) changed.get(items.get(0).getEpicId())).get("priority");
+        assertEquals("High", priority.get("from"));
+        assertEquals("Low", priority.get("to"));
+        assertTrue(roadmapVersionService.diff(roadmap.getId(), 1, 3).isEmpty());
+    }
+
+    // Each round sets a new status; some also add an epic, remove the oldest or move its dates
+    private void edit(int round) {
+        items.get(round % items.size()).setStatus("Status " + round);
+        if (round % 3 == 0) {
+            addItem();
+        }
+        if (round % 5 == 0) {
+            entityManager.remove(items.remove(0));
+        }
+        if (round % 7 == 0) {
+            RoadmapItem item = items.get(items.size() - 1);
+            item.setStartDate(item.getStartDate().plusDays(round));
+            item.setRiceScore(item.getRiceScore() + 0.25);
+            item.setPublished(!item.getPublished());
+        }
+    }
+
+    private RoadmapItem addItem() {
+        int epic = nextEpic++;
+        RoadmapItem item = new RoadmapItem();
+        item.setRoadmap(roadmap);
+        item.setEpicId(String.format("epic-%03d", epic));
+        item.setEpicName("Epic " + epic);
+        item.setPriority("High");
+        item.setStatus("Committed");
+        item.setReach(epic * 10);
+        item.setRiceScore(epic + 0.5);
+        item.setStartDate(LocalDate.of(2025, 4, 1));
+        item.setPublished(false);
+        entityManager.persist(item);
+        items.add(item);
+        return item;
+    }
+
+    private void record() {
+        entityManager.flush();
+        roadmapVersionService.recordVersion(roadmap.getId());
+    }
+
+    // The fields the tests vary, in the form versions store them
+    private Map<String, Map<String, Object>> expectedItems() {
+        Map<String, Map<String, Object>> expected = new TreeMap<>();
+        for (RoadmapItem item : items) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("epicName", item.getEpicName());
+            fields.put("priority", item.getPriority());
+            fields.put("status", item.getStatus());
+            fields.put("reach", item.getReach());
+            fields.put("riceScore", item.getRiceScore());
+            fields.put("startDate", item.getStartDate() != null ? item.getStartDate().toString() : null);
+            fields.put("endDate", null);
+            fields.put("published", item.getPublished());
+            expected.put(item.getEpicId(), fields);
+        }
+        return expected;
+    }
+
+    private static void assertItems(Map<String, Map<String, Object>> expected, Map<String, Map<String, Object>> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, Map<String, Object>> item : expected.entrySet()) {
+            for (Map.Entry<String, Object> field : item.getValue().entrySet()) {
+                assertEquals(field.getValue(), actual.get(item.getKey()).get(field.getKey()), item.getKey() + "." + field.getKey());
+            }
+        }
+    }
+}
\ No newline at end of file
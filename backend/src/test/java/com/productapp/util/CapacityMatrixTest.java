@@ -0,0 +1,163 @@
+package com.productapp.util;
+
+import com.productapp.entity.EffortRatingConfig;
+import com.productapp.service.EpicEffortRatingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Totals and star ratings of a built matrix, and of scenarios forked from it, checked against the
+ * per-epic figures the rest of the application computes.
+ */
+class CapacityMatrixTest {
+
+    private static final long TEAM_A = 10L;
+    private static final long TEAM_B = 20L;
+    private static final long TEAM_C = 30L;
+
+    private CapacityMatrix matrix;
+
+    // epic-1: 1 + 2, epic-2: 4 + 3 (the second cell for team B is added up), epic-3: nothing yet
+    @BeforeEach
+    void setUp() {
+        matrix = new CapacityMatrix.Builder()
+                .addTeam(TEAM_C)
+                .addCell("epic-1", "Epic 1", TEAM_A, 1)
+                .addCell("epic-1", "Epic 1", TEAM_B, 2)
+                .addCell("epic-2", "Epic 2", TEAM_A, 4)
+                .addCell("epic-2", "Epic 2", TEAM_B, 1)
+                .addCell("epic-2", "Epic 2", TEAM_B, 2)
+                .addCell("epic-3", "Epic 3", TEAM_C, 0)
+                .build();
+    }
+
+    @Test
+    void buildComputesRowColumnAndGrandTotals() {
+        int epic1 = matrix.indexOfEpic("epic-1");
+        int epic2 = matrix.indexOfEpic("epic-2");
+        int epic3 = matrix.indexOfEpic("epic-3");
+        int teamA = matrix.indexOfTeam(TEAM_A);
+        int teamB = matrix.indexOfTeam(TEAM_B);
+        int teamC = matrix.indexOfTeam(TEAM_C);
+
+        assertEquals(3, matrix.getEpicCount());
+        assertEquals(3, matrix.getTeamCount());
+        assertEquals(-1, matrix.indexOfEpic("epic-4"));
+        assertEquals(-1, matrix.indexOfTeam(40L));
+
+        assertEquals(3, matrix.getEffort(epic2, teamB));
+        assertEquals(3, matrix.getEpicTotal(epic1));
+        assertEquals(7, matrix.getEpicTotal(epic2));
+        assertEquals(0, matrix.getEpicTotal(epic3));
+        assertEquals(5, matrix.getTeamTotal(teamA));
+        assertEquals(5, matrix.getTeamTotal(teamB));
+        assertEquals(0, matrix.getTeamTotal(teamC));
+        assertEquals(10, matrix.getGrandTotal());
+    }
+
+    @Test
+    void starRatingsMatchRatingService() {
+        EffortRatingConfig config = EffortRatingConfig.createDefaultForSprints(1L);
+        int[] totals = new int[12];
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = i - 1;
+        }
+
+        int[] ratings = CapacityMatrix.starRatings(totals, config.getStar1Max(), config.getStar2Max(),
+                config.getStar3Max(), config.getStar4Max());
+
+        for (int i = 0; i < totals.length; i++) {
+            Integer expected = EpicEffortRatingService.calculateStarRating(totals[i], config);
+            // The matrix rates an epic without effort 0 where the service has no rating
+            assertEquals(expected != null ? expected : 0, ratings[i], "rating of total " + totals[i]);
+        }
+    }
+
+    @Test
+    void matrixStarRatingsUseEpicTotals() {
+        EffortRatingConfig config = EffortRatingConfig.createDefaultForSprints(1L);
+        int[] ratings = matrix.starRatings(config.getStar1Max(), config.getStar2Max(),
+                config.getStar3Max(), config.getStar4Max());
+
+        for (int epic = 0; epic < matrix.getEpicCount(); epic++) {
+            Integer expected = EpicEffortRatingService.calculateStarRating(matrix.getEpicTotal(epic), config);
+            assertEquals(expected != null ? expected : 0, ratings[epic], matrix.getEpicId(epic));
+        }
+    }
+
+    @Test
+    void unEditedScenarioEvaluatesToMatrixTotals() {
+        CapacityMatrix.Totals totals = matrix.fork().evaluate();
+
+        for (int epic = 0; epic < matrix.getEpicCount(); epic++) {
+            assertEquals(matrix.getEpicTotal(epic), totals.getEpicTotal(epic));
+        }
+        for (int team = 0; team < matrix.getTeamCount(); team++) {
+            assertEquals(matrix.getTeamTotal(team), totals.getTeamTotal(team));
+        }
+        assertEquals(matrix.getGrandTotal(), totals.getGrandTotal());
+    }
+
+    @Test
+    void scenarioAppliesEditedCellsAndRemovedEpics() {
+        int epic1 = matrix.indexOfEpic("epic-1");
+        int epic2 = matrix.indexOfEpic("epic-2");
+        int epic3 = matrix.indexOfEpic("epic-3");
+        int teamA = matrix.indexOfTeam(TEAM_A);
+        int teamB = matrix.indexOfTeam(TEAM_B);
+        int teamC = matrix.indexOfTeam(TEAM_C);
+
+        CapacityMatrix.Scenario scenario = matrix.fork()
+                .setEffort(epic1, teamA, 6)
+                .setEffort(epic3, teamC, 2)
+                // Edits to a removed epic are ignored
+                .setEffort(epic2, teamB, 9)
+                .removeEpic(epic2);
+        CapacityMatrix.Totals totals = scenario.evaluate();
+
+        assertTrue(scenario.isRemoved(epic2));
+        assertFalse(scenario.isRemoved(epic1));
+        assertEquals(6, scenario.getEffort(epic1, teamA));
+        assertEquals(0, scenario.getEffort(epic2, teamA));
+
+        assertEquals(8, totals.getEpicTotal(epic1));
+        assertEquals(0, totals.getEpicTotal(epic2));
+        assertEquals(2, totals.getEpicTotal(epic3));
+        assertEquals(6, totals.getTeamTotal(teamA));
+        assertEquals(2, totals.getTeamTotal(teamB));
+        assertEquals(2, totals.getTeamTotal(teamC));
+        assertEquals(10, totals.getGrandTotal());
+        assertArrayEquals(new int[] {4, 0, 1}, reorder(totals.starRatings(2, 4, 6, 8), epic1, epic2, epic3));
+
+        // The matrix itself is left as it was
+        assertEquals(1, matrix.getEffort(epic1, teamA));
+        assertEquals(7, matrix.getEpicTotal(epic2));
+        assertEquals(10, matrix.getGrandTotal());
+    }
+
+    @Test
+    void scenariosAreIndependent() {
+        int epic1 = matrix.indexOfEpic("epic-1");
+        int teamA = matrix.indexOfTeam(TEAM_A);
+
+        CapacityMatrix.Scenario edited = matrix.fork().setEffort(epic1, teamA, 5);
+        CapacityMatrix.Scenario removed = matrix.fork().removeEpic(epic1);
+
+        assertEquals(14, edited.evaluate().getGrandTotal());
+        assertEquals(7, removed.evaluate().getGrandTotal());
+        assertEquals(10, matrix.fork().evaluate().getGrandTotal());
+    }
+
+    private static int[] reorder(int[] values, int... indexes) {
+        int[] reordered = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            reordered[i] = values[indexes[i]];
+        }
+        return reordered;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.productapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CycleTimeSketchTest {
+
+    private static final double[] QUANTILES = {0, 0.1, 0.25, 0.5, 0.75, 0.85, 0.95, 0.99, 1};
+
+    @Test
+    void quantilesAreWithinRelativeAccuracy() {
+        double[] hours = randomHours(new Random(42), 5000);
+        CycleTimeSketch sketch = new CycleTimeSketch();
+        for (double value : hours) {
+            sketch.add(value);
+        }
+
+        assertEquals(hours.length, sketch.getCount());
+        assertQuantiles(hours, sketch);
+    }
+
+    @Test
+    void mergedSketchMatchesSketchOfAllValues() {
+        Random random = new Random(7);
+        double[] first = randomHours(random, 800);
+        double[] second = randomHours(random, 1200);
+        CycleTimeSketch firstSketch = new CycleTimeSketch();
+        CycleTimeSketch secondSketch = new CycleTimeSketch();
+        CycleTimeSketch allSketch = new CycleTimeSketch();
+        for (double value : first) {
+            firstSketch.add(value);
+            allSketch.add(value);
+        }
+        for (double value : second) {
+            secondSketch.add(value);
+            allSketch.add(value);
+        }
+
+        firstSketch.merge(secondSketch);
+
+        assertEquals(allSketch.encode(), firstSketch.encode());
+        assertEquals(first.length + second.length, firstSketch.getCount());
+        double[] all = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        assertQuantiles(all, firstSketch);
+    }
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        CycleTimeSketch sketch = new CycleTimeSketch();
+        for (double value : randomHours(new Random(3), 300)) {
+            sketch.add(value);
+        }
+
+        CycleTimeSketch decoded = CycleTimeSketch.decode(sketch.encode());
+
+        assertEquals(sketch.getCount(), decoded.getCount());
+        assertEquals(sketch.encode(), decoded.encode());
+        for (double q : QUANTILES) {
+            assertEquals(sketch.quantile(q), decoded.quantile(q));
+        }
+    }
+
+    @Test
+    void emptySketch() {
+        CycleTimeSketch sketch = CycleTimeSketch.decode(null);
+
+        assertEquals(0, sketch.getCount());
+        assertNull(sketch.quantile(0.5));
+        assertEquals("", sketch.encode());
+        assertEquals(0, CycleTimeSketch.decode("").getCount());
+    }
+
+    @Test
+    void shortCycleTimesCountAsOneMinute() {
+        CycleTimeSketch sketch = new CycleTimeSketch();
+        sketch.add(0);
+        sketch.add(0.001);
+
+        double oneMinute = 1.0 / 60;
+        assertEquals(oneMinute, sketch.quantile(0.5), oneMinute * CycleTimeSketch.RELATIVE_ACCURACY);
+    }
+
+    // Cycle times from a few minutes to a few months, skewed towards days like real boards
+    private static double[] randomHours(Random random, int count) {
+        double[] hours = new double[count];
+        for (int i = 0; i < count; i++) {
+            hours[i] = Math.exp(random.nextGaussian() * 1.5 + 3.5);
+        }
+        return hours;
+    }
+
+    // Each estimate is within the relative accuracy of the exact value at the same rank
+    private static void assertQuantiles(double[] values, CycleTimeSketch sketch) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            double exact = sorted[(int) Math.floor(q * (sorted.length - 1))];
+            double estimate = sketch.quantile(q);
+            assertTrue(Math.abs(estimate - exact) <= exact * CycleTimeSketch.RELATIVE_ACCURACY,
+                    "q" + q + ": " + estimate + " vs " + exact);
+        }
+    }
+}
\ No newline at end of file
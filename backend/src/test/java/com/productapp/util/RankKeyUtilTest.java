@@ -0,0 +1,100 @@
+package com.productapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankKeyUtilTest {
+
+    @Test
+    void betweenSortsStrictlyBetweenBounds() {
+        String[][] bounds = {
+                {null, null}, {null, "1"}, {"y", null}, {"a", "b"}, {"a", "a1"}, {"az", "b"}, {"a", "azzz"}, {"1", "2"}
+        };
+        for (String[] bound : bounds) {
+            String key = RankKeyUtil.between(bound[0], bound[1]);
+            assertValidKey(key);
+            if (bound[0] != null) {
+                assertTrue(bound[0].compareTo(key) < 0, key + " after " + bound[0]);
+            }
+            if (bound[1] != null) {
+                assertTrue(key.compareTo(bound[1]) < 0, key + " before " + bound[1]);
+            }
+        }
+    }
+
+    @Test
+    void repeatedInsertsKeepOrder() {
+        // Always drop at the top, at the bottom and right after the first key
+        List<String> column = new ArrayList<>(List.of(RankKeyUtil.between(null, null)));
+        for (int i = 0; i < 200; i++) {
+            column.add(0, RankKeyUtil.between(null, column.get(0)));
+            column.add(RankKeyUtil.between(column.get(column.size() - 1), null));
+            column.add(1, RankKeyUtil.between(column.get(0), column.get(1)));
+        }
+
+        for (int i = 1; i < column.size(); i++) {
+            assertTrue(column.get(i - 1).compareTo(column.get(i)) < 0, column.get(i - 1) + " !< " + column.get(i));
+            assertValidKey(column.get(i));
+        }
+    }
+
+    @Test
+    void betweenWithCountIsAscendingAndBounded() {
+        List<String> keys = RankKeyUtil.between("a", "b", 1000);
+
+        assertEquals(1000, keys.size());
+        String previous = "a";
+        for (String key : keys) {
+            assertValidKey(key);
+            assertTrue(previous.compareTo(key) < 0, previous + " !< " + key);
+            previous = key;
+        }
+        assertTrue(previous.compareTo("b") < 0);
+        // Bisection: length grows with log(count)
+        assertTrue(keys.stream().mapToInt(String::length).max().getAsInt() <= 4);
+    }
+
+    @Test
+    void evenlySpacedKeysAreAscendingAndLeaveRoom() {
+        for (int count : new int[] {1, 2, 35, 36, 1000, 50000}) {
+            List<String> keys = RankKeyUtil.evenlySpaced(count);
+            assertEquals(count, keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                assertValidKey(keys.get(i));
+                if (i > 0) {
+                    assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+                    // A card can be dropped between any two neighbours
+                    RankKeyUtil.between(keys.get(i - 1), keys.get(i));
+                }
+            }
+        }
+        assertTrue(RankKeyUtil.evenlySpaced(0).isEmpty());
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> RankKeyUtil.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeyUtil.between("a", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeyUtil.between("a0", "b"));
+    }
+
+    @Test
+    void needsRebalanceOnlyPastMaxLength() {
+        assertFalse(RankKeyUtil.needsRebalance(null));
+        assertFalse(RankKeyUtil.needsRebalance("i".repeat(RankKeyUtil.MAX_KEY_LENGTH)));
+        assertTrue(RankKeyUtil.needsRebalance("i".repeat(RankKeyUtil.MAX_KEY_LENGTH + 1)));
+    }
+
+    private static void assertValidKey(String key) {
+        assertFalse(key.isEmpty());
+        assertFalse(key.endsWith("0"), key + " ends with 0");
+        assertTrue(key.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z')), key);
+    }
+}
\ No newline at end of file